@@ -0,0 +1,295 @@
+package org.globsframework.sql;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.*;
+import org.globsframework.core.streams.accessors.Accessor;
+import org.globsframework.sql.annotations.DbRef;
+import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.constraints.Constraints;
+
+import java.util.*;
+
+/*
+Apply a ChangeSet with batched requests (InDbChangeSetVisitor send one request per change) :
+- creations and updates are grouped by GlobType and set of fields, one prepared statement per group ;
+- updates only set the changed fields, never the key fields ;
+- deletions are sent as chunks of keys (see SqlConnection.deleteByKeys).
+Types are ordered with DbRef : referenced types are created and updated first, and deleted last. Inside a type,
+a row referencing (DbRef on its own type) a row created in the same ChangeSet is created after it.
+ */
+public class BatchedChangeSetApplier {
+    private final SqlConnection sqlConnection;
+    private final int batchSize;
+
+    public BatchedChangeSetApplier(SqlConnection sqlConnection) {
+        this(sqlConnection, BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchedChangeSetApplier(SqlConnection sqlConnection, int batchSize) {
+        this.sqlConnection = sqlConnection;
+        this.batchSize = batchSize;
+    }
+
+    public void apply(ChangeSet changeSet) {
+        Map<GlobType, TypeChanges> changesByType = new LinkedHashMap<>();
+        changeSet.safeVisit(new ChangeSetVisitor() {
+            public void visitCreation(Key key, FieldsValueScanner values) throws Exception {
+                SortedMap<Field, Object> row = new TreeMap<>(Comparator.comparingInt(Field::getIndex));
+                key.applyOnKeyField(row::put);
+                values.apply(row::put);
+                changesByType.computeIfAbsent(key.getGlobType(), TypeChanges::new).addCreation(row);
+            }
+
+            public void visitUpdate(Key key, FieldsValueWithPreviousScanner values) throws Exception {
+                SortedMap<Field, Object> row = new TreeMap<>(Comparator.comparingInt(Field::getIndex));
+                values.apply((field, value) -> {
+                    if (!field.isKeyField()) {
+                        row.put(field, value);
+                    }
+                });
+                if (!row.isEmpty()) {
+                    changesByType.computeIfAbsent(key.getGlobType(), TypeChanges::new).addUpdate(key, row);
+                }
+            }
+
+            public void visitDeletion(Key key, FieldsValueScanner previousValues) {
+                changesByType.computeIfAbsent(key.getGlobType(), TypeChanges::new).deletions.add(key);
+            }
+        });
+        List<TypeChanges> ordered = orderByReference(changesByType);
+        for (TypeChanges typeChanges : ordered) {
+            for (Map<List<Field>, List<Object[]>> creations : typeChanges.getCreationsByLevel()) {
+                for (Map.Entry<List<Field>, List<Object[]>> entry : creations.entrySet()) {
+                    create(typeChanges.globType, entry.getKey(), entry.getValue());
+                }
+            }
+            for (Map.Entry<List<Field>, List<Object[]>> entry : typeChanges.updates.entrySet()) {
+                update(typeChanges.globType, entry.getKey(), entry.getValue());
+            }
+        }
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            TypeChanges typeChanges = ordered.get(i);
+            if (!typeChanges.deletions.isEmpty()) {
+                sqlConnection.deleteByKeys(typeChanges.globType, typeChanges.deletions);
+            }
+        }
+    }
+
+    private void create(GlobType globType, List<Field> fields, List<Object[]> rows) {
+        CreateBuilder createBuilder = sqlConnection.getCreateBuilder(globType);
+        Object[][] current = new Object[1][];
+        for (int i = 0; i < fields.size(); i++) {
+            createBuilder.setObject(fields.get(i), new RowAccessor(current, i));
+        }
+        try (BulkDbRequest request = createBuilder.getBulkRequest(batchSize)) {
+            for (Object[] row : rows) {
+                current[0] = row;
+                request.run();
+            }
+        }
+    }
+
+    // a row is the updated values followed by the key values.
+    private void update(GlobType globType, List<Field> fields, List<Object[]> rows) {
+        Object[][] current = new Object[1][];
+        Field[] keyFields = globType.getKeyFields();
+        Constraint keyConstraint = null;
+        for (int i = 0; i < keyFields.length; i++) {
+            keyConstraint = Constraints.and(keyConstraint,
+                    Constraints.equalsObject(keyFields[i], new RowAccessor(current, fields.size() + i)));
+        }
+        UpdateBuilder updateBuilder = sqlConnection.getUpdateBuilder(globType, keyConstraint);
+        for (int i = 0; i < fields.size(); i++) {
+            updateBuilder.updateUntyped(fields.get(i), new RowAccessor(current, i));
+        }
+        try (BulkDbRequest request = updateBuilder.getBulkRequest(batchSize)) {
+            for (Object[] row : rows) {
+                current[0] = row;
+                request.run();
+            }
+        }
+    }
+
+    // depth first : the types referenced by a DbRef of a type are before it.
+    private static List<TypeChanges> orderByReference(Map<GlobType, TypeChanges> changesByType) {
+        List<TypeChanges> ordered = new ArrayList<>(changesByType.size());
+        Set<GlobType> visited = new HashSet<>();
+        for (GlobType globType : changesByType.keySet()) {
+            addWithReferences(globType, changesByType, visited, ordered);
+        }
+        return ordered;
+    }
+
+    private static void addWithReferences(GlobType globType, Map<GlobType, TypeChanges> changesByType,
+                                          Set<GlobType> visited, List<TypeChanges> ordered) {
+        if (!visited.add(globType)) {
+            return;
+        }
+        for (Field field : globType.getFields()) {
+            Glob dbRef = field.findAnnotation(DbRef.KEY);
+            if (dbRef != null) {
+                String to = dbRef.get(DbRef.TO);
+                for (GlobType referenced : changesByType.keySet()) {
+                    if (referenced != globType && isReference(to, referenced)) {
+                        addWithReferences(referenced, changesByType, visited, ordered);
+                    }
+                }
+            }
+        }
+        ordered.add(changesByType.get(globType));
+    }
+
+    // DbRef.TO is the referenced type name, or typeName.fieldName
+    private static boolean isReference(String to, GlobType globType) {
+        return to != null && (to.equals(globType.getName()) || to.startsWith(globType.getName() + "."));
+    }
+
+    // the fields of globType with a DbRef on globType, with the referenced field (the key field if not given).
+    private static Map<Field, Field> getSelfReferences(GlobType globType) {
+        Map<Field, Field> references = new LinkedHashMap<>();
+        for (Field field : globType.getFields()) {
+            Glob dbRef = field.findAnnotation(DbRef.KEY);
+            String to = dbRef == null ? null : dbRef.get(DbRef.TO);
+            if (!isReference(to, globType)) {
+                continue;
+            }
+            Field referenced = null;
+            if (to.length() > globType.getName().length()) {
+                String fieldName = to.substring(globType.getName().length() + 1);
+                referenced = globType.hasField(fieldName) ? globType.getField(fieldName) : null;
+            } else if (globType.getKeyFields().length == 1) {
+                referenced = globType.getKeyFields()[0];
+            }
+            if (referenced != null && referenced != field) {
+                references.put(field, referenced);
+            }
+        }
+        return references;
+    }
+
+    /*
+    level of a row : 0 if it does not reference a created row, else 1 + the level of the created rows it reference.
+    The rows of a cycle can not be ordered : they are left to the database.
+     */
+    private static int[] computeLevels(int[][] parents) {
+        int[] levels = new int[parents.length];
+        byte[] states = new byte[parents.length]; // 0 : not seen, 1 : in the stack, 2 : done
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int start = 0; start < parents.length; start++) {
+            if (states[start] != 0) {
+                continue;
+            }
+            states[start] = 1;
+            stack.push(start);
+            while (!stack.isEmpty()) {
+                int row = stack.peek();
+                boolean pushed = false;
+                for (int parent : parents[row]) {
+                    if (states[parent] == 0) {
+                        states[parent] = 1;
+                        stack.push(parent);
+                        pushed = true;
+                        break;
+                    }
+                }
+                if (!pushed) {
+                    int level = 0;
+                    for (int parent : parents[row]) {
+                        if (states[parent] == 2) {
+                            level = Math.max(level, levels[parent] + 1);
+                        }
+                    }
+                    levels[row] = level;
+                    states[row] = 2;
+                    stack.pop();
+                }
+            }
+        }
+        return levels;
+    }
+
+    private static class TypeChanges {
+        final GlobType globType;
+        final List<SortedMap<Field, Object>> creations = new ArrayList<>();
+        final Map<List<Field>, List<Object[]>> updates = new LinkedHashMap<>();
+        final List<Key> deletions = new ArrayList<>();
+
+        TypeChanges(GlobType globType) {
+            this.globType = globType;
+        }
+
+        void addCreation(SortedMap<Field, Object> row) {
+            creations.add(row);
+        }
+
+        // the creations grouped by set of fields, for each level (see computeLevels).
+        List<Map<List<Field>, List<Object[]>>> getCreationsByLevel() {
+            int[] levels = new int[creations.size()];
+            Map<Field, Field> selfReferences = getSelfReferences(globType);
+            if (!selfReferences.isEmpty()) {
+                levels = computeLevels(getParents(selfReferences));
+            }
+            List<Map<List<Field>, List<Object[]>>> byLevel = new ArrayList<>();
+            for (int i = 0; i < creations.size(); i++) {
+                while (byLevel.size() <= levels[i]) {
+                    byLevel.add(new LinkedHashMap<>());
+                }
+                SortedMap<Field, Object> row = creations.get(i);
+                byLevel.get(levels[i]).computeIfAbsent(List.copyOf(row.keySet()), fields -> new ArrayList<>())
+                        .add(row.values().toArray());
+            }
+            return byLevel;
+        }
+
+        // for each created row, the created rows it reference.
+        private int[][] getParents(Map<Field, Field> selfReferences) {
+            List<List<Integer>> parents = new ArrayList<>(creations.size());
+            creations.forEach(row -> parents.add(new ArrayList<>()));
+            for (Map.Entry<Field, Field> reference : selfReferences.entrySet()) {
+                Map<Object, Integer> rowByValue = new HashMap<>();
+                for (int i = 0; i < creations.size(); i++) {
+                    Object value = creations.get(i).get(reference.getValue());
+                    if (value != null) {
+                        rowByValue.put(value, i);
+                    }
+                }
+                for (int i = 0; i < creations.size(); i++) {
+                    Object value = creations.get(i).get(reference.getKey());
+                    Integer parent = value == null ? null : rowByValue.get(value);
+                    if (parent != null && parent != i) {
+                        parents.get(i).add(parent);
+                    }
+                }
+            }
+            int[][] result = new int[parents.size()][];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = parents.get(i).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return result;
+        }
+
+        void addUpdate(Key key, SortedMap<Field, Object> row) {
+            Field[] keyFields = globType.getKeyFields();
+            Object[] values = Arrays.copyOf(row.values().toArray(), row.size() + keyFields.length);
+            for (int i = 0; i < keyFields.length; i++) {
+                values[row.size() + i] = key.getValue(keyFields[i]);
+            }
+            updates.computeIfAbsent(List.copyOf(row.keySet()), fields -> new ArrayList<>()).add(values);
+        }
+    }
+
+    private static class RowAccessor implements Accessor {
+        private final Object[][] current;
+        private final int index;
+
+        RowAccessor(Object[][] current, int index) {
+            this.current = current;
+            this.index = index;
+        }
+
+        public Object getObjectValue() {
+            return current[0][index];
+        }
+    }
+}
@@ -1,5 +1,17 @@
 package org.globsframework.sql;
 
+/*
+run() add the current values to the batch, the batch is sent every batchSize run() or on flush().
+run() return the number of updated rows if the batch was sent, 0 otherwise.
+close() flush pending rows.
+ */
 public interface BulkDbRequest extends SqlRequest {
+    int DEFAULT_BATCH_SIZE = 1000;
+
     void flush();
+
+    // the counts of the last sent batch, empty if not known.
+    default int[] getLastUpdateCounts() {
+        return new int[0];
+    }
 }
@@ -0,0 +1,19 @@
+package org.globsframework.sql;
+
+import org.globsframework.core.model.Glob;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/*
+Update the set fields of each glob on the row of its key (see SqlConnection.getBulkUpdate).
+Return the count of updated rows.
+ */
+public interface BulkUpdate {
+
+    int update(Stream<Glob> globs);
+
+    default int update(Collection<Glob> globs) {
+        return update(globs.stream());
+    }
+}
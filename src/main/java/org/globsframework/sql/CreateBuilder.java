@@ -85,4 +85,9 @@ public interface CreateBuilder {
 
     BulkDbRequest getBulkRequest();
 
+    // by default the batch size of getBulkRequest().
+    default BulkDbRequest getBulkRequest(int batchSize) {
+        return getBulkRequest();
+    }
+
 }
@@ -4,6 +4,7 @@ import org.globsframework.core.metamodel.fields.Field;
 import org.globsframework.core.model.*;
 import org.globsframework.sql.constraints.Constraints;
 
+// one request per change : see BatchedChangeSetApplier for large change sets.
 public class InDbChangeSetVisitor implements ChangeSetVisitor {
     private SqlConnection sqlConnection;
     private CreateBuilder createBuilder;
@@ -34,7 +35,6 @@ public class InDbChangeSetVisitor implements ChangeSetVisitor {
     public void visitUpdate(Key key, FieldsValueWithPreviousScanner values) throws Exception {
         updateBuilder = sqlConnection.getUpdateBuilder(key.getGlobType(),
                 Constraints.fieldsEqual(key.asFieldValues()));
-        key.applyOnKeyField(functorForUpdate);
         values.apply(functorForUpdate);
         updateBuilder.getRequest().run();
     }
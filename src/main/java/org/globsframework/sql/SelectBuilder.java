@@ -1,8 +1,10 @@
 package org.globsframework.sql;
 
 import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.core.model.FieldValues;
 import org.globsframework.core.streams.accessors.*;
 import org.globsframework.core.utils.Ref;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
 
 public interface SelectBuilder {
 
@@ -49,14 +51,44 @@ public interface SelectBuilder {
 
     SelectBuilder skip(int n);
 
+    /*
+    Keyset pagination : select the rows that come after lastRow in the order given by orderAsc/orderDesc
+    (to be called after them). The key fields are added to the order if missing to have a total order.
+    Use it with top(n) instead of skip(n). Not supported by default.
+     */
+    default SelectBuilder pageAfter(FieldValues lastRow) {
+        throw new UnexpectedApplicationState("pageAfter is not supported by " + getClass().getName());
+    }
+
     SelectBuilder withKeys();
 
+    int DEFAULT_STREAMING_FETCH_SIZE = 1000;
+
+    // number of rows read from the database at a time (0 : driver default) ; ignored by default.
+    default SelectBuilder fetchSize(int n) {
+        return this;
+    }
+
+    // read the result by chunk instead of loading it in memory (see JdbcConnection.applyFetchSize for each database).
+    default SelectBuilder streaming() {
+        return fetchSize(DEFAULT_STREAMING_FETCH_SIZE);
+    }
+
     IntegerAccessor max(IntegerField field);
 
     LongAccessor max(LongField field);
 
     LongAccessor count(Field field);
 
+    /*
+    Number of rows matching the where clause (before top and skip), returned on each row by a scalar sub query
+    (SELECT COUNT(*) ... WHERE ...) in the same request. The pageAfter seek predicate is not part of it : every page
+    give the count of the full result. Not supported by default.
+     */
+    default LongAccessor totalCount() {
+        throw new UnexpectedApplicationState("totalCount is not supported by " + getClass().getName());
+    }
+
     default LongAccessor count(IntegerField field) {
         return count(((Field) field));
     }
@@ -1,13 +1,19 @@
 package org.globsframework.sql;
 
+import org.globsframework.core.metamodel.fields.Field;
 import org.globsframework.core.model.FieldValues;
 import org.globsframework.core.model.Glob;
 import org.globsframework.core.streams.GlobStream;
 import org.globsframework.core.utils.exceptions.ItemNotFound;
 import org.globsframework.core.utils.exceptions.TooManyItems;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.utils.ThreadUtils;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.stream.Stream;
 
 public interface SelectQuery extends AutoCloseable {
@@ -15,12 +21,75 @@ public interface SelectQuery extends AutoCloseable {
 
     Stream<Glob> executeAsGlobStream();
 
+    /*
+    If all the selected fields are from the same type, each FieldValues is a Glob (a MutableGlob) of that type,
+    else a DefaultFieldValues.
+     */
     Stream<FieldValues> executeAsFieldValuesStream();
 
+    /*
+    The rows are read and decoded in a background thread by batch of batchSize, at most maxPendingBatches ahead
+    of the consumer. The stream must be closed : until then, the background thread use the connection and no other
+    request must be run on the owning SqlConnection (a stream dropped without close is stopped on garbage collection).
+    Read as executeAsGlobStream by default.
+     */
+    default Stream<Glob> executeAsPrefetchedGlobStream(int batchSize, int maxPendingBatches) {
+        return executeAsGlobStream();
+    }
+
+    default Stream<Glob> executeAsPrefetchedGlobStream() {
+        return executeAsPrefetchedGlobStream(256, 4);
+    }
+
     GlobStream execute();
 
+    /*
+    For large extracts : postgresql read the rows with COPY (...) TO STDOUT (FORMAT binary) when all the
+    column types can be decoded, the other databases read them as executeAsGlobStream.
+     */
+    default Stream<Glob> executeAsCopyStream() {
+        return executeAsGlobStream();
+    }
+
+    /*
+    Rows are read on the subscriber demand (the first request give the fetch size) on the default executor
+    (see ThreadUtils) ; cancel close the statement. Only one subscriber.
+     */
+    default Flow.Publisher<Glob> executeAsPublisher() {
+        return executeAsPublisher(ThreadUtils.getDefaultExecutor());
+    }
+
+    // Not supported by default.
+    default Flow.Publisher<Glob> executeAsPublisher(Executor executor) {
+        throw new UnexpectedApplicationState("executeAsPublisher is not supported by " + getClass().getName());
+    }
+
     List<Glob> executeAsGlobs();
 
+    default CompletableFuture<List<Glob>> executeAsGlobsAsync() {
+        return executeAsGlobsAsync(ThreadUtils.getDefaultExecutor());
+    }
+
+    default CompletableFuture<List<Glob>> executeAsGlobsAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(this::executeAsGlobs, executor);
+    }
+
+    /*
+    Split the query on the range of rangeField (integer or long) and read each part on its own connection, from a
+    dedicated pool of threads bounded by the connection pool size (less the connection of the caller). The rows with
+    a null rangeField are read too. The order of the result is not kept. The stream must be closed.
+    The returned stream is sequential : call parallel() to process the read batches on several cores.
+    Not supported by default.
+     */
+    default Stream<Glob> executeAsParallelGlobStream(Field rangeField, int partitions) {
+        throw new UnexpectedApplicationState("executeAsParallelGlobStream is not supported by " + getClass().getName());
+    }
+
+    // partition on the key field.
+    default Stream<Glob> executeAsParallelGlobStream(int partitions) {
+        throw new UnexpectedApplicationState("executeAsParallelGlobStream is not supported by " + getClass().getName());
+    }
+
 //    Collection<Glob> executeAsGlob();
 
     default Glob executeUnique() throws ItemNotFound, TooManyItems {
@@ -3,13 +3,26 @@ package org.globsframework.sql;
 import org.globsframework.core.metamodel.GlobType;
 import org.globsframework.core.metamodel.fields.Field;
 import org.globsframework.core.model.Glob;
+import org.globsframework.core.model.Key;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.exceptions.DbConstraintViolation;
 import org.globsframework.sql.exceptions.RollbackFailed;
+import org.globsframework.sql.utils.BatchedBulkUpdate;
+import org.globsframework.sql.utils.GeneratedKeysInsert;
+import org.globsframework.sql.utils.InsertBulkLoader;
+import org.globsframework.sql.utils.KeyRequests;
+import org.globsframework.sql.utils.ThreadUtils;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 public interface SqlConnection {
 
@@ -21,16 +34,64 @@ public interface SqlConnection {
 
     UpdateBuilder getUpdateBuilder(GlobType globType, Constraint constraint);
 
+    // without conflict keys, the key fields are used. Not supported by default.
+    default UpsertBuilder getUpsertBuilder(GlobType globType, Field... conflictKeys) {
+        throw new UnexpectedApplicationState("getUpsertBuilder is not supported by " + getClass().getName());
+    }
+
+    /*
+    Insert the globs and return their keys in the same order, with the values generated by the database for the
+    auto increment fields not set in the first glob. By default one insert per glob.
+    Limitations of the bulk inserts :
+    - postgresql : a multi rows INSERT ... RETURNING, the returned rows are matched to the globs by position. PostgreSQL
+      returns them in the order of the VALUES in practice but does not document it (no column identify a row
+      before its key is generated) ;
+    - mysql : only with one generated column (the driver return one generated key per row), else one insert per glob.
+     */
+    default List<Key> createAndGetKeys(GlobType globType, List<? extends Glob> globs) {
+        return GeneratedKeysInsert.insert(this, globType, globs);
+    }
+
+    // the globs must have their key fields and the set fields set, a key only once ; by default one batched update per glob.
+    default BulkUpdate getBulkUpdate(GlobType globType, Field... setFields) {
+        return new BatchedBulkUpdate(this, globType, setFields, BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
+
     SqlRequest getDeleteRequest(GlobType globType);
 
     SqlRequest getDeleteRequest(GlobType globType, Constraint constraint);
 
+    // the keys are sent by chunks (see KeyRequests) ; the globs found are returned in the order of the keys.
+    default Map<Key, Glob> getByKeys(GlobType globType, Collection<Key> keys) {
+        return KeyRequests.getByKeys(this, globType, keys);
+    }
+
+    default Set<Key> existsKeys(GlobType globType, Collection<Key> keys) {
+        return KeyRequests.existsKeys(this, globType, keys);
+    }
+
+    default int deleteByKeys(GlobType globType, Collection<Key> keys) {
+        return KeyRequests.deleteByKeys(this, globType, keys);
+    }
+
     void commit() throws RollbackFailed, DbConstraintViolation;
 
     void commitAndClose() throws RollbackFailed, DbConstraintViolation;
 
+    default CompletableFuture<Void> commitAsync() {
+        return commitAsync(ThreadUtils.getDefaultExecutor());
+    }
+
+    default CompletableFuture<Void> commitAsync(Executor executor) {
+        return CompletableFuture.runAsync(this::commit, executor);
+    }
+
     void rollbackAndClose();
 
+    // to be called before any request : a routing service can then send the connection to a replica.
+    default void setReadOnly(boolean readOnly) {
+    }
+
     void createTable(GlobType globType);
 
     void addColumn(Field... column);
@@ -49,6 +110,18 @@ public interface SqlConnection {
 
     SqlService getJdbcSqlService();
 
+    // insert all the globs as fast as the database allow (COPY on postgresql, batched inserts otherwise).
+    // return the count of inserted rows.
+    default long bulkLoad(GlobType globType, Stream<Glob> globs) {
+        try (globs) {
+            return bulkLoad(globType, globs.iterator());
+        }
+    }
+
+    default long bulkLoad(GlobType globType, Iterator<Glob> globs) {
+        return InsertBulkLoader.load(this, globType, globs, BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
+
     default void createTable(GlobType... types) {
         Arrays.stream(types).forEach(this::createTable);
     }
@@ -1,9 +1,21 @@
 package org.globsframework.sql;
 
 import org.globsframework.sql.exceptions.SqlException;
+import org.globsframework.sql.utils.ThreadUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public interface SqlRequest extends AutoCloseable {
     int run() throws SqlException;
 
+    default CompletableFuture<Integer> runAsync() {
+        return runAsync(ThreadUtils.getDefaultExecutor());
+    }
+
+    default CompletableFuture<Integer> runAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(this::run, executor);
+    }
+
     void close();
 }
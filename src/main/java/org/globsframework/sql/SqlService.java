@@ -9,12 +9,24 @@ public interface SqlService {
 
     SqlConnection getAutoCommitDb();
 
+    // a connection for select only (can be served by a replica)
+    default SqlConnection getReadDb() {
+        SqlConnection db = getAutoCommitDb();
+        db.setReadOnly(true);
+        return db;
+    }
+
     String getTableName(GlobType globType, boolean escaped);
 
     String getTableName(String name, boolean escaped);
 
     String getColumnName(Field field, boolean escaped);
 
+    // escaped table.column
+    default String getQualifiedColumnName(Field field) {
+        return getTableName(field.getGlobType(), true) + "." + getColumnName(field, true);
+    }
+
     String getColumnName(String field, boolean escaped);
 
     String getLikeIgnoreCase();
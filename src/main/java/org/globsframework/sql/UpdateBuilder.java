@@ -64,4 +64,9 @@ public interface UpdateBuilder {
     SqlRequest getRequest();
 
     BulkDbRequest getBulkRequest();
+
+    // by default the batch size of getBulkRequest().
+    default BulkDbRequest getBulkRequest(int batchSize) {
+        return getBulkRequest();
+    }
 }
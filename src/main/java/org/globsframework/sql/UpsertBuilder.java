@@ -0,0 +1,25 @@
+package org.globsframework.sql;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.streams.accessors.Accessor;
+
+/*
+Insert a row or update it if a row with the same conflict keys (the key fields by default) exists, in one request :
+INSERT ... ON CONFLICT on postgresql, INSERT ... ON DUPLICATE KEY UPDATE on mysql (on any unique key), MERGE otherwise.
+The conflict keys must be set and are never updated ; the other set fields are overwritten unless another policy is given.
+ */
+public interface UpsertBuilder extends CreateBuilder {
+
+    enum UpdatePolicy {
+        OVERWRITE,
+        KEEP,
+        // the value is added to the current one (a null current value count as 0)
+        INCREMENT
+    }
+
+    UpsertBuilder onConflict(Field field, UpdatePolicy policy);
+
+    UpsertBuilder setObject(Field field, Accessor accessor);
+
+    UpsertBuilder setObject(Field field, Object value);
+}
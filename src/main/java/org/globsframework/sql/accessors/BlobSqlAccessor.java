@@ -7,7 +7,13 @@ public class BlobSqlAccessor extends SqlAccessor implements BlobAccessor {
         return getValue();
     }
 
+    private byte[] value;
+
     public byte[] getValue() {
-        return getSqlMoStream().getBytes(getIndex());
+        if (!isCached()) {
+            value = getSqlMoStream().getBytes(getIndex());
+            setCached();
+        }
+        return value;
     }
 }
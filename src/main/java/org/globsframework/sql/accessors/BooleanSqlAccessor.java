@@ -5,22 +5,15 @@ import org.globsframework.sql.drivers.jdbc.SqlGlobStream;
 
 public class BooleanSqlAccessor extends SqlAccessor implements BooleanAccessor {
     private Boolean cachedValue;
-    private boolean isNull;
-    private int rowId;
 
     public Boolean getBoolean() {
-        SqlGlobStream moStream = getSqlMoStream();
-        if (moStream.getCurrentRowId() == rowId) {
-            return cachedValue;
-        } else {
-            cachedValue = moStream.getBoolean(getIndex());
-            rowId = moStream.getCurrentRowId();
-            isNull = getSqlMoStream().isNull();
-            if (isNull) {
-                cachedValue = null;
-            }
-            return cachedValue;
+        if (!isCached()) {
+            SqlGlobStream moStream = getSqlMoStream();
+            boolean value = moStream.getBoolean(getIndex());
+            cachedValue = moStream.isNull() ? null : value;
+            setCached();
         }
+        return cachedValue;
     }
 
     public boolean getValue(boolean valueIfNull) {
@@ -8,7 +8,17 @@ import java.util.Date;
 
 public class DateIntegerSqlAccessor extends SqlAccessor implements IntegerAccessor {
 
+    private Integer value;
+
     public Integer getInteger() {
+        if (!isCached()) {
+            value = readInteger();
+            setCached();
+        }
+        return value;
+    }
+
+    private Integer readInteger() {
         Date date = getSqlMoStream().getDate(getIndex());
         if (date == null) {
             return null;
@@ -8,7 +8,17 @@ import java.util.Date;
 
 public class DateLongSqlAccessor extends SqlAccessor implements LongAccessor {
 
+    private Long value;
+
     public Long getLong() {
+        if (!isCached()) {
+            value = readLong();
+            setCached();
+        }
+        return value;
+    }
+
+    private Long readLong() {
         Date date = getSqlMoStream().getDate(getIndex());
         if (date == null) {
             return null;
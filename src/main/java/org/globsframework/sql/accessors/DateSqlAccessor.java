@@ -6,9 +6,17 @@ import java.time.LocalDate;
 import java.util.Date;
 
 public class DateSqlAccessor extends SqlAccessor implements DateAccessor {
-
+    private LocalDate value;
 
     public LocalDate getDate() {
+        if (!isCached()) {
+            value = readDate();
+            setCached();
+        }
+        return value;
+    }
+
+    private LocalDate readDate() {
         Date date = getSqlMoStream().getDate(getIndex());
         if (date == null) {
             return null;
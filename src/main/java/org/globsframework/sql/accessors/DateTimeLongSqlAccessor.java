@@ -6,7 +6,17 @@ import java.sql.Timestamp;
 
 public class DateTimeLongSqlAccessor extends SqlAccessor implements LongAccessor {
 
+    private Long value;
+
     public Long getLong() {
+        if (!isCached()) {
+            value = readLong();
+            setCached();
+        }
+        return value;
+    }
+
+    private Long readLong() {
         Timestamp date = getSqlMoStream().getTimeStamp(getIndex());
         if (date == null) {
             return null;
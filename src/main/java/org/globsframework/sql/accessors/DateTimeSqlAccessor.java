@@ -9,7 +9,17 @@ import java.time.ZonedDateTime;
 
 public class DateTimeSqlAccessor extends SqlAccessor implements DateTimeAccessor {
 
+    private ZonedDateTime value;
+
     public ZonedDateTime getDateTime() {
+        if (!isCached()) {
+            value = readDateTime();
+            setCached();
+        }
+        return value;
+    }
+
+    private ZonedDateTime readDateTime() {
         Timestamp date = getSqlMoStream().getTimeStamp(getIndex());
         if (date == null) {
             return null;
@@ -1,20 +1,34 @@
 package org.globsframework.sql.accessors;
 
 import org.globsframework.core.streams.accessors.DoubleAccessor;
+import org.globsframework.sql.drivers.jdbc.SqlGlobStream;
 
 public class DoubleSqlAccessor extends SqlAccessor implements DoubleAccessor {
+    private double value;
+    private boolean isNull;
+
+    private void read() {
+        if (!isCached()) {
+            SqlGlobStream sqlMoStream = getSqlMoStream();
+            value = sqlMoStream.getDoubleValue(getIndex());
+            isNull = sqlMoStream.isNull();
+            setCached();
+        }
+    }
 
     public Double getDouble() {
-        return getSqlMoStream().getDouble(getIndex());
+        read();
+        return isNull ? null : value;
     }
 
     public double getValue(double valueIfNull) {
-        Double value = getDouble();
-        return value == null ? valueIfNull : value;
+        read();
+        return isNull ? valueIfNull : value;
     }
 
     public boolean wasNull() {
-        return getDouble() == null;
+        read();
+        return isNull;
     }
 
     public Object getObjectValue() {
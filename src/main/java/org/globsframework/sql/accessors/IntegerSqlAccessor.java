@@ -1,20 +1,34 @@
 package org.globsframework.sql.accessors;
 
 import org.globsframework.core.streams.accessors.IntegerAccessor;
+import org.globsframework.sql.drivers.jdbc.SqlGlobStream;
 
 public class IntegerSqlAccessor extends SqlAccessor implements IntegerAccessor {
+    private int value;
+    private boolean isNull;
+
+    private void read() {
+        if (!isCached()) {
+            SqlGlobStream sqlMoStream = getSqlMoStream();
+            value = sqlMoStream.getIntValue(getIndex());
+            isNull = sqlMoStream.isNull();
+            setCached();
+        }
+    }
 
     public Integer getInteger() {
-        return getSqlMoStream().getInteger(getIndex());
+        read();
+        return isNull ? null : value;
     }
 
     public int getValue(int valueIfNull) {
-        Integer value = getInteger();
-        return value == null ? valueIfNull : value;
+        read();
+        return isNull ? valueIfNull : value;
     }
 
     public boolean wasNull() {
-        return getInteger() == null;
+        read();
+        return isNull;
     }
 
     public Object getObjectValue() {
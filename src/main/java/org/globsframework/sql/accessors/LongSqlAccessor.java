@@ -1,20 +1,34 @@
 package org.globsframework.sql.accessors;
 
 import org.globsframework.core.streams.accessors.LongAccessor;
+import org.globsframework.sql.drivers.jdbc.SqlGlobStream;
 
 public class LongSqlAccessor extends SqlAccessor implements LongAccessor {
+    private long value;
+    private boolean isNull;
+
+    private void read() {
+        if (!isCached()) {
+            SqlGlobStream sqlMoStream = getSqlMoStream();
+            value = sqlMoStream.getLongValue(getIndex());
+            isNull = sqlMoStream.isNull();
+            setCached();
+        }
+    }
 
     public Long getLong() {
-        return getSqlMoStream().getLong(getIndex());
+        read();
+        return isNull ? null : value;
     }
 
     public long getValue(long valueIfNull) {
-        Long value = getLong();
-        return value == null ? valueIfNull : value;
+        read();
+        return isNull ? valueIfNull : value;
     }
 
     public boolean wasNull() {
-        return getLong() == null;
+        read();
+        return isNull;
     }
 
     public Object getObjectValue() {
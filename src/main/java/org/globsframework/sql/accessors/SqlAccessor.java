@@ -6,9 +6,20 @@ import org.globsframework.sql.drivers.jdbc.SqlGlobStream;
 public abstract class SqlAccessor implements Accessor {
     private SqlGlobStream sqlMoStream;
     private int index;
+    private int cachedRowId = -1;
 
     public void setMoStream(SqlGlobStream sqlMoStream) {
         this.sqlMoStream = sqlMoStream;
+        cachedRowId = -1;
+    }
+
+    // a column is read from the ResultSet once per row : the decoded value is kept until SqlGlobStream.next()
+    protected boolean isCached() {
+        return cachedRowId == sqlMoStream.getCurrentRowId();
+    }
+
+    protected void setCached() {
+        cachedRowId = sqlMoStream.getCurrentRowId();
     }
 
     public void setIndex(int index) {
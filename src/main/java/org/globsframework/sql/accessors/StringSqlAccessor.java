@@ -4,8 +4,14 @@ import org.globsframework.core.streams.accessors.StringAccessor;
 
 public class StringSqlAccessor extends SqlAccessor implements StringAccessor {
 
+    private String value;
+
     public String getString() {
-        return getSqlMoStream().getString(getIndex());
+        if (!isCached()) {
+            value = getSqlMoStream().getString(getIndex());
+            setCached();
+        }
+        return value;
     }
 
     public Object getObjectValue() {
@@ -10,6 +10,7 @@ import org.globsframework.sql.drivers.hsqldb.request.HsqldbSqlQueryBuilder;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
 import org.globsframework.sql.drivers.jdbc.JdbcConnection;
 import org.globsframework.sql.drivers.jdbc.JdbcSqlService;
+import org.globsframework.sql.drivers.jdbc.impl.InListMode;
 import org.globsframework.sql.drivers.jdbc.impl.SqlFieldCreationVisitor;
 import org.globsframework.sql.utils.StringPrettyWriter;
 import org.hsqldb.jdbc.JDBCBlob;
@@ -19,6 +20,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.List;
+import java.util.StringJoiner;
 
 public class HsqlConnection extends JdbcConnection {
     public HsqlConnection(boolean autoCommit, Connection connection, SqlService sqlService) {
@@ -49,14 +52,37 @@ public class HsqlConnection extends JdbcConnection {
         };
     }
 
+    public InListMode getInListMode() {
+        return InListMode.UNNEST_ARRAY;
+    }
+
+    // the parameters of UNNEST must be typed ; VARCHAR without size is refused.
+    protected String getArrayBulkUpdateRequest(GlobType globType, List<Field> keyFields, List<Field> setFields, String[] arrayTypes) {
+        StringJoiner arrays = new StringJoiner(", ");
+        for (String arrayType : arrayTypes) {
+            arrays.add("CAST(? AS " + ("VARCHAR".equals(arrayType) ? "LONGVARCHAR" : arrayType) + " ARRAY)");
+        }
+        return "MERGE INTO " + sqlService.getTableName(globType, true) + " AS T USING UNNEST(" + arrays + ") AS V (" +
+                getColumnNames(keyFields) + ", " + getColumnNames(setFields) + ") ON " + getKeysJoin(keyFields) +
+                " WHEN MATCHED THEN UPDATE SET " + getValuesAssignment(setFields, "T.");
+    }
+
+    protected String getTemporaryTableReference(String name) {
+        return "SESSION." + name;
+    }
+
+    protected String getCreateTemporaryTable(String name, String columns) {
+        return "DECLARE LOCAL TEMPORARY TABLE " + name + " (" + columns + ") ON COMMIT PRESERVE ROWS";
+    }
+
     public SelectBuilder getQueryBuilder(GlobType globType) {
         checkConnectionIsNotClosed();
-        return new HsqldbSqlQueryBuilder(getConnection(), globType, null, sqlService, blobUpdater);
+        return new HsqldbSqlQueryBuilder(this, globType, null, sqlService, blobUpdater);
     }
 
     public SelectBuilder getQueryBuilder(GlobType globType, Constraint constraint) {
         checkConnectionIsNotClosed();
-        return new HsqldbSqlQueryBuilder(getConnection(), globType, constraint, sqlService, blobUpdater);
+        return new HsqldbSqlQueryBuilder(this, globType, constraint, sqlService, blobUpdater);
     }
 
     // hsql db do not support add of multiple column
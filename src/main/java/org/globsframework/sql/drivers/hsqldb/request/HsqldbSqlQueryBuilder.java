@@ -6,20 +6,19 @@ import org.globsframework.sql.SqlService;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.drivers.hsqldb.HsqldbSqlSelectQuery;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
+import org.globsframework.sql.drivers.jdbc.JdbcConnection;
 import org.globsframework.sql.drivers.jdbc.request.SqlQueryBuilder;
 
-import java.sql.Connection;
-
 public class HsqldbSqlQueryBuilder extends SqlQueryBuilder {
 
-    public HsqldbSqlQueryBuilder(Connection connection, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater) {
+    public HsqldbSqlQueryBuilder(JdbcConnection connection, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater) {
         super(connection, globType, constraint, sqlService, blobUpdater);
     }
 
     public SelectQuery getQuery() {
         try {
-            return new HsqldbSqlSelectQuery(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose,
-                    orders, groupBy, top, skip, distinct, sqlOperations, fallBackType);
+            return withPartitionedScan(new HsqldbSqlSelectQuery(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose,
+                    orders, groupBy, top, skip, fetchSize, distinct, sqlOperations, fallBackType));
         } finally {
             fieldToAccessorHolder.clear();
         }
@@ -3,7 +3,6 @@ package org.globsframework.sql.drivers.jdbc;
 import org.globsframework.core.metamodel.GlobType;
 import org.globsframework.core.metamodel.fields.Field;
 import org.globsframework.core.model.Glob;
-import org.globsframework.core.model.MutableGlob;
 import org.globsframework.core.streams.GlobStream;
 import org.globsframework.core.streams.accessors.Accessor;
 import org.globsframework.core.utils.Check;
@@ -11,31 +10,25 @@ import org.globsframework.core.utils.Check;
 import java.util.Collection;
 
 public class AccessorGlobBuilder {
-    private Field[] fields;
-    private Accessor[] accessors;
     private GlobType globType = null;
+    private final GlobMaterializer materializer;
 
     private AccessorGlobBuilder(GlobStream globStream, GlobType fallBackType) {
         this(globStream.getFields(), globStream::getAccessor, fallBackType);
     }
 
     private AccessorGlobBuilder(Collection<Field> fields, FieldAccessor fieldAccessor, GlobType fallBackType) {
-        this.fields = new Field[fields.size()];
-        this.accessors = new Accessor[fields.size()];
-        int i = 0;
         for (Field field : fields) {
             GlobType type = field.getGlobType();
             if (globType != null && type != globType) {
                 throw new RuntimeException("Different globType in same stream " + type.getName() + " and " + globType.getName());
             }
             globType = type;
-            this.fields[i] = field;
-            this.accessors[i] = Check.requireNonNull(fieldAccessor.get(field), field);
-            ++i;
         }
         if (globType == null) {
             globType = fallBackType;
         }
+        materializer = GlobMaterializer.create(globType, fields, field -> Check.requireNonNull(fieldAccessor.get(field), field));
     }
 
     public interface FieldAccessor {
@@ -51,12 +44,6 @@ public class AccessorGlobBuilder {
     }
 
     public Glob getGlob() {
-        MutableGlob mutableGlob = globType.instantiate();
-        for (int i = 0; i < fields.length; i++) {
-            Field field = fields[i];
-            Accessor accessor = accessors[i];
-            mutableGlob.setValue(field, accessor.getObjectValue());
-        }
-        return mutableGlob;
+        return materializer.materialize();
     }
 }
@@ -3,22 +3,23 @@ package org.globsframework.sql.drivers.jdbc;
 import org.globsframework.core.metamodel.GlobType;
 import org.globsframework.core.metamodel.fields.Field;
 import org.globsframework.core.model.Glob;
-import org.globsframework.core.model.MutableGlob;
 import org.globsframework.core.streams.GlobStream;
-import org.globsframework.core.streams.accessors.Accessor;
 import org.globsframework.core.utils.collections.MultiMap;
-import org.globsframework.core.utils.collections.Pair;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 public class AccessorGlobsBuilder {
-    private MultiMap<GlobType, Pair<Field, Accessor>> accessors = new MultiMap<GlobType, Pair<Field, Accessor>>();
+    private final List<GlobMaterializer> materializers = new ArrayList<>();
 
     public AccessorGlobsBuilder(GlobStream globStream) {
+        MultiMap<GlobType, Field> fieldsByType = new MultiMap<>();
         for (Field field : globStream.getFields()) {
-            accessors.put(field.getGlobType(), new Pair<Field, Accessor>(field, globStream.getAccessor(field)));
+            fieldsByType.put(field.getGlobType(), field);
+        }
+        for (Map.Entry<GlobType, List<Field>> entry : fieldsByType.entries()) {
+            materializers.add(GlobMaterializer.create(entry.getKey(), entry.getValue(), globStream::getAccessor));
         }
     }
 
@@ -27,13 +28,9 @@ public class AccessorGlobsBuilder {
     }
 
     public List<Glob> getGlobs() {
-        List globs = new ArrayList();
-        for (Map.Entry<GlobType, List<Pair<Field, Accessor>>> entry : accessors.entries()) {
-            MutableGlob defaultGlob = entry.getKey().instantiate();
-            for (Pair<Field, Accessor> pair : entry.getValue()) {
-                defaultGlob.setValue(pair.getFirst(), pair.getSecond().getObjectValue());
-            }
-            globs.add(defaultGlob);
+        List<Glob> globs = new ArrayList<>(materializers.size());
+        for (GlobMaterializer materializer : materializers) {
+            globs.add(materializer.materialize());
         }
         return globs;
     }
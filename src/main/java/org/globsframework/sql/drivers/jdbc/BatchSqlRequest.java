@@ -0,0 +1,10 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.sql.SqlRequest;
+
+public interface BatchSqlRequest extends SqlRequest {
+
+    void addBatch();
+
+    int[] executeBatch();
+}
@@ -13,6 +13,12 @@ import java.sql.SQLException;
 public class DataSourceSqlService extends AbstractSqlService {
     final DataSource dataSource;
     DbFactory dbFactory;
+    private JdbcConnectionPool connectionPool;
+
+    public DataSourceSqlService(NamingMapping namingMapping, DataSource dataSource, DbType dbType, JdbcConnectionPool.Config poolConfig) {
+        this(namingMapping, dataSource, dbType);
+        connectionPool = new JdbcConnectionPool(dataSource::getConnection, poolConfig);
+    }
 
     public DataSourceSqlService(NamingMapping namingMapping, DataSource dataSource, DbType dbType) {
         super(namingMapping);
@@ -21,7 +27,7 @@ public class DataSourceSqlService extends AbstractSqlService {
         dbFactory = switch (dbType) {
             case postgresql -> (autoCommit) -> {
                 try {
-                    Connection connection = dataSource.getConnection();
+                    Connection connection = getConnection();
                     connection.setAutoCommit(autoCommit);
                     return new PostgresqlConnection(autoCommit, connection, DataSourceSqlService.this);
                 } catch (SQLException e) {
@@ -30,7 +36,7 @@ public class DataSourceSqlService extends AbstractSqlService {
             };
             case hsqldb -> (autoCommit) -> {
                 try {
-                    Connection connection = dataSource.getConnection();
+                    Connection connection = getConnection();
                     connection.setAutoCommit(autoCommit);
                     return new HsqlConnection(autoCommit, connection, DataSourceSqlService.this);
                 } catch (SQLException e) {
@@ -39,7 +45,7 @@ public class DataSourceSqlService extends AbstractSqlService {
             };
             case mysql, mariadb -> (autoCommit) -> {
                 try {
-                    Connection connection = dataSource.getConnection();
+                    Connection connection = getConnection();
                     connection.setAutoCommit(autoCommit);
                     return new MysqlConnection(autoCommit, connection, DataSourceSqlService.this);
                 } catch (SQLException e) {
@@ -60,4 +66,18 @@ public class DataSourceSqlService extends AbstractSqlService {
     public JdbcConnection getAutoCommitDb() {
         return dbFactory.create(true);
     }
+
+    private Connection getConnection() throws SQLException {
+        return connectionPool != null ? connectionPool.getConnection() : dataSource.getConnection();
+    }
+
+    public JdbcConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
+    }
 }
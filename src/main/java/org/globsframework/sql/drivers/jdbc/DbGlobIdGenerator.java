@@ -13,11 +13,14 @@ import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.constraints.Constraints;
 import org.globsframework.sql.exceptions.RollbackFailed;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 public class DbGlobIdGenerator {
     private GlobType globType;
     private StringField tableNameField;
     private IntegerField idField;
     private SqlService sqlService;
+    private final ReentrantLock lock = new ReentrantLock();
 
     public DbGlobIdGenerator(GlobType globType, StringField tableNameField,
                              IntegerField idField, SqlService sqlService) {
@@ -27,7 +30,16 @@ public class DbGlobIdGenerator {
         this.sqlService = sqlService;
     }
 
-    synchronized public int getNextId(String tableName, int idCount) {
+    public int getNextId(String tableName, int idCount) {
+        lock.lock();
+        try {
+            return getNextIdLocked(tableName, idCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int getNextIdLocked(String tableName, int idCount) {
         SqlConnection sqlConnection = sqlService.getDb();
         while (true) {
             try {
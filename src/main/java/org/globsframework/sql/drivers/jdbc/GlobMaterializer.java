@@ -0,0 +1,99 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.core.model.MutableGlob;
+import org.globsframework.core.streams.accessors.*;
+
+import java.util.Collection;
+
+/*
+Copy the current row of accessors into a new Glob.
+The copy of each cell is resolved once (from the field type and the accessor) instead of going
+through setValue(Field, Object) for every cell ; int, long and double are read as primitives
+(getValue + wasNull) and given to the primitive setters, a null value is still set as null.
+ */
+public class GlobMaterializer {
+    private final GlobType globType;
+    private final CellCopier[] copiers;
+
+    interface CellCopier {
+        void copy(MutableGlob glob);
+    }
+
+    private GlobMaterializer(GlobType globType, CellCopier[] copiers) {
+        this.globType = globType;
+        this.copiers = copiers;
+    }
+
+    public static GlobMaterializer create(GlobType globType, Collection<Field> fields, AccessorGlobBuilder.FieldAccessor fieldAccessor) {
+        CellCopier[] copiers = new CellCopier[fields.size()];
+        int i = 0;
+        for (Field field : fields) {
+            copiers[i++] = createCopier(field, fieldAccessor.get(field));
+        }
+        return new GlobMaterializer(globType, copiers);
+    }
+
+    // arrays, globs or unexpected accessor : generic copy
+    private static CellCopier createCopier(Field field, Accessor accessor) {
+        if (field instanceof IntegerField integerField && accessor instanceof IntegerAccessor integerAccessor) {
+            return glob -> {
+                int value = integerAccessor.getValue(0);
+                if (integerAccessor.wasNull()) {
+                    glob.set(integerField, (Integer) null);
+                } else {
+                    glob.set(integerField, value);
+                }
+            };
+        }
+        if (field instanceof LongField longField && accessor instanceof LongAccessor longAccessor) {
+            return glob -> {
+                long value = longAccessor.getValue(0);
+                if (longAccessor.wasNull()) {
+                    glob.set(longField, (Long) null);
+                } else {
+                    glob.set(longField, value);
+                }
+            };
+        }
+        if (field instanceof DoubleField doubleField && accessor instanceof DoubleAccessor doubleAccessor) {
+            return glob -> {
+                double value = doubleAccessor.getValue(0.);
+                if (doubleAccessor.wasNull()) {
+                    glob.set(doubleField, (Double) null);
+                } else {
+                    glob.set(doubleField, value);
+                }
+            };
+        }
+        if (field instanceof StringField stringField && accessor instanceof StringAccessor stringAccessor) {
+            return glob -> glob.set(stringField, stringAccessor.getString());
+        }
+        if (field instanceof BooleanField booleanField && accessor instanceof BooleanAccessor booleanAccessor) {
+            return glob -> glob.set(booleanField, booleanAccessor.getBoolean());
+        }
+        if (field instanceof DateField dateField && accessor instanceof DateAccessor dateAccessor) {
+            return glob -> glob.set(dateField, dateAccessor.getDate());
+        }
+        if (field instanceof DateTimeField dateTimeField && accessor instanceof DateTimeAccessor dateTimeAccessor) {
+            return glob -> glob.set(dateTimeField, dateTimeAccessor.getDateTime());
+        }
+        if (field instanceof BlobField blobField && accessor instanceof BlobAccessor blobAccessor) {
+            return glob -> glob.set(blobField, blobAccessor.getValue());
+        }
+        return glob -> glob.setValue(field, accessor.getObjectValue());
+    }
+
+    public GlobType getGlobType() {
+        return globType;
+    }
+
+    public MutableGlob materialize() {
+        MutableGlob glob = globType.instantiate();
+        for (CellCopier copier : copiers) {
+            copier.copy(glob);
+        }
+        return glob;
+    }
+}
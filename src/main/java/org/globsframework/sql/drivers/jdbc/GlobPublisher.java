@@ -0,0 +1,152 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.model.Glob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Publish the result of a query to one subscriber.
+The query is executed on the first request, with the requested count as fetch size (if the query has none),
+then rows are read only when the subscriber ask for them. All reads are done on the executor, one task at a time.
+cancel() close the result set and give back the statement.
+ */
+class GlobPublisher implements Flow.Publisher<Glob> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GlobPublisher.class);
+    static final int MAX_FETCH_SIZE = 1000;
+    private final SqlSelectQuery query;
+    private final GlobType fallBackType;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    GlobPublisher(SqlSelectQuery query, GlobType fallBackType, Executor executor) {
+        this.query = query;
+        this.fallBackType = fallBackType;
+        this.executor = executor;
+    }
+
+    public void subscribe(Flow.Subscriber<? super Glob> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                public void request(long n) {
+                }
+
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Only one subscriber is allowed for " + query));
+            return;
+        }
+        GlobSubscription subscription = new GlobSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class GlobSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Glob> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrain = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private boolean done;
+        private SqlGlobStream globStream;
+        private AccessorGlobBuilder globBuilder;
+
+        GlobSubscription(Flow.Subscriber<? super Glob> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("request must be positive, got " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pendingDrain.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        // only one drain run at a time (pendingDrain), so the result set is never read concurrently.
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    try {
+                        emit();
+                    } catch (Throwable e) {
+                        LOGGER.error("Fail to read " + query, e);
+                        terminate();
+                        subscriber.onError(e);
+                    }
+                }
+                missed = pendingDrain.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (invalidRequest != null) {
+                terminate();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            long requested = demand.get();
+            if (requested == 0) {
+                return;
+            }
+            if (globStream == null) {
+                globStream = query.execute((int) Math.min(requested, MAX_FETCH_SIZE));
+                globBuilder = AccessorGlobBuilder.init(globStream, fallBackType);
+            }
+            long emitted = 0;
+            while (emitted != requested) {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                if (!globStream.next()) {
+                    // next() closed the result set
+                    globStream = null;
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                }
+                subscriber.onNext(globBuilder.getGlob());
+                emitted++;
+                if (emitted == requested) {
+                    requested = demand.addAndGet(-emitted);
+                    emitted = 0;
+                }
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            if (globStream != null) {
+                SqlGlobStream toClose = globStream;
+                globStream = null;
+                toClose.close();
+            } else {
+                query.resultSetClose();
+            }
+        }
+    }
+}
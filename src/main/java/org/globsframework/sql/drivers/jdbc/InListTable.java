@@ -0,0 +1,49 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.fields.Field;
+
+import java.util.Collection;
+
+/*
+Session temporary table holding the values of a large IN / NOT IN (see JdbcConnection.getLargeInListThreshold) :
+the where clause use a sub select on it, it is filled before the execution and dropped with the query.
+ */
+public class InListTable {
+    private final String name;
+    private final String reference;
+    private final Field field;
+    private final Collection<?> values;
+    private boolean created;
+
+    public InListTable(String name, String reference, Field field, Collection<?> values) {
+        this.name = name;
+        this.reference = reference;
+        this.field = field;
+        this.values = values;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // name to use in a request (may be prefixed by a schema).
+    public String getReference() {
+        return reference;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Collection<?> getValues() {
+        return values;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    void setCreated(boolean created) {
+        this.created = created;
+    }
+}
@@ -4,38 +4,59 @@ import org.globsframework.core.metamodel.GlobType;
 import org.globsframework.core.metamodel.annotations.AutoIncrement;
 import org.globsframework.core.metamodel.fields.Field;
 import org.globsframework.core.model.Glob;
+import org.globsframework.core.model.Key;
+import org.globsframework.core.streams.accessors.Accessor;
 import org.globsframework.core.utils.collections.MultiMap;
 import org.globsframework.core.utils.exceptions.GlobsException;
 import org.globsframework.core.utils.exceptions.OperationDenied;
 import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
 import org.globsframework.sql.*;
 import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.drivers.jdbc.impl.InListMode;
 import org.globsframework.sql.drivers.jdbc.impl.SqlFieldCreationVisitor;
+import org.globsframework.sql.drivers.jdbc.impl.SqlValueFieldVisitor;
 import org.globsframework.sql.drivers.jdbc.request.SqlCreateBuilder;
 import org.globsframework.sql.drivers.jdbc.request.SqlDeleteBuilder;
 import org.globsframework.sql.drivers.jdbc.request.SqlQueryBuilder;
 import org.globsframework.sql.drivers.jdbc.request.SqlUpdateBuilder;
+import org.globsframework.sql.drivers.jdbc.request.SqlUpsertBuilder;
 import org.globsframework.sql.exceptions.ConstraintViolation;
 import org.globsframework.sql.exceptions.RollbackFailed;
 import org.globsframework.sql.exceptions.SqlException;
 import org.globsframework.sql.metadata.DbChecker;
+import org.globsframework.sql.utils.BatchedBulkUpdate;
 import org.globsframework.sql.utils.ExtractType;
+import org.globsframework.sql.utils.GeneratedKeysInsert;
+import org.globsframework.sql.utils.InsertBulkLoader;
 import org.globsframework.sql.utils.StringPrettyWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 
 public abstract class JdbcConnection implements SqlConnection {
     private static Logger LOGGER = LoggerFactory.getLogger(JdbcConnection.class);
+    private static final int IN_LIST_TABLE_BATCH_SIZE = 1000;
+    private static final int ARRAY_BULK_UPDATE_SIZE = 10_000;
+    private static final int ROWS_BULK_UPDATE_SIZE = 500;
+    protected static final int MULTI_ROWS_INSERT_SIZE = 1000;
+    protected static final int MAX_PARAMETERS = 30_000;
     private final boolean autoCommit;
     protected SqlService sqlService;
     private Connection connection;
     protected BlobUpdater blobUpdater;
     private DbChecker checker;
+    private final PreparedStatementCache statementCache;
+    private final boolean ownStatementCache;
+    private int largeInListThreshold = 10_000;
+    private int inListTableCount;
 
     public JdbcConnection(boolean autoCommit, Connection connection, SqlService sqlService, BlobUpdater blobUpdater) {
         this.autoCommit = autoCommit;
@@ -43,21 +64,35 @@ public abstract class JdbcConnection implements SqlConnection {
         this.sqlService = sqlService;
         this.blobUpdater = blobUpdater;
         checker = new DbChecker(sqlService, this);
+        PreparedStatementCache pooledCache = getPooledStatementCache(connection);
+        ownStatementCache = pooledCache == null;
+        statementCache = ownStatementCache ? new PreparedStatementCache(connection, PreparedStatementCache.DEFAULT_SIZE) : pooledCache;
+    }
+
+    private static PreparedStatementCache getPooledStatementCache(Connection connection) {
+        try {
+            if (connection.isWrapperFor(PreparedStatementCache.class)) {
+                return connection.unwrap(PreparedStatementCache.class);
+            }
+        } catch (SQLException e) {
+            LOGGER.debug("No statement cache on connection", e);
+        }
+        return null;
     }
 
     public SelectBuilder getQueryBuilder(GlobType globType) {
         checkConnectionIsNotClosed();
-        return new SqlQueryBuilder(connection, globType, null, sqlService, blobUpdater);
+        return new SqlQueryBuilder(this, globType, null, sqlService, blobUpdater);
     }
 
     public SelectBuilder getQueryBuilder(GlobType globType, Constraint constraint) {
         checkConnectionIsNotClosed();
-        return new SqlQueryBuilder(connection, globType, constraint, sqlService, blobUpdater);
+        return new SqlQueryBuilder(this, globType, constraint, sqlService, blobUpdater);
     }
 
     public UpdateBuilder getUpdateBuilder(GlobType globType, Constraint constraint) {
         checkConnectionIsNotClosed();
-        return new SqlUpdateBuilder(connection, globType, sqlService, constraint, blobUpdater);
+        return new SqlUpdateBuilder(this, globType, sqlService, constraint, blobUpdater);
     }
 
     protected void checkConnectionIsNotClosed() {
@@ -93,8 +128,167 @@ public abstract class JdbcConnection implements SqlConnection {
         });
     }
 
+    public void setReadOnly(boolean readOnly) {
+        checkConnectionIsNotClosed();
+        try {
+            connection.setReadOnly(readOnly);
+        } catch (SQLException e) {
+            throw getTypedException(null, e);
+        }
+    }
+
     public CreateBuilder getCreateBuilder(GlobType globType) {
-        return new SqlCreateBuilder(connection, globType, sqlService, blobUpdater, this);
+        return new SqlCreateBuilder(globType, sqlService, blobUpdater, this);
+    }
+
+    public UpsertBuilder getUpsertBuilder(GlobType globType, Field... conflictKeys) {
+        checkConnectionIsNotClosed();
+        return new SqlUpsertBuilder(globType, sqlService, blobUpdater, this, conflictKeys);
+    }
+
+    /*
+    The standard MERGE : the values are bound where their type is known (a typeless VALUES (?, ..) is refused by some
+    databases), so a value can be bound more than once.
+    updates give the policy of each inserted field that is not a conflict key.
+     */
+    public UpsertRequest getUpsertRequest(GlobType globType, List<Field> conflictKeys, Map<Field, UpsertBuilder.UpdatePolicy> updates) {
+        List<Field> parameters = new ArrayList<>();
+        StringPrettyWriter writer = new StringPrettyWriter();
+        writer.append("MERGE INTO ")
+                .append(sqlService.getTableName(globType, true))
+                .append(" AS T USING (VALUES (0)) AS V (X) ON ");
+        for (int i = 0; i < conflictKeys.size(); i++) {
+            writer.appendIf(" AND ", i > 0);
+            writer.append("T.").append(sqlService.getColumnName(conflictKeys.get(i), true)).append(" = ?");
+            parameters.add(conflictKeys.get(i));
+        }
+        String separator = " WHEN MATCHED THEN UPDATE SET ";
+        for (Map.Entry<Field, UpsertBuilder.UpdatePolicy> entry : updates.entrySet()) {
+            if (entry.getValue() == UpsertBuilder.UpdatePolicy.KEEP) {
+                continue;
+            }
+            String columnName = "T." + sqlService.getColumnName(entry.getKey(), true);
+            writer.append(separator).append(columnName).append(" = ")
+                    .append(getUpsertValue(entry.getValue(), columnName, "?"));
+            parameters.add(entry.getKey());
+            separator = ", ";
+        }
+        List<Field> inserted = new ArrayList<>(conflictKeys);
+        inserted.addAll(updates.keySet());
+        writer.append(" WHEN NOT MATCHED THEN INSERT (").append(getColumnNames(inserted))
+                .append(") VALUES (").append(String.join(", ", Collections.nCopies(inserted.size(), "?"))).append(")");
+        parameters.addAll(inserted);
+        return new UpsertRequest(writer.toString(), parameters);
+    }
+
+    protected String getUpsertValue(UpsertBuilder.UpdatePolicy policy, String columnName, String value) {
+        if (policy == UpsertBuilder.UpdatePolicy.INCREMENT) {
+            return "COALESCE(" + columnName + ", 0) + " + value;
+        }
+        return value;
+    }
+
+    // without generated values, or if getGeneratedKeysInsert is not supported, the keys are read row by row.
+    public List<Key> createAndGetKeys(GlobType globType, List<? extends Glob> globs) {
+        checkConnectionIsNotClosed();
+        if (globs.isEmpty()) {
+            return List.of();
+        }
+        List<Field> fields = InsertBulkLoader.getLoadedFields(globs.get(0));
+        List<Field> generated = GeneratedKeysInsert.getGeneratedFields(globType, fields);
+        SqlGeneratedKeysInsert insert = generated.isEmpty() ? null : getGeneratedKeysInsert(globType, fields, generated);
+        if (insert == null) {
+            return GeneratedKeysInsert.insert(this, globType, globs);
+        }
+        return insert.insert(globs);
+    }
+
+    protected SqlGeneratedKeysInsert getGeneratedKeysInsert(GlobType globType, List<Field> fields, List<Field> generated) {
+        return null;
+    }
+
+    /*
+    One UPDATE per chunk of globs (see SqlBulkUpdate) : the values are sent as arrays if the database and the types of the
+    fields allow it (getArrayBulkUpdateRequest), else as rows (getRowsBulkUpdateRequest), else one batched update per glob.
+     */
+    public BulkUpdate getBulkUpdate(GlobType globType, Field... setFields) {
+        checkConnectionIsNotClosed();
+        List<Field> keyFields = List.of(globType.getKeyFields());
+        List<Field> updatedFields = List.of(setFields);
+        List<Field> columns = new ArrayList<>(keyFields);
+        columns.addAll(updatedFields);
+        String[] arrayTypes = getArrayTypes(columns);
+        String arrayRequest = arrayTypes == null ? null : getArrayBulkUpdateRequest(globType, keyFields, updatedFields, arrayTypes);
+        if (arrayRequest != null) {
+            return new SqlBulkUpdate(this, columns, arrayTypes, rowCount -> arrayRequest, ARRAY_BULK_UPDATE_SIZE);
+        }
+        if (getRowsBulkUpdateRequest(globType, keyFields, updatedFields, 1) != null) {
+            return new SqlBulkUpdate(this, columns, null,
+                    rowCount -> getRowsBulkUpdateRequest(globType, keyFields, updatedFields, rowCount),
+                    Math.max(1, Math.min(ROWS_BULK_UPDATE_SIZE, MAX_PARAMETERS / columns.size())));
+        }
+        return new BatchedBulkUpdate(this, globType, setFields, BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
+
+    // null if a field has no array type.
+    private String[] getArrayTypes(List<Field> fields) {
+        String[] arrayTypes = new String[fields.size()];
+        for (int i = 0; i < arrayTypes.length; i++) {
+            arrayTypes[i] = getInListMode().getArrayType(fields.get(i));
+            if (arrayTypes[i] == null) {
+                return null;
+            }
+        }
+        return arrayTypes;
+    }
+
+    // an update with one array parameter per key field and set field, null if not supported.
+    protected String getArrayBulkUpdateRequest(GlobType globType, List<Field> keyFields, List<Field> setFields, String[] arrayTypes) {
+        return null;
+    }
+
+    // an update with rowCount rows of parameters (key fields then set fields), null if not supported.
+    protected String getRowsBulkUpdateRequest(GlobType globType, List<Field> keyFields, List<Field> setFields, int rowCount) {
+        return null;
+    }
+
+    // T.key = V.key AND ... : T is the updated table, V the values.
+    protected String getKeysJoin(List<Field> keyFields) {
+        StringJoiner joiner = new StringJoiner(" AND ");
+        for (Field field : keyFields) {
+            String columnName = sqlService.getColumnName(field, true);
+            joiner.add("T." + columnName + " = V." + columnName);
+        }
+        return joiner.toString();
+    }
+
+    // field = V.field, ...
+    protected String getValuesAssignment(List<Field> setFields, String targetPrefix) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Field field : setFields) {
+            String columnName = sqlService.getColumnName(field, true);
+            joiner.add(targetPrefix + columnName + " = V." + columnName);
+        }
+        return joiner.toString();
+    }
+
+    // INSERT INTO table (fields) VALUES (?, ...) : also the insert part of an INSERT ... ON CONFLICT / ON DUPLICATE KEY.
+    protected StringPrettyWriter getInsertRequest(GlobType globType, String tableAlias, List<Field> inserted) {
+        StringPrettyWriter writer = new StringPrettyWriter();
+        writer.append("INSERT INTO ")
+                .append(sqlService.getTableName(globType, true))
+                .append(tableAlias)
+                .append(" (").append(getColumnNames(inserted))
+                .append(") VALUES (").append(String.join(", ", Collections.nCopies(inserted.size(), "?"))).append(")");
+        return writer;
+    }
+
+    protected String getColumnNames(List<Field> fields) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Field field : fields) {
+            joiner.add(sqlService.getColumnName(field, true));
+        }
+        return joiner.toString();
     }
 
     public void createTable(GlobType globType) {
@@ -211,20 +405,40 @@ public abstract class JdbcConnection implements SqlConnection {
     public void showDb() {
     }
 
+    // one batched insert per type and set of fields (auto increment fields are only inserted if set).
     public void populate(Collection<Glob> all) {
+        Map<InsertShape, List<Glob>> globsByShape = new LinkedHashMap<>();
         for (Glob glob : all) {
-            CreateBuilder createBuilder = getCreateBuilder(glob.getType());
+            List<Field> fields = new ArrayList<>();
             for (Field field : glob.getType().getFields()) {
                 if (!field.hasAnnotation(AutoIncrement.KEY) || glob.isSet(field)) {
-                    createBuilder.setObject(field, glob.getValue(field));
+                    fields.add(field);
                 }
             }
-            try (SqlRequest request = createBuilder.getRequest()) {
-                request.run();
+            globsByShape.computeIfAbsent(new InsertShape(glob.getType(), fields), shape -> new ArrayList<>()).add(glob);
+        }
+        for (Map.Entry<InsertShape, List<Glob>> entry : globsByShape.entrySet()) {
+            CreateBuilder createBuilder = getCreateBuilder(entry.getKey().globType());
+            Glob[] current = new Glob[1];
+            for (Field field : entry.getKey().fields()) {
+                createBuilder.setObject(field, new Accessor() {
+                    public Object getObjectValue() {
+                        return current[0].getValue(field);
+                    }
+                });
+            }
+            try (BulkDbRequest request = createBuilder.getBulkRequest()) {
+                for (Glob glob : entry.getValue()) {
+                    current[0] = glob;
+                    request.run();
+                }
             }
         }
     }
 
+    private record InsertShape(GlobType globType, List<Field> fields) {
+    }
+
     public SqlService getJdbcSqlService() {
         return sqlService;
     }
@@ -232,17 +446,148 @@ public abstract class JdbcConnection implements SqlConnection {
     abstract protected SqlFieldCreationVisitor getFieldVisitorCreator(StringPrettyWriter prettyWriter);
 
     public SqlRequest getDeleteRequest(GlobType globType) {
-        return new SqlDeleteBuilder(globType, null, connection, sqlService, blobUpdater);
+        return new SqlDeleteBuilder(globType, null, this, sqlService, blobUpdater);
     }
 
     public SqlRequest getDeleteRequest(GlobType globType, Constraint constraint) {
-        return new SqlDeleteBuilder(globType, constraint, connection, sqlService, blobUpdater);
+        return new SqlDeleteBuilder(globType, constraint, this, sqlService, blobUpdater);
     }
 
     public Connection getConnection() {
         return connection;
     }
 
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int concurrency) throws SQLException {
+        checkConnectionIsNotClosed();
+        return statementCache.prepare(sql, resultSetType, concurrency, false);
+    }
+
+    public PreparedStatement prepareStatement(String sql, boolean returnGeneratedKeys) throws SQLException {
+        checkConnectionIsNotClosed();
+        return statementCache.prepare(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, returnGeneratedKeys);
+    }
+
+    // give back a statement obtained from prepareStatement, it will be reused for the same sql.
+    public void release(PreparedStatement preparedStatement) {
+        statementCache.release(preparedStatement);
+    }
+
+    /*
+    Share the read snapshot of this connection with other connections (used by the parallel scan).
+    Return null if the database (or an autocommit connection) do not support it.
+     */
+    public String exportSnapshot() {
+        return null;
+    }
+
+    // must be called before any other request on this connection.
+    public void importSnapshot(String snapshotId) {
+    }
+
+    // called before each execution of a select ; fetchSize == 0 keep the driver default.
+    public void applyFetchSize(PreparedStatement preparedStatement, int fetchSize) throws SQLException {
+        if (fetchSize > 0) {
+            preparedStatement.setFetchSize(fetchSize);
+        }
+    }
+
+    /*
+    Called before the execution of a select with a fetch size : return true if the connection was changed to read the
+    result by chunk, endStreaming is then called when the result set is closed.
+     */
+    public boolean beginStreaming() throws SQLException {
+        return false;
+    }
+
+    public void endStreaming() {
+    }
+
+    // how IN lists are sent (must be the same for the sql generation and the binding).
+    public InListMode getInListMode() {
+        return InListMode.PADDED;
+    }
+
+    /*
+    Above this count of values, the IN / NOT IN of a select is sent as a sub select : on unnest(?) with ANY_ARRAY,
+    on a temporary table (see InListTable) for the values sent one by one.
+     */
+    public int getLargeInListThreshold() {
+        return largeInListThreshold;
+    }
+
+    public void setLargeInListThreshold(int largeInListThreshold) {
+        this.largeInListThreshold = largeInListThreshold;
+    }
+
+    public InListTable newInListTable(Field field, Collection<?> values) {
+        String name = "GLOBS_IN_" + (++inListTableCount);
+        return new InListTable(name, getTemporaryTableReference(name), field, values);
+    }
+
+    protected String getTemporaryTableReference(String name) {
+        return name;
+    }
+
+    // the rows must be kept after a commit (the select can be executed again).
+    protected String getCreateTemporaryTable(String name, String columns) {
+        return "CREATE TEMPORARY TABLE " + name + " (" + columns + ")";
+    }
+
+    // create (once) and fill the table.
+    public void createInListTable(InListTable table) {
+        if (table.isCreated()) {
+            return;
+        }
+        Field field = table.getField();
+        String columnName = sqlService.getColumnName(field, true);
+        StringPrettyWriter columns = new StringPrettyWriter();
+        field.safeAccept(getFieldVisitorCreator(columns));
+        columns.append(", PRIMARY KEY (").append(columnName).append(")");
+        String create = getCreateTemporaryTable(table.getName(), columns.toString());
+        String insert = "INSERT INTO " + table.getReference() + " (" + columnName + ") VALUES (?)";
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(create);
+            }
+            table.setCreated(true);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(insert)) {
+                SqlValueFieldVisitor valueVisitor = new SqlValueFieldVisitor(preparedStatement, blobUpdater);
+                int count = 0;
+                for (Object value : table.getValues()) {
+                    valueVisitor.setValue(value, 1);
+                    field.safeAccept(valueVisitor);
+                    preparedStatement.addBatch();
+                    if (++count % IN_LIST_TABLE_BATCH_SIZE == 0) {
+                        preparedStatement.executeBatch();
+                    }
+                }
+                if (count % IN_LIST_TABLE_BATCH_SIZE != 0) {
+                    preparedStatement.executeBatch();
+                }
+            }
+        } catch (SQLException e) {
+            String message = "Fail to fill temporary table for " + field.getFullName() + " : " + create;
+            LOGGER.error(message, e);
+            throw getTypedException(message, e);
+        }
+    }
+
+    public void dropInListTable(InListTable table) {
+        if (!table.isCreated()) {
+            return;
+        }
+        table.setCreated(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DROP TABLE " + table.getReference());
+        } catch (SQLException e) {
+            LOGGER.warn("Fail to drop temporary table " + table.getReference(), e);
+        }
+    }
+
     public SqlException getTypedException(String sql, SQLException e) {
         if ("23000".equals(e.getSQLState()) || "23505".equals(e.getSQLState())) {
             if (sql == null) {
@@ -265,6 +610,11 @@ public abstract class JdbcConnection implements SqlConnection {
             ex = getTypedException(null, e);
         } finally {
             try {
+                if (ownStatementCache) {
+                    statementCache.closeAll();
+                } else {
+                    statementCache.closeOutstanding();
+                }
                 connection.close();
             } catch (SQLException e) {
                 if (ex == null) {
@@ -0,0 +1,296 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Bounded pool of physical connections.
+The connection returned by getConnection() is a proxy : close() give back the physical connection to the pool.
+Each physical connection has its own PreparedStatementCache (see unwrap).
+ */
+public class JdbcConnectionPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcConnectionPool.class);
+    private final ConnectionFactory connectionFactory;
+    private final Config config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private int opened = 0;
+    private boolean closed = false;
+
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    public record Config(int minSize, int maxSize, long idleTimeoutInMs, long maxWaitInMs, int validationTimeoutInSecond) {
+        public Config {
+            if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("Invalid pool size min=" + minSize + " max=" + maxSize);
+            }
+        }
+
+        public static Config of(int minSize, int maxSize) {
+            return new Config(minSize, maxSize, TimeUnit.MINUTES.toMillis(10), TimeUnit.SECONDS.toMillis(30), 2);
+        }
+    }
+
+    public JdbcConnectionPool(ConnectionFactory connectionFactory, Config config) {
+        this.connectionFactory = connectionFactory;
+        this.config = config;
+    }
+
+    public Connection getConnection() throws SQLException {
+        PooledConnection pooledConnection = borrow();
+        return (Connection) Proxy.newProxyInstance(JdbcConnectionPool.class.getClassLoader(),
+                new Class[]{Connection.class}, new ConnectionHandler(pooledConnection));
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public int getOpenedCount() {
+        lock.lock();
+        try {
+            return opened;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            opened -= idle.size();
+            idle.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(PooledConnection::closePhysical);
+    }
+
+    private PooledConnection borrow() throws SQLException {
+        long waitUntil = System.currentTimeMillis() + config.maxWaitInMs();
+        while (true) {
+            PooledConnection candidate = null;
+            boolean shouldCreate = false;
+            List<PooledConnection> expired;
+            lock.lock();
+            try {
+                expired = evictExpired();
+                while (candidate == null && !shouldCreate) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate == null) {
+                        if (opened < config.maxSize()) {
+                            opened++;
+                            shouldCreate = true;
+                        } else {
+                            long stillToWait = waitUntil - System.currentTimeMillis();
+                            if (stillToWait <= 0) {
+                                throw new SQLException("Timeout while waiting for a connection (max " + config.maxSize() + ")");
+                            }
+                            try {
+                                released.await(stillToWait, TimeUnit.MILLISECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new SQLException("Interrupted while waiting for a connection", e);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            expired.forEach(PooledConnection::closePhysical);
+            if (shouldCreate) {
+                try {
+                    return new PooledConnection(connectionFactory.create());
+                } catch (SQLException | RuntimeException e) {
+                    discard(null);
+                    throw e;
+                }
+            }
+            if (isValid(candidate)) {
+                return candidate;
+            }
+            LOGGER.info("Discard invalid pooled connection");
+            discard(candidate);
+        }
+    }
+
+    private boolean isValid(PooledConnection pooledConnection) {
+        try {
+            return pooledConnection.connection.isValid(config.validationTimeoutInSecond());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // called with lock held
+    private List<PooledConnection> evictExpired() {
+        List<PooledConnection> expired = new ArrayList<>();
+        long limit = System.currentTimeMillis() - config.idleTimeoutInMs();
+        for (Iterator<PooledConnection> iterator = idle.descendingIterator(); iterator.hasNext(); ) {
+            PooledConnection pooledConnection = iterator.next();
+            if (opened - expired.size() <= config.minSize()) {
+                break;
+            }
+            if (pooledConnection.lastUsed < limit) {
+                iterator.remove();
+                expired.add(pooledConnection);
+            }
+        }
+        opened -= expired.size();
+        return expired;
+    }
+
+    private void release(PooledConnection pooledConnection) {
+        pooledConnection.statementCache.closeOutstanding();
+        boolean reusable = reset(pooledConnection.connection);
+        lock.lock();
+        try {
+            if (reusable && !closed) {
+                pooledConnection.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pooledConnection);
+                released.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(pooledConnection);
+    }
+
+    private void discard(PooledConnection pooledConnection) {
+        lock.lock();
+        try {
+            opened--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (pooledConnection != null) {
+            pooledConnection.closePhysical();
+        }
+    }
+
+    // a connection that still hold a transaction must not be given to another user.
+    private static boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            if (connection.isReadOnly()) {
+                connection.setReadOnly(false);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.warn("Fail to reset pooled connection", e);
+            return false;
+        }
+    }
+
+    private static class PooledConnection {
+        final Connection connection;
+        final PreparedStatementCache statementCache;
+        long lastUsed;
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.statementCache = new PreparedStatementCache(connection, PreparedStatementCache.DEFAULT_SIZE);
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        void closePhysical() {
+            statementCache.closeAll();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOGGER.warn("Fail to close pooled connection", e);
+            }
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private PooledConnection pooledConnection;
+
+        ConnectionHandler(PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (pooledConnection != null) {
+                        PooledConnection toRelease = pooledConnection;
+                        pooledConnection = null;
+                        release(toRelease);
+                    }
+                    return null;
+                case "isClosed":
+                    return pooledConnection == null || pooledConnection.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + (pooledConnection == null ? "closed" : pooledConnection.connection.toString());
+            }
+            if (pooledConnection == null) {
+                throw new SQLException("Connection is closed");
+            }
+            // the statement cache follow the physical connection to keep statements (and server side plan) between borrow.
+            if (args != null && args.length == 1 && args[0] == PreparedStatementCache.class) {
+                if (method.getName().equals("isWrapperFor")) {
+                    return true;
+                }
+                if (method.getName().equals("unwrap")) {
+                    return pooledConnection.statementCache;
+                }
+            }
+            try {
+                return method.invoke(pooledConnection.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public String toString() {
+        return "JdbcConnectionPool{opened=" + getOpenedCount() + ", idle=" + getIdleCount() + ", " + config + "}";
+    }
+}
@@ -22,14 +22,27 @@ public class JdbcSqlService extends AbstractSqlService {
     private String dbName;
     private Properties dbInfo;
     private DbFactory dbFactory;
+    private JdbcConnectionPool.ConnectionFactory physicalConnectionFactory;
+    private JdbcConnectionPool connectionPool;
 
     public JdbcSqlService(String dbName, String user, String password, NamingMapping namingMapping) {
+        this(dbName, user, password, namingMapping, null);
+    }
+
+    public JdbcSqlService(String dbName, String user, String password, NamingMapping namingMapping, JdbcConnectionPool.Config poolConfig) {
         super(getMapping(dbName, namingMapping));
         this.dbName = dbName;
         dbInfo = new Properties();
         dbInfo.put("user", user);
         dbInfo.put("password", password);
         loadDriver();
+        if (poolConfig != null) {
+            connectionPool = new JdbcConnectionPool(physicalConnectionFactory, poolConfig);
+        }
+    }
+
+    public JdbcSqlService(String dbName, String user, String password, JdbcConnectionPool.Config poolConfig) {
+        this(dbName, user, password, DefaultNamingMapping.INSTANCE, poolConfig);
     }
 
     static NamingMapping getMapping(String dbName, NamingMapping namingMapping) {
@@ -63,6 +76,9 @@ public class JdbcSqlService extends AbstractSqlService {
             } else if (dbName.startsWith("jdbc:postgresql:")) {
                 setupPostgresql();
             }
+            if (physicalConnectionFactory == null) {
+                physicalConnectionFactory = () -> driver.connect(dbName, dbInfo);
+            }
         } catch (Exception e) {
             throw new ItemNotFound(e);
         }
@@ -128,14 +144,15 @@ public class JdbcSqlService extends AbstractSqlService {
         DataSource dataSource = (DataSource) Class.forName("org.hsqldb.jdbc.JDBCPool").getDeclaredConstructor().newInstance();
         dataSource.getClass().getDeclaredMethod("setUrl", String.class).invoke(dataSource, dbName);
         dataSource.getClass().getDeclaredMethod("setProperties", Properties.class).invoke(dataSource, dbInfo);
+        physicalConnectionFactory = dataSource::getConnection;
         dbFactory = autoCommit -> {
+            Connection connection = getConnection();
             try {
-                Connection connection = dataSource.getConnection();
                 connection.setAutoCommit(autoCommit);
-                return new HsqlConnection(autoCommit, connection, JdbcSqlService.this);
             } catch (SQLException e) {
                 throw new UnexpectedApplicationState(e);
             }
+            return new HsqlConnection(autoCommit, connection, JdbcSqlService.this);
         };
     }
 
@@ -147,11 +164,24 @@ public class JdbcSqlService extends AbstractSqlService {
         return dbFactory.create(true);
     }
 
-    synchronized public Connection getConnection() {
+    public Connection getConnection() {
         try {
-            return driver.connect(dbName, dbInfo);
+            if (connectionPool != null) {
+                return connectionPool.getConnection();
+            }
+            return physicalConnectionFactory.create();
         } catch (SQLException e) {
             throw new UnexpectedApplicationState("for " + dbInfo.get("user") + " on " + dbName, e);
         }
     }
+
+    public JdbcConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
+    }
 }
@@ -0,0 +1,340 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.metamodel.fields.IntegerField;
+import org.globsframework.core.metamodel.fields.LongField;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.streams.GlobStream;
+import org.globsframework.core.streams.accessors.Accessor;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.SelectBuilder;
+import org.globsframework.sql.SelectQuery;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.SqlService;
+import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.constraints.Constraints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+Run a select on N disjoint ranges of an integer or long field, each range on its own connection.
+The ranges are computed from the min and max of the field ; the rows where the field is null are read by one more
+partition if the field is not a key field.
+The partitions are read by a dedicated pool of threads, at most one per free connection of the JdbcConnectionPool
+(the caller keep its connection while it read the stream, the snapshot reader keep one) ; the rows are given to the
+returned stream by batch : its spliterator hand out the read batches on trySplit, so a parallel() stream process
+them on several cores.
+If the database support it (see JdbcConnection.exportSnapshot), all the ranges read the same snapshot.
+ */
+public class PartitionedScan {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedScan.class);
+    private static final int BATCH_SIZE = 256;
+    private static final Object PARTITION_DONE = new Object();
+    private final SqlService sqlService;
+    private final GlobType globType;
+    private final Constraint constraint;
+    private final List<Field> fields;
+    private final int fetchSize;
+
+    record Range(long from, long to) {
+    }
+
+    public PartitionedScan(SqlService sqlService, GlobType globType, Constraint constraint, List<Field> fields, int fetchSize) {
+        this.sqlService = sqlService;
+        this.globType = globType;
+        this.constraint = constraint;
+        this.fields = fields;
+        this.fetchSize = fetchSize;
+    }
+
+    public Field getDefaultRangeField() {
+        Field[] keyFields = globType.getKeyFields();
+        if (keyFields.length != 1) {
+            throw new UnexpectedApplicationState("A range field is needed to partition " + globType.getName() + " (not a single key)");
+        }
+        return keyFields[0];
+    }
+
+    public Stream<Glob> execute(Field rangeField, int partitions) {
+        if (!(rangeField instanceof IntegerField || rangeField instanceof LongField)) {
+            throw new UnexpectedApplicationState("Only integer or long field can be partitioned, got " + rangeField.getFullName());
+        }
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive, got " + partitions);
+        }
+        int freeConnections = getFreeConnections();
+        if (freeConnections < 1) {
+            throw new UnexpectedApplicationState("No free connection in the pool to scan " + globType.getName() +
+                                                 " (the caller hold the only one)");
+        }
+        SqlConnection reader = sqlService.getDb();
+        String snapshot;
+        List<Range> ranges;
+        try {
+            // the reader keep its connection until the end of the scan : only if the pool has another one
+            snapshot = freeConnections > 1 && reader instanceof JdbcConnection ? ((JdbcConnection) reader).exportSnapshot() : null;
+            ranges = computeRanges(reader, rangeField, partitions);
+        } catch (RuntimeException e) {
+            reader.rollbackAndClose();
+            throw e;
+        }
+        if (snapshot == null) {
+            reader.rollbackAndClose();
+        }
+        List<Constraint> parts = new ArrayList<>(ranges.size() + 1);
+        for (Range range : ranges) {
+            parts.add(Constraints.and(
+                    Constraints.greaterUnchecked(rangeField, toValue(rangeField, range.from())),
+                    Constraints.lessUncheck(rangeField, toValue(rangeField, range.to()))));
+        }
+        if (!rangeField.isKeyField()) {
+            parts.add(Constraints.isNull(rangeField));
+        }
+        int threads = Math.max(1, Math.min(parts.size(), snapshot == null ? freeConnections : freeConnections - 1));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Scan " + globType.getName() + " on " + ranges + (rangeField.isKeyField() ? "" : " and null values")
+                         + " with " + threads + " threads" + (snapshot == null ? "" : " and snapshot " + snapshot));
+        }
+        PartitionIterator iterator = new PartitionIterator(parts, threads, snapshot);
+        return StreamSupport.stream(new BatchSpliterator(iterator), false)
+                .onClose(iterator::close)
+                .onClose(() -> {
+                    if (snapshot != null) {
+                        reader.rollbackAndClose();
+                    }
+                });
+    }
+
+    // the connections of the pool that can be used by the scan : all but the one of the caller (no limit without pool).
+    private int getFreeConnections() {
+        if (sqlService instanceof JdbcSqlService jdbcSqlService && jdbcSqlService.getConnectionPool() != null) {
+            return jdbcSqlService.getConnectionPool().getConfig().maxSize() - 1;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    // to - from can overflow a long : the bounds are computed with BigInteger.
+    static List<Range> computeRanges(long from, long to, int partitions) {
+        BigInteger last = BigInteger.valueOf(to);
+        BigInteger step = last.subtract(BigInteger.valueOf(from)).divide(BigInteger.valueOf(partitions)).add(BigInteger.ONE);
+        List<Range> ranges = new ArrayList<>(partitions);
+        for (BigInteger start = BigInteger.valueOf(from); start.compareTo(last) <= 0; start = start.add(step)) {
+            BigInteger end = start.add(step).subtract(BigInteger.ONE).min(last);
+            ranges.add(new Range(start.longValueExact(), end.longValueExact()));
+        }
+        return ranges;
+    }
+
+    private List<Range> computeRanges(SqlConnection reader, Field rangeField, int partitions) {
+        SelectBuilder queryBuilder = reader.getQueryBuilder(globType, constraint);
+        Accessor min;
+        Accessor max;
+        if (rangeField instanceof IntegerField integerField) {
+            min = queryBuilder.min(integerField);
+            max = queryBuilder.max(integerField);
+        } else {
+            min = queryBuilder.min((LongField) rangeField);
+            max = queryBuilder.max((LongField) rangeField);
+        }
+        try (SelectQuery query = queryBuilder.getQuery()) {
+            GlobStream globStream = query.execute();
+            if (!globStream.next() || min.getObjectValue() == null) {
+                return List.of();
+            }
+            return computeRanges(((Number) min.getObjectValue()).longValue(), ((Number) max.getObjectValue()).longValue(), partitions);
+        }
+    }
+
+    private Stream<Glob> scan(Constraint part, String snapshot) {
+        SqlConnection db = sqlService.getDb();
+        try {
+            if (snapshot != null) {
+                ((JdbcConnection) db).importSnapshot(snapshot);
+            }
+            SelectBuilder queryBuilder = db.getQueryBuilder(globType, Constraints.and(constraint, part));
+            for (Field field : fields) {
+                queryBuilder.select(field);
+            }
+            return queryBuilder.fetchSize(fetchSize)
+                    .getQuery()
+                    .executeAsGlobStream()
+                    .onClose(db::rollbackAndClose);
+        } catch (RuntimeException e) {
+            db.rollbackAndClose();
+            throw e;
+        }
+    }
+
+    private static Object toValue(Field rangeField, long value) {
+        if (rangeField instanceof IntegerField) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    // trySplit give the next batch : with parallel(), the batches are processed as they are read.
+    private static class BatchSpliterator implements Spliterator<Glob> {
+        private final PartitionIterator iterator;
+
+        BatchSpliterator(PartitionIterator iterator) {
+            this.iterator = iterator;
+        }
+
+        public boolean tryAdvance(Consumer<? super Glob> action) {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            action.accept(iterator.next());
+            return true;
+        }
+
+        public Spliterator<Glob> trySplit() {
+            List<Glob> batch = iterator.nextBatch();
+            return batch == null ? null : batch.spliterator();
+        }
+
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        public int characteristics() {
+            return NONNULL;
+        }
+    }
+
+    /*
+    Each partition is read by a task of the pool, its rows are put in the queue by batch then PARTITION_DONE.
+    close() stop the tasks and wait for them : the connections are released after close.
+     */
+    private class PartitionIterator implements Iterator<Glob> {
+        private final BlockingQueue<Object> queue;
+        private final ExecutorService executor;
+        private final CountDownLatch tasksDone;
+        private volatile boolean cancelled;
+        private Iterator<Glob> currentBatch = Collections.emptyIterator();
+        private int remaining;
+
+        PartitionIterator(List<Constraint> parts, int threads, String snapshot) {
+            remaining = parts.size();
+            tasksDone = new CountDownLatch(parts.size());
+            queue = new ArrayBlockingQueue<>(threads * 2);
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "globs-db-scan");
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (Constraint part : parts) {
+                executor.execute(() -> read(part, snapshot));
+            }
+            executor.shutdown();
+        }
+
+        private void read(Constraint part, String snapshot) {
+            try {
+                if (cancelled) {
+                    return;
+                }
+                try (Stream<Glob> globs = scan(part, snapshot)) {
+                    List<Glob> batch = new ArrayList<>(BATCH_SIZE);
+                    for (Iterator<Glob> iterator = globs.iterator(); !cancelled && iterator.hasNext(); ) {
+                        batch.add(iterator.next());
+                        if (batch.size() == BATCH_SIZE) {
+                            put(batch);
+                            batch = new ArrayList<>(BATCH_SIZE);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        put(batch);
+                    }
+                }
+                put(PARTITION_DONE);
+            } catch (Throwable e) {
+                if (!cancelled) {
+                    LOGGER.error("Scan of " + part + " fail", e);
+                }
+                try {
+                    put(e);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            } finally {
+                tasksDone.countDown();
+            }
+        }
+
+        private void put(Object batchOrMarker) throws InterruptedException {
+            while (!cancelled) {
+                if (queue.offer(batchOrMarker, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            while (!currentBatch.hasNext()) {
+                if (remaining == 0) {
+                    return false;
+                }
+                Object value;
+                try {
+                    value = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for scanned rows", e);
+                }
+                if (value == PARTITION_DONE) {
+                    remaining--;
+                } else if (value instanceof Throwable) {
+                    remaining = 0;
+                    if (value instanceof RuntimeException) {
+                        throw (RuntimeException) value;
+                    }
+                    if (value instanceof Error) {
+                        throw (Error) value;
+                    }
+                    throw new RuntimeException("Scan fail", (Throwable) value);
+                } else {
+                    currentBatch = ((List<Glob>) value).iterator();
+                }
+            }
+            return true;
+        }
+
+        public Glob next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentBatch.next();
+        }
+
+        // the rest of the current batch or the next read one, null at the end.
+        List<Glob> nextBatch() {
+            if (!hasNext()) {
+                return null;
+            }
+            List<Glob> batch = new ArrayList<>(BATCH_SIZE);
+            currentBatch.forEachRemaining(batch::add);
+            return batch;
+        }
+
+        public void close() {
+            cancelled = true;
+            queue.clear();
+            try {
+                tasksDone.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for the scan tasks to stop");
+            }
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.model.Glob;
+import org.globsframework.sql.utils.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+Read ahead : a background thread read the result set and decode rows in batch of globs,
+at most maxPendingBatches are waiting for the consumer.
+close() stop the reader and wait for it : the connection is not used anymore after close.
+The reader use the connection from its own thread : no other request must be run on the SqlConnection until close.
+If the iterator is dropped without close, the reader is stopped once the iterator is garbage collected.
+ */
+class PrefetchGlobIterator implements Iterator<Glob> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrefetchGlobIterator.class);
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final List<Glob> END = new ArrayList<>(0);
+    private final Reader reader;
+    private final Cleaner.Cleanable cleanable;
+    private Iterator<Glob> currentBatch = Collections.emptyIterator();
+    private boolean finished;
+    int count = 0;
+
+    PrefetchGlobIterator(SqlGlobStream globStream, GlobType fallBackType, int batchSize, int maxPendingBatches) {
+        if (batchSize <= 0 || maxPendingBatches <= 0) {
+            throw new IllegalArgumentException("Invalid prefetch batchSize=" + batchSize + " maxPendingBatches=" + maxPendingBatches);
+        }
+        reader = new Reader(globStream, fallBackType, batchSize, maxPendingBatches);
+        // the reader must not reference the iterator : it would never be collected
+        cleanable = CLEANER.register(this, reader::cancel);
+        ThreadUtils.getDefaultExecutor().execute(reader);
+    }
+
+    public boolean hasNext() {
+        while (!currentBatch.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            Object value;
+            try {
+                value = reader.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for prefetched rows", e);
+            }
+            if (value == END) {
+                finished = true;
+                return false;
+            }
+            if (value instanceof Throwable) {
+                finished = true;
+                if (value instanceof RuntimeException) {
+                    throw (RuntimeException) value;
+                }
+                if (value instanceof Error) {
+                    throw (Error) value;
+                }
+                throw new RuntimeException("Prefetch fail", (Throwable) value);
+            }
+            currentBatch = ((List<Glob>) value).iterator();
+        }
+        return true;
+    }
+
+    public Glob next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        count++;
+        return currentBatch.next();
+    }
+
+    public void close() {
+        cleanable.clean();
+        reader.awaitStop();
+    }
+
+    private static class Reader implements Runnable {
+        private final BlockingQueue<Object> queue;
+        private final CountDownLatch readerDone = new CountDownLatch(1);
+        private final SqlGlobStream globStream;
+        private final GlobType fallBackType;
+        private final int batchSize;
+        private volatile boolean cancelled;
+
+        Reader(SqlGlobStream globStream, GlobType fallBackType, int batchSize, int maxPendingBatches) {
+            this.globStream = globStream;
+            this.fallBackType = fallBackType;
+            this.batchSize = batchSize;
+            // one more place for the end (or error) marker
+            queue = new ArrayBlockingQueue<>(maxPendingBatches + 1);
+        }
+
+        public void run() {
+            boolean endReached = false;
+            try {
+                AccessorGlobBuilder globBuilder = AccessorGlobBuilder.init(globStream, fallBackType);
+                List<Glob> batch = new ArrayList<>(batchSize);
+                while (!cancelled) {
+                    if (!globStream.next()) {
+                        // the result set is closed by next()
+                        endReached = true;
+                        break;
+                    }
+                    batch.add(globBuilder.getGlob());
+                    if (batch.size() == batchSize) {
+                        put(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    put(batch);
+                }
+                put(END);
+            } catch (Throwable e) {
+                if (!cancelled) {
+                    LOGGER.error("Prefetch fail", e);
+                }
+                try {
+                    put(e);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            } finally {
+                if (!endReached) {
+                    try {
+                        globStream.close();
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Fail to close result set", e);
+                    }
+                }
+                readerDone.countDown();
+            }
+        }
+
+        private void put(Object batchOrError) throws InterruptedException {
+            while (!cancelled) {
+                if (queue.offer(batchOrError, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+
+        // called by close() or by the cleaner : must not block.
+        void cancel() {
+            cancelled = true;
+            queue.clear();
+        }
+
+        void awaitStop() {
+            try {
+                readerDone.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for the prefetch reader to stop");
+            }
+            queue.clear();
+        }
+    }
+}
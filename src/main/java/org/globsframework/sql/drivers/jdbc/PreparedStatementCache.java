@@ -0,0 +1,129 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+LRU cache of prepared statement of a physical connection.
+A statement is removed from the cache while it is in use, and given back by release().
+ */
+public class PreparedStatementCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreparedStatementCache.class);
+    public static final int DEFAULT_SIZE = 64;
+    private final Connection connection;
+    private final LinkedHashMap<StatementKey, PreparedStatement> cache;
+    private final Map<PreparedStatement, StatementKey> inUse = new IdentityHashMap<>();
+    // prepareStatement can go to the server : a lock do not pin a virtual thread as synchronized does.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    record StatementKey(String sql, int resultSetType, int concurrency, boolean returnGeneratedKeys) {
+    }
+
+    public PreparedStatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    close(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public PreparedStatement prepare(String sql, int resultSetType, int concurrency, boolean returnGeneratedKeys) throws SQLException {
+        lock.lock();
+        try {
+            StatementKey key = new StatementKey(sql, resultSetType, concurrency, returnGeneratedKeys);
+            PreparedStatement preparedStatement = cache.remove(key);
+            if (preparedStatement == null || preparedStatement.isClosed()) {
+                if (returnGeneratedKeys) {
+                    preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                } else {
+                    preparedStatement = connection.prepareStatement(sql, resultSetType, concurrency);
+                }
+            }
+            inUse.put(preparedStatement, key);
+            return preparedStatement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(PreparedStatement preparedStatement) {
+        lock.lock();
+        try {
+            StatementKey key = inUse.remove(preparedStatement);
+            if (key == null) {
+                close(preparedStatement);
+                return;
+            }
+            try {
+                preparedStatement.clearParameters();
+                preparedStatement.clearBatch();
+            } catch (SQLException e) {
+                close(preparedStatement);
+                return;
+            }
+            PreparedStatement previous = cache.put(key, preparedStatement);
+            if (previous != null && previous != preparedStatement) {
+                close(previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return cache.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // statements not given back (query or request not closed) are closed.
+    public void closeOutstanding() {
+        lock.lock();
+        try {
+            List<PreparedStatement> statements = new ArrayList<>(inUse.keySet());
+            inUse.clear();
+            statements.forEach(PreparedStatementCache::close);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void closeAll() {
+        lock.lock();
+        try {
+            closeOutstanding();
+            List<PreparedStatement> statements = new ArrayList<>(cache.values());
+            cache.clear();
+            statements.forEach(PreparedStatementCache::close);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void close(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Fail to close prepared statement", e);
+        }
+    }
+}
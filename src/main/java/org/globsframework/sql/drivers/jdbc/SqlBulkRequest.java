@@ -0,0 +1,63 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.sql.BulkDbRequest;
+import org.globsframework.sql.exceptions.SqlException;
+
+import java.sql.Statement;
+
+public class SqlBulkRequest implements BulkDbRequest {
+    private static final int[] EMPTY = new int[0];
+    private final BatchSqlRequest request;
+    private final int batchSize;
+    private int pending;
+    private int[] lastUpdateCounts = EMPTY;
+
+    public SqlBulkRequest(BatchSqlRequest request, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize);
+        }
+        this.request = request;
+        this.batchSize = batchSize;
+    }
+
+    public int run() throws SqlException {
+        request.addBatch();
+        pending++;
+        if (pending >= batchSize) {
+            return execute();
+        }
+        return 0;
+    }
+
+    public void flush() {
+        if (pending > 0) {
+            execute();
+        }
+    }
+
+    public int[] getLastUpdateCounts() {
+        return lastUpdateCounts;
+    }
+
+    private int execute() {
+        pending = 0;
+        lastUpdateCounts = request.executeBatch();
+        int count = 0;
+        for (int updateCount : lastUpdateCounts) {
+            if (updateCount > 0) {
+                count += updateCount;
+            } else if (updateCount == Statement.SUCCESS_NO_INFO) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void close() {
+        try {
+            flush();
+        } finally {
+            request.close();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.sql.BulkUpdate;
+import org.globsframework.sql.drivers.jdbc.impl.InListMode;
+import org.globsframework.sql.drivers.jdbc.impl.SqlValueFieldVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/*
+One UPDATE per chunk of globs, joined on the key fields with the values of the chunk.
+The columns (key fields then set fields) are sent as one array parameter each if arrayTypes is given (the sql do not
+depend on the chunk size), else as one parameter per value, row by row : the last chunk is then padded with its last
+row (see InListMode.paddedSize) so that the chunks of close sizes share the same sql. A repeated row set the same
+values on the same row, which is updated (and counted) once.
+ */
+public class SqlBulkUpdate implements BulkUpdate {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlBulkUpdate.class);
+    private final JdbcConnection jdbcConnection;
+    private final List<Field> columns;
+    private final String[] arrayTypes;
+    private final IntFunction<String> sqlByRowCount;
+    private final int chunkSize;
+
+    public SqlBulkUpdate(JdbcConnection jdbcConnection, List<Field> columns, String[] arrayTypes,
+                         IntFunction<String> sqlByRowCount, int chunkSize) {
+        this.jdbcConnection = jdbcConnection;
+        this.columns = columns;
+        this.arrayTypes = arrayTypes;
+        this.sqlByRowCount = sqlByRowCount;
+        this.chunkSize = chunkSize;
+    }
+
+    public int update(Stream<Glob> globs) {
+        int count = 0;
+        List<Glob> chunk = new ArrayList<>();
+        for (Iterator<Glob> iterator = globs.iterator(); iterator.hasNext(); ) {
+            chunk.add(iterator.next());
+            if (chunk.size() == chunkSize) {
+                count += execute(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            count += execute(chunk);
+        }
+        return count;
+    }
+
+    private int execute(List<Glob> chunk) {
+        int rowCount = arrayTypes != null ? chunk.size() : Math.min(chunkSize, InListMode.paddedSize(chunk.size()));
+        String sql = sqlByRowCount.apply(rowCount);
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = jdbcConnection.prepareStatement(sql);
+            if (arrayTypes != null) {
+                for (int i = 0; i < columns.size(); i++) {
+                    Object[] values = new Object[chunk.size()];
+                    for (int j = 0; j < values.length; j++) {
+                        values[j] = chunk.get(j).getValue(columns.get(i));
+                    }
+                    preparedStatement.setArray(i + 1, preparedStatement.getConnection().createArrayOf(arrayTypes[i], values));
+                }
+            } else {
+                SqlValueFieldVisitor valueVisitor = new SqlValueFieldVisitor(preparedStatement, jdbcConnection.blobUpdater);
+                int index = 0;
+                for (int j = 0; j < rowCount; j++) {
+                    Glob glob = chunk.get(Math.min(j, chunk.size() - 1));
+                    for (Field field : columns) {
+                        valueVisitor.setValue(glob.getValue(field), ++index);
+                        field.safeAccept(valueVisitor);
+                    }
+                }
+            }
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.error("In bulk update " + sql, e);
+            throw jdbcConnection.getTypedException(sql, e);
+        } finally {
+            if (preparedStatement != null) {
+                jdbcConnection.release(preparedStatement);
+            }
+        }
+    }
+}
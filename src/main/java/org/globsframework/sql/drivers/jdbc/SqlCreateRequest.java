@@ -7,7 +7,6 @@ import org.globsframework.core.streams.accessors.Accessor;
 import org.globsframework.core.utils.collections.Pair;
 import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
 import org.globsframework.json.GSonUtils;
-import org.globsframework.sql.SqlRequest;
 import org.globsframework.sql.SqlService;
 import org.globsframework.sql.drivers.jdbc.impl.SqlValueFieldVisitor;
 import org.globsframework.sql.drivers.jdbc.request.GeneratedKeyAccessor;
@@ -25,7 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class SqlCreateRequest implements SqlRequest {
+public class SqlCreateRequest implements BatchSqlRequest {
     static private final Logger LOGGER = LoggerFactory.getLogger(SqlCreateRequest.class);
     private PreparedStatement preparedStatement;
     private List<Pair<Field, Accessor>> fields;
@@ -34,27 +33,32 @@ public class SqlCreateRequest implements SqlRequest {
     private GlobType globType;
     private SqlService sqlService;
     private JdbcConnection jdbcConnection;
+    private String sql;
 
     public SqlCreateRequest(List<Pair<Field, Accessor>> fields, GeneratedKeyAccessor generatedKeyAccessor,
-                            Connection connection,
+                            GlobType globType, SqlService sqlService, BlobUpdater blobUpdater, JdbcConnection jdbcConnection) {
+        this(null, fields, generatedKeyAccessor, globType, sqlService, blobUpdater, jdbcConnection);
+    }
+
+    // sql : a request (an upsert) with one parameter per element of fields (a field can be repeated), null for an INSERT.
+    public SqlCreateRequest(String sql, List<Pair<Field, Accessor>> fields, GeneratedKeyAccessor generatedKeyAccessor,
                             GlobType globType, SqlService sqlService, BlobUpdater blobUpdater, JdbcConnection jdbcConnection) {
         this.generatedKeyAccessor = generatedKeyAccessor;
         this.fields = fields;
         this.globType = globType;
         this.sqlService = sqlService;
         this.jdbcConnection = jdbcConnection;
-        String sql = prepareRequest(fields, this.globType, new Value() {
-            public String get(Pair<Field, Accessor> pair) {
-                return "?";
-            }
-        });
+        this.sql = sql;
+        if (sql == null) {
+            sql = prepareRequest(fields, this.globType, new Value() {
+                public String get(Pair<Field, Accessor> pair) {
+                    return "?";
+                }
+            });
+        }
         try {
-            if (generatedKeyAccessor != null) { // hsqlDb don"t like autogenerated keys
-                preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            } else {
-                preparedStatement = connection.prepareStatement(sql);
-
-            }
+            // hsqlDb don"t like autogenerated keys
+            preparedStatement = jdbcConnection.prepareStatement(sql, generatedKeyAccessor != null);
         } catch (SQLException e) {
             throw new UnexpectedApplicationState("In prepareStatement for request : " + sql, e);
         }
@@ -82,23 +86,21 @@ public class SqlCreateRequest implements SqlRequest {
         return writer.toString();
     }
 
+    private void bind() {
+        checkNotClosed();
+        int index = 0;
+        for (Pair<Field, Accessor> pair : fields) {
+            Object value = pair.getSecond().getObjectValue();
+            sqlValueVisitor.setValue(value, ++index);
+            pair.getFirst().safeAccept(sqlValueVisitor);
+        }
+    }
+
     public int run() {
         try {
-            int index = 0;
-            for (Pair<Field, Accessor> pair : fields) {
-                Object value = pair.getSecond().getObjectValue();
-                sqlValueVisitor.setValue(value, ++index);
-                pair.getFirst().safeAccept(sqlValueVisitor);
-            }
+            bind();
             final int result = preparedStatement.executeUpdate();
-            if (generatedKeyAccessor != null) {
-                ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    generatedKeyAccessor.setResult(generatedKeys, sqlService);
-                } else {
-                    generatedKeyAccessor.reset();
-                }
-            }
+            readGeneratedKeys();
             return result;
         } catch (SQLException e) {
             String debugRequest = getDebugRequest();
@@ -107,16 +109,65 @@ public class SqlCreateRequest implements SqlRequest {
         }
     }
 
-    public void close() {
+    public void addBatch() {
+        try {
+            bind();
+            preparedStatement.addBatch();
+        } catch (SQLException e) {
+            String debugRequest = getDebugRequest();
+            LOGGER.error("In addBatch " + debugRequest, e);
+            throw jdbcConnection.getTypedException(debugRequest, e);
+        }
+    }
+
+    // with a batch, the generated key accessor give the key of the last inserted row.
+    public int[] executeBatch() {
+        checkNotClosed();
         try {
-            preparedStatement.close();
+            int[] result = preparedStatement.executeBatch();
+            readGeneratedKeys();
+            return result;
         } catch (SQLException e) {
-            LOGGER.error("In close", e);
-            throw new UnexpectedApplicationState("In close", e);
+            String request = sql != null ? sql : prepareRequest(fields, globType, pair -> "?");
+            LOGGER.error("In executeBatch " + request, e);
+            throw jdbcConnection.getTypedException(request, e);
+        }
+    }
+
+    private void readGeneratedKeys() throws SQLException {
+        if (generatedKeyAccessor != null) {
+            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
+            boolean found = false;
+            while (generatedKeys.next()) {
+                generatedKeyAccessor.setResult(generatedKeys, sqlService);
+                found = true;
+            }
+            if (!found) {
+                generatedKeyAccessor.reset();
+            }
+            generatedKeys.close();
+        }
+    }
+
+    // the statement may be given to another request once released : it is released once.
+    public void close() {
+        if (preparedStatement != null) {
+            jdbcConnection.release(preparedStatement);
+            preparedStatement = null;
+        }
+    }
+
+    private void checkNotClosed() {
+        if (preparedStatement == null) {
+            throw new UnexpectedApplicationState("Request closed " + getDebugRequest());
         }
     }
 
     private String getDebugRequest() {
+        if (sql != null) {
+            DebugValue debugValue = new DebugValue();
+            return sql + " with (" + fields.stream().map(debugValue::get).collect(Collectors.joining(", ")) + ")";
+        }
         return prepareRequest(fields, globType, new DebugValue());
     }
 
@@ -0,0 +1,113 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.metamodel.fields.IntegerField;
+import org.globsframework.core.metamodel.fields.LongField;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.model.Key;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.drivers.jdbc.impl.SqlValueFieldVisitor;
+import org.globsframework.sql.utils.GeneratedKeysInsert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/*
+Insert chunks of globs and read the generated values of all the rows, in the order of the globs :
+- multi rows : one INSERT ... VALUES (..), (..) RETURNING generated columns per chunk (sqlByRowCount) ;
+- batch : one INSERT batched per chunk (sqlByRowCount(1)), the keys of the whole batch are read with getGeneratedKeys.
+The generated columns must be the first columns of the returned rows, in the order of the generated fields.
+ */
+public class SqlGeneratedKeysInsert {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlGeneratedKeysInsert.class);
+    private final JdbcConnection jdbcConnection;
+    private final List<Field> fields;
+    private final List<Field> generated;
+    private final IntFunction<String> sqlByRowCount;
+    private final boolean batch;
+    private final int chunkSize;
+
+    public SqlGeneratedKeysInsert(JdbcConnection jdbcConnection, List<Field> fields, List<Field> generated,
+                                  IntFunction<String> sqlByRowCount, boolean batch, int chunkSize) {
+        this.jdbcConnection = jdbcConnection;
+        this.fields = fields;
+        this.generated = generated;
+        this.sqlByRowCount = sqlByRowCount;
+        this.batch = batch;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<Key> insert(List<? extends Glob> globs) {
+        List<Key> keys = new ArrayList<>(globs.size());
+        for (int start = 0; start < globs.size(); start += chunkSize) {
+            insert(globs.subList(start, Math.min(globs.size(), start + chunkSize)), keys);
+        }
+        return keys;
+    }
+
+    private void insert(List<? extends Glob> chunk, List<Key> keys) {
+        String sql = sqlByRowCount.apply(batch ? 1 : chunk.size());
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = jdbcConnection.prepareStatement(sql, batch);
+            SqlValueFieldVisitor valueVisitor = new SqlValueFieldVisitor(preparedStatement, jdbcConnection.blobUpdater);
+            int index = 0;
+            for (Glob glob : chunk) {
+                if (batch) {
+                    index = 0;
+                }
+                for (Field field : fields) {
+                    valueVisitor.setValue(glob.getValue(field), ++index);
+                    field.safeAccept(valueVisitor);
+                }
+                if (batch) {
+                    preparedStatement.addBatch();
+                }
+            }
+            ResultSet resultSet;
+            if (batch) {
+                preparedStatement.executeBatch();
+                resultSet = preparedStatement.getGeneratedKeys();
+            } else {
+                resultSet = preparedStatement.executeQuery();
+            }
+            try (resultSet) {
+                for (Glob glob : chunk) {
+                    if (!resultSet.next()) {
+                        throw new UnexpectedApplicationState("Missing generated keys for " + sql);
+                    }
+                    Object[] values = new Object[generated.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = getValue(resultSet, i + 1, generated.get(i));
+                    }
+                    keys.add(GeneratedKeysInsert.getKey(glob, generated, values));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.error("In insert " + sql, e);
+            throw jdbcConnection.getTypedException(sql, e);
+        } finally {
+            if (preparedStatement != null) {
+                jdbcConnection.release(preparedStatement);
+            }
+        }
+    }
+
+    private static Object getValue(ResultSet resultSet, int index, Field field) throws SQLException {
+        Object value;
+        if (field instanceof IntegerField) {
+            value = resultSet.getInt(index);
+        } else if (field instanceof LongField) {
+            value = resultSet.getLong(index);
+        } else {
+            value = resultSet.getString(index);
+        }
+        return resultSet.wasNull() ? null : value;
+    }
+}
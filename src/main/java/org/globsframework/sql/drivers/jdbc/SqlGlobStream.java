@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -28,6 +29,10 @@ public class SqlGlobStream implements GlobStream {
     private Map<Field, SqlAccessor> fieldToAccessorHolder;
     private List<SqlAccessor> additionalAccessor;
     private SqlSelectQuery query;
+    // per column : 0 not yet resolved, else NUMERIC or TEMPORAL (read through getObject to convert dates)
+    private byte[] columnKinds;
+    private static final byte NUMERIC = 1;
+    private static final byte TEMPORAL = 2;
 
     public SqlGlobStream(ResultSet resultSet, Map<Field, SqlAccessor> fieldToAccessorHolder,
                          List<SqlAccessor> additionalAccessor,
@@ -80,21 +85,78 @@ public class SqlGlobStream implements GlobStream {
     }
 
     public Double getDouble(int index) {
+        double value = getDoubleValue(index);
+        return isNull() ? null : value;
+    }
+
+    // return 0 if null : check isNull()
+    public double getDoubleValue(int index) {
         try {
-            Number number = ((Number) resultSet.getObject(index));
-            if (number == null) {
-                return null;
-            }
-            if (number instanceof Double) {
-                return (Double) number;
-            }
-            return number.doubleValue();
+            return resultSet.getDouble(index);
         } catch (SQLException e) {
             LOGGER.error("in getDouble at " + index, e);
             throw new UnexpectedApplicationState(e);
         }
     }
 
+    // return 0 if null : check isNull()
+    public int getIntValue(int index) {
+        if (isTemporal(index)) {
+            Integer value = getInteger(index);
+            return value == null ? 0 : value;
+        }
+        try {
+            return resultSet.getInt(index);
+        } catch (SQLException e) {
+            String message = "for " + getColumnName(index);
+            LOGGER.error(message);
+            throw new SqlException(message, e);
+        }
+    }
+
+    // return 0 if null : check isNull()
+    public long getLongValue(int index) {
+        if (isTemporal(index)) {
+            Long value = getLong(index);
+            return value == null ? 0 : value;
+        }
+        try {
+            return resultSet.getLong(index);
+        } catch (SQLException e) {
+            LOGGER.error("in getLong at " + index, e);
+            throw new SqlException(e);
+        }
+    }
+
+    private boolean isTemporal(int index) {
+        try {
+            if (columnKinds == null) {
+                columnKinds = new byte[resultSet.getMetaData().getColumnCount() + 1];
+            }
+            byte kind = columnKinds[index];
+            if (kind == 0) {
+                kind = switch (resultSet.getMetaData().getColumnType(index)) {
+                    case Types.DATE, Types.TIME, Types.TIMESTAMP, Types.TIME_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE ->
+                            TEMPORAL;
+                    default -> NUMERIC;
+                };
+                columnKinds[index] = kind;
+            }
+            return kind == TEMPORAL;
+        } catch (SQLException e) {
+            LOGGER.error("in metadata at " + index, e);
+            throw new SqlException(e);
+        }
+    }
+
+    private String getColumnName(int index) {
+        try {
+            return resultSet.getMetaData().getColumnName(index);
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
     public Date getDate(int index) {
         try {
             return resultSet.getDate(index);
@@ -114,6 +176,10 @@ public class SqlGlobStream implements GlobStream {
     }
 
     public Integer getInteger(int index) {
+        if (!isTemporal(index)) {
+            int value = getIntValue(index);
+            return isNull() ? null : value;
+        }
         try {
             Object object = resultSet.getObject(index);
             if (object == null) {
@@ -187,6 +253,10 @@ public class SqlGlobStream implements GlobStream {
     }
 
     public Long getLong(int index) {
+        if (!isTemporal(index)) {
+            long value = getLongValue(index);
+            return isNull() ? null : value;
+        }
         try {
             Object object = resultSet.getObject(index);
             if (object == null) {
@@ -8,21 +8,26 @@ import org.globsframework.core.model.utils.DefaultFieldValues;
 import org.globsframework.core.streams.GlobStream;
 import org.globsframework.core.streams.accessors.Accessor;
 import org.globsframework.core.utils.NanoChrono;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
 import org.globsframework.json.GSonUtils;
 import org.globsframework.sql.SelectQuery;
 import org.globsframework.sql.SqlService;
 import org.globsframework.sql.accessors.SqlAccessor;
 import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.drivers.jdbc.impl.ConstraintShapeVisitor;
 import org.globsframework.sql.drivers.jdbc.impl.ValueConstraintVisitor;
 import org.globsframework.sql.drivers.jdbc.impl.WhereClauseConstraintVisitor;
 import org.globsframework.sql.drivers.jdbc.request.SqlQueryBuilder;
 import org.globsframework.sql.exceptions.SqlException;
+import org.globsframework.sql.utils.AbstractSqlService;
 import org.globsframework.sql.utils.StringPrettyWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -38,15 +43,31 @@ public class SqlSelectQuery implements SelectQuery {
     protected final Set<Field> distinct;
     protected final List<SqlOperation> sqlOperations;
     private GlobType fallBackType;
+    protected final JdbcConnection connection;
     private PreparedStatement preparedStatement;
     private final String sql;
+    private final int fetchSize;
+    private final int top;
+    private final int skip;
+    private final List<SqlQueryBuilder.Order> orders;
+    private final List<Field> groupBy;
     private boolean shouldInitAccessorWithMetadata;
-
-    public SqlSelectQuery(SqlService sqlService, Connection connection, String sql,
-                          Map<Field, SqlAccessor> fieldToAccessorHolder, GlobType fallBackType) {
+    private PartitionedScan partitionedScan;
+    private boolean fetchSizeApplied;
+    private boolean streaming;
+    private final List<InListTable> inListTables = new ArrayList<>();
+
+    public SqlSelectQuery(SqlService sqlService, JdbcConnection connection, String sql,
+                          Map<Field, SqlAccessor> fieldToAccessorHolder, int fetchSize, GlobType fallBackType) {
+        this.connection = connection;
+        this.fetchSize = fetchSize;
         this.sqlService = sqlService;
         this.fieldToAccessorHolder = new HashMap<>(fieldToAccessorHolder);
         this.fallBackType = fallBackType;
+        top = -1;
+        skip = -1;
+        orders = List.of();
+        groupBy = List.of();
         sqlOperations = List.of();
         distinct = Set.of();
         constraint = null;
@@ -67,11 +88,13 @@ public class SqlSelectQuery implements SelectQuery {
         shouldInitAccessorWithMetadata = true;
     }
 
-    public SqlSelectQuery(Connection connection, Constraint constraint,
+    public SqlSelectQuery(JdbcConnection connection, Constraint constraint,
                           Map<Field, SqlAccessor> fieldToAccessorHolder, SqlService sqlService,
                           BlobUpdater blobUpdater, boolean autoClose, List<SqlQueryBuilder.Order> orders,
-                          List<Field> groupBy, int top, int skip, Set<Field> distinct, List<SqlOperation> sqlOperations,
+                          List<Field> groupBy, int top, int skip, int fetchSize, Set<Field> distinct, List<SqlOperation> sqlOperations,
                           GlobType fallBackType) {
+        this.connection = connection;
+        this.fetchSize = fetchSize;
         this.constraint = constraint;
         this.blobUpdater = blobUpdater;
         this.autoClose = autoClose;
@@ -80,19 +103,37 @@ public class SqlSelectQuery implements SelectQuery {
         this.distinct = distinct;
         this.sqlOperations = sqlOperations;
         this.fallBackType = fallBackType;
-        sql = prepareSqlRequest(top, skip, orders, groupBy);
+        this.top = top;
+        this.skip = skip;
+        this.orders = List.copyOf(orders);
+        this.groupBy = List.copyOf(groupBy);
+        sql = getSqlRequest(orders, groupBy);
+        try {
+            for (InListTable inListTable : inListTables) {
+                connection.createInListTable(inListTable);
+            }
+            this.preparedStatement = prepareStatement(connection, sql);
+        } catch (RuntimeException e) {
+            // the query is not returned : it will not be closed
+            dropInListTables();
+            throw e;
+        }
+        shouldInitAccessorWithMetadata = false;
+    }
+
+    private static PreparedStatement prepareStatement(JdbcConnection connection, String sql) {
         NanoChrono nanoChrono = NanoChrono.start();
         try {
-            this.preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            PreparedStatement preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Preparing " + sql + " took " + nanoChrono.getElapsedTimeInMS() + " ms.");
             }
+            return preparedStatement;
         } catch (SQLException e) {
             String message = "for request " + sql;
             LOGGER.error(message);
             throw new SqlException(message, e);
         }
-        shouldInitAccessorWithMetadata = false;
     }
 
     private void initIndexFromMetadata(ResultSetMetaData metaData, Map<Field, SqlAccessor> fieldToAccessorHolder, SqlService sqlService) {
@@ -125,66 +166,119 @@ public class SqlSelectQuery implements SelectQuery {
         return new WhereClauseConstraintVisitor(where, sqlService, globTypes);
     }
 
-    private String prepareSqlRequest(int top, int skip, List<SqlQueryBuilder.Order> orders, List<Field> groupBy) {
-        int index = 0;
-        StringPrettyWriter prettyWriter = new StringPrettyWriter();
-        prettyWriter.append("select ");
+    // write the values in the sql (see getLiteralSql).
+    protected WhereClauseConstraintVisitor getLiteralWhereConstraintVisitor(StringPrettyWriter where) {
+        throw new UnexpectedApplicationState("Literal values are not supported by " + getClass().getName());
+    }
+
+    /*
+    The sql of the query with the values, limit and offset written in it (for the requests that do not accept
+    parameters) : the columns are in the order of the accessors index.
+     */
+    protected String getLiteralSql() {
+        return prepareSqlRequest(orders, groupBy, true);
+    }
 
+    private record TemplateKey(Class<?> queryClass, Set<Field> fields, List<Object> sqlOperations, List<Object> constraint,
+                               List<Object> orders, List<Field> groupBy, Set<Field> distinct, boolean limit, boolean offset) {
+    }
+
+    // the generated sql is shared by the queries with the same shape (see SqlTemplateCache).
+    private String getSqlRequest(List<SqlQueryBuilder.Order> orders, List<Field> groupBy) {
+        if (!(sqlService instanceof AbstractSqlService abstractSqlService)) {
+            return prepareSqlRequest(orders, groupBy, false);
+        }
+        SqlTemplateCache templateCache = abstractSqlService.getSqlTemplateCache();
+        List<Object> operationShapes = new ArrayList<>(sqlOperations.size());
+        for (SqlOperation sqlOperation : sqlOperations) {
+            operationShapes.add(sqlOperation.toSqlOpe(Field::getFullName));
+            if (sqlOperation instanceof TotalCountOperation totalCount) {
+                operationShapes.add(ConstraintShapeVisitor.shapeOf(totalCount.getConstraint(), connection.getLargeInListThreshold()));
+            }
+        }
+        List<Object> orderShapes = new ArrayList<>(orders.size() * 2);
+        for (SqlQueryBuilder.Order order : orders) {
+            orderShapes.add(order.field);
+            orderShapes.add(order.asc);
+        }
+        TemplateKey key = new TemplateKey(getClass(), Set.copyOf(fieldToAccessorHolder.keySet()), operationShapes,
+                ConstraintShapeVisitor.shapeOf(constraint, connection.getLargeInListThreshold()), orderShapes, List.copyOf(groupBy), Set.copyOf(distinct),
+                top != -1, skip != -1);
+        SqlTemplateCache.Template template = templateCache.get(key);
+        if (template != null) {
+            int index = 0;
+            for (SqlOperation sqlOperation : sqlOperations) {
+                sqlOperation.getAccessor().setIndex(++index);
+            }
+            for (Field field : template.columns()) {
+                fieldToAccessorHolder.get(field).setIndex(++index);
+            }
+            globTypes.addAll(template.globTypes());
+            return template.sql();
+        }
+        String sqlRequest = prepareSqlRequest(orders, groupBy, false);
+        if (!inListTables.isEmpty()) {
+            // the temporary tables are specific to this query
+            return sqlRequest;
+        }
+        templateCache.put(key, new SqlTemplateCache.Template(sqlRequest, List.copyOf(fieldToAccessorHolder.keySet()), Set.copyOf(globTypes)));
+        return sqlRequest;
+    }
+
+    private String prepareSqlRequest(List<SqlQueryBuilder.Order> orders, List<Field> groupBy, boolean literal) {
+        int index = 0;
+        List<String> columns = new ArrayList<>();
         for (SqlOperation sqlOperation : sqlOperations) {
             SqlAccessor sqlAccessor = sqlOperation.getAccessor();
             sqlAccessor.setIndex(++index);
-            prettyWriter.append(sqlOperation.toSqlOpe(new ToSqlName() {
-                        public String toSqlName(Field field) {
-                            GlobType globType = field.getGlobType();
-                            globTypes.add(globType);
-                            String tableName = sqlService.getTableName(globType, true);
-                            return tableName + "." + sqlService.getColumnName(field, true);
-                        }
-                    })
-            );
-            prettyWriter.append(", ");
-        }
-
-        for (Map.Entry<Field, SqlAccessor> fieldAndAccessor : fieldToAccessorHolder.entrySet()) {
-            fieldAndAccessor.getValue().setIndex(++index);
-            Field field = fieldAndAccessor.getKey();
-            GlobType globType = field.getGlobType();
-            globTypes.add(globType);
-            String tableName = sqlService.getTableName(globType, true);
-            if (distinct.contains(field)) {
-                prettyWriter.append(" DISTINCT ");
-            }
-            prettyWriter.append(tableName)
-                    .append(".")
-                    .append(sqlService.getColumnName(field, true))
-                    .append(", ");
+            // the total count sub query need the tables of the query : written once they are known
+            columns.add(sqlOperation instanceof TotalCountOperation ? null : sqlOperation.toSqlOpe(new ToSqlName() {
+                public String toSqlName(Field field) {
+                    globTypes.add(field.getGlobType());
+                    return sqlService.getQualifiedColumnName(field);
+                }
+            }));
         }
-        // remove ", "
-        prettyWriter.removeLast(2);
-        StringPrettyWriter where = null;
-        if (constraint != null) {
-            where = new StringPrettyWriter();
-            where.append(" WHERE ");
-            constraint.accept(getWhereConstraintVisitor(where));
+
+        Collection<Map.Entry<Field, SqlAccessor>> fieldAndAccessors = fieldToAccessorHolder.entrySet();
+        if (literal) {
+            // the columns are read at the index already given to the accessors
+            fieldAndAccessors = fieldAndAccessors.stream()
+                    .sorted(Comparator.comparingInt(entry -> entry.getValue().getIndex())).toList();
         }
+        for (Map.Entry<Field, SqlAccessor> fieldAndAccessor : fieldAndAccessors) {
+            if (!literal) {
+                fieldAndAccessor.getValue().setIndex(++index);
+            }
+            Field field = fieldAndAccessor.getKey();
+            globTypes.add(field.getGlobType());
+            columns.add((distinct.contains(field) ? " DISTINCT " : "") + sqlService.getQualifiedColumnName(field));
+        }
+        String where = getWhereClause(constraint, literal);
 
-        prettyWriter.append(" from ");
+        StringPrettyWriter from = new StringPrettyWriter();
         for (Iterator<GlobType> it = globTypes.iterator(); it.hasNext(); ) {
             GlobType globType = it.next();
-            prettyWriter.append(sqlService.getTableName(globType, true))
-                    .appendIf(", ", it.hasNext());
+            from.append(sqlService.getTableName(globType, true));
+            from.appendIf(", ", it.hasNext());
         }
-        if (where != null) {
-            prettyWriter.append(where.toString());
+        for (int i = 0; i < sqlOperations.size(); i++) {
+            if (sqlOperations.get(i) instanceof TotalCountOperation totalCount) {
+                columns.set(i, "(SELECT COUNT(*) FROM " + from + getWhereClause(totalCount.getConstraint(), literal) + ")");
+            }
         }
 
+        StringPrettyWriter prettyWriter = new StringPrettyWriter();
+        prettyWriter.append("select ")
+                .append(String.join(", ", columns))
+                .append(" from ")
+                .append(from.toString())
+                .append(where);
+
         if (!groupBy.isEmpty()) {
             prettyWriter.append(" GROUP BY ");
             for (Field field : groupBy) {
-                String tableName = sqlService.getTableName(field.getGlobType(), true);
-                prettyWriter.append(tableName)
-                        .append(".")
-                        .append(sqlService.getColumnName(field, true))
+                prettyWriter.append(sqlService.getQualifiedColumnName(field))
                         .append(", ");
             }
             prettyWriter.removeLast(2);
@@ -203,15 +297,36 @@ public class SqlSelectQuery implements SelectQuery {
             }
             prettyWriter.removeLast(2);
         }
+        // bound at execution
         if (top != -1) {
-            prettyWriter.append(" LIMIT " + top);
+            prettyWriter.append(literal ? " LIMIT " + top : " LIMIT ?");
         }
         if (skip != -1) {
-            prettyWriter.append(" OFFSET " + skip);
+            prettyWriter.append(literal ? " OFFSET " + skip : " OFFSET ?");
         }
         return prettyWriter.toString();
     }
 
+    // " WHERE ..." or an empty string ; with literal values, the large in lists are written in the sql too.
+    private String getWhereClause(Constraint constraint, boolean literal) {
+        if (constraint == null) {
+            return "";
+        }
+        StringPrettyWriter where = new StringPrettyWriter();
+        where.append(" WHERE ");
+        if (literal) {
+            constraint.accept(getLiteralWhereConstraintVisitor(where).setInListMode(connection.getInListMode()));
+            return where.toString();
+        }
+        constraint.accept(getWhereConstraintVisitor(where).setInListMode(connection.getInListMode())
+                .setLargeInList(connection.getLargeInListThreshold(), (field, values) -> {
+                    InListTable inListTable = connection.newInListTable(field, values);
+                    inListTables.add(inListTable);
+                    return inListTable.getReference();
+                }));
+        return where.toString();
+    }
+
     public Stream<?> executeAsStream() {
         GlobStream globStream = execute();
         final DbStreamIterator iterator = new DbStreamIterator(globStream);
@@ -225,7 +340,10 @@ public class SqlSelectQuery implements SelectQuery {
     }
 
     public Stream<Glob> executeAsGlobStream() {
-        GlobStream globStream = execute();
+        return toGlobStream(execute());
+    }
+
+    protected Stream<Glob> toGlobStream(GlobStream globStream) {
         final GlobIterator iterator = new GlobIterator(globStream, fallBackType);
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, 0), false)
                 .onClose(() -> {
@@ -236,6 +354,19 @@ public class SqlSelectQuery implements SelectQuery {
                 .onClose(this::resultSetClose);
     }
 
+    public Stream<Glob> executeAsPrefetchedGlobStream(int batchSize, int maxPendingBatches) {
+        SqlGlobStream globStream = execute();
+        final PrefetchGlobIterator iterator = new PrefetchGlobIterator(globStream, fallBackType, batchSize, maxPendingBatches);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, 0), false)
+                .onClose(iterator::close)
+                .onClose(() -> {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("read " + iterator.count + " elements.");
+                    }
+                })
+                .onClose(this::resultSetClose);
+    }
+
     public Stream<FieldValues> executeAsFieldValuesStream() {
         GlobStream globStream = execute();
         final FieldValuesIterator iterator = new FieldValuesIterator(globStream);
@@ -248,15 +379,42 @@ public class SqlSelectQuery implements SelectQuery {
                 .onClose(this::resultSetClose);
     }
 
-    public GlobStream execute() {
-        if (preparedStatement == null) {
-            String message = "Query closed " + sql;
-            LOGGER.error(message);
-            throw new SqlException(message);
+    public void setPartitionedScan(PartitionedScan partitionedScan) {
+        this.partitionedScan = partitionedScan;
+    }
+
+    public Stream<Glob> executeAsParallelGlobStream(int partitions) {
+        return getPartitionedScan().execute(getPartitionedScan().getDefaultRangeField(), partitions);
+    }
+
+    public Stream<Glob> executeAsParallelGlobStream(Field rangeField, int partitions) {
+        return getPartitionedScan().execute(rangeField, partitions);
+    }
+
+    private PartitionedScan getPartitionedScan() {
+        if (partitionedScan == null) {
+            throw new UnexpectedApplicationState("Query can not be partitioned (sql, aggregate, group by, distinct, top or skip) : " + sql);
         }
+        return partitionedScan;
+    }
+
+    public Flow.Publisher<Glob> executeAsPublisher(Executor executor) {
+        return new GlobPublisher(this, fallBackType, executor);
+    }
+
+    public SqlGlobStream execute() {
+        return execute(fetchSize);
+    }
+
+    // a fetch size given by the query builder take precedence.
+    SqlGlobStream execute(int fetchSizeHint) {
         try {
-            if (constraint != null) {
-                constraint.accept(new ValueConstraintVisitor(preparedStatement, blobUpdater));
+            bindParameters();
+            int appliedFetchSize = fetchSize != 0 ? fetchSize : fetchSizeHint;
+            connection.applyFetchSize(preparedStatement, appliedFetchSize);
+            fetchSizeApplied |= appliedFetchSize != 0;
+            if (appliedFetchSize != 0 && !streaming) {
+                streaming = connection.beginStreaming();
             }
             NanoChrono nanoChrono = NanoChrono.start();
             ResultSet resultSet = preparedStatement.executeQuery();
@@ -267,8 +425,7 @@ public class SqlSelectQuery implements SelectQuery {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Execution of " + sql + " took " + nanoChrono.getElapsedTimeInMS() + " ms.");
             }
-            return new SqlGlobStream(resultSet, fieldToAccessorHolder,
-                    sqlOperations.stream().map(SqlOperation::getAccessor).collect(Collectors.toList()), this);
+            return new SqlGlobStream(resultSet, fieldToAccessorHolder, getOperationAccessors(), this);
         } catch (SQLException e) {
             String message = "for request : " + sql;
             LOGGER.error(message, e);
@@ -276,6 +433,59 @@ public class SqlSelectQuery implements SelectQuery {
         }
     }
 
+    // bind the constraint values, limit and offset : return the prepared statement.
+    protected PreparedStatement bindParameters() throws SQLException {
+        if (preparedStatement == null) {
+            String message = "Query closed " + sql;
+            LOGGER.error(message);
+            throw new SqlException(message);
+        }
+        int parameterIndex = 0;
+        // the total count sub queries come first in the select list
+        for (SqlOperation sqlOperation : sqlOperations) {
+            if (sqlOperation instanceof TotalCountOperation totalCount) {
+                parameterIndex = bindConstraint(totalCount.getConstraint(), parameterIndex);
+            }
+        }
+        parameterIndex = bindConstraint(constraint, parameterIndex);
+        if (top != -1) {
+            preparedStatement.setInt(++parameterIndex, top);
+        }
+        if (skip != -1) {
+            preparedStatement.setInt(++parameterIndex, skip);
+        }
+        return preparedStatement;
+    }
+
+    private int bindConstraint(Constraint constraint, int parameterIndex) {
+        if (constraint == null) {
+            return parameterIndex;
+        }
+        return constraint.accept(new ValueConstraintVisitor(preparedStatement, parameterIndex, blobUpdater,
+                connection.getInListMode(), connection.getLargeInListThreshold())).getIndex();
+    }
+
+    // false if the accessors index are only known after the first execution (query given as sql).
+    protected boolean isAccessorIndexKnown() {
+        return !shouldInitAccessorWithMetadata;
+    }
+
+    protected PreparedStatement getPreparedStatement() {
+        return preparedStatement;
+    }
+
+    protected String getSql() {
+        return sql;
+    }
+
+    protected Map<Field, SqlAccessor> getFieldToAccessorHolder() {
+        return fieldToAccessorHolder;
+    }
+
+    protected List<SqlAccessor> getOperationAccessors() {
+        return sqlOperations.stream().map(SqlOperation::getAccessor).collect(Collectors.toList());
+    }
+
     public List<Glob> executeAsGlobs() {
         List<Glob> result = new ArrayList<>();
         try (Stream<Glob> globStream = executeAsGlobStream()) {
@@ -289,6 +499,7 @@ public class SqlSelectQuery implements SelectQuery {
     }
 
     public void resultSetClose() {
+        endStreaming();
         if (autoClose) {
             close();
         }
@@ -296,13 +507,35 @@ public class SqlSelectQuery implements SelectQuery {
 
     public void close() {
         if (preparedStatement != null) {
-            try {
-                preparedStatement.close();
-                preparedStatement = null;
-            } catch (SQLException e) {
-                String msg = "PreparedStatement close fail";
-                throw new SqlException(msg, e);
+            if (fetchSizeApplied) {
+                resetFetchSize();
             }
+            connection.release(preparedStatement);
+            preparedStatement = null;
+        }
+        endStreaming();
+        dropInListTables();
+    }
+
+    private void endStreaming() {
+        if (streaming) {
+            streaming = false;
+            connection.endStreaming();
+        }
+    }
+
+    private void dropInListTables() {
+        for (InListTable inListTable : inListTables) {
+            connection.dropInListTable(inListTable);
+        }
+    }
+
+    // the statement is cached : the next user expect the default fetch size.
+    private void resetFetchSize() {
+        try {
+            preparedStatement.setFetchSize(0);
+        } catch (SQLException e) {
+            LOGGER.warn("Fail to reset fetch size for " + sql, e);
         }
     }
 
@@ -346,6 +579,7 @@ public class SqlSelectQuery implements SelectQuery {
     private static class FieldValuesIterator implements Iterator<FieldValues> {
         private GlobStream globStream;
         private Acc[] accs;
+        private GlobMaterializer materializer;
         private FieldValues current;
         int count = 0;
 
@@ -353,18 +587,28 @@ public class SqlSelectQuery implements SelectQuery {
 
         }
 
+        // if all fields are from the same type, the values are copied in a Glob (a MutableGlob) of that type
+        // instead of a DefaultFieldValues.
         public FieldValuesIterator(GlobStream globStream) {
             this.globStream = globStream;
             accs = new Acc[globStream.getFields().size()];
+            Set<GlobType> types = new HashSet<>();
             int i = 0;
             for (Field field : globStream.getFields()) {
                 final Accessor accessor = globStream.getAccessor(field);
                 accs[i++] = new Acc(field, accessor);
+                types.add(field.getGlobType());
+            }
+            if (types.size() == 1) {
+                materializer = GlobMaterializer.create(types.iterator().next(), globStream.getFields(), globStream::getAccessor);
             }
             goToNext();
         }
 
         FieldValues create() {
+            if (materializer != null) {
+                return materializer.materialize();
+            }
             DefaultFieldValues defaultFieldValues = new DefaultFieldValues();
             for (Acc acc : accs) {
                 defaultFieldValues.setValue(acc.field, acc.accessor.getObjectValue());
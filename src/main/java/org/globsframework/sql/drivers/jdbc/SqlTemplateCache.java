@@ -0,0 +1,51 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Generated select sql by query shape (query class, selected fields, aggregates, constraint without values, orders,
+group by, distinct, with or without limit/offset) : values, limit and offset are bound at execution so pages of
+a same query share the sql (and the prepared statement).
+Once maxSize shapes are cached, new shapes are no more cached (IN with variable size, generated queries...).
+ */
+public class SqlTemplateCache {
+    public static final int DEFAULT_MAX_SIZE = 2048;
+    private final Map<Object, Template> templates = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    // columns : the selected fields in result set order (after the aggregates).
+    record Template(String sql, List<Field> columns, Set<GlobType> globTypes) {
+    }
+
+    public SqlTemplateCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public SqlTemplateCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    Template get(Object shape) {
+        return templates.get(shape);
+    }
+
+    void put(Object shape, Template template) {
+        if (templates.size() < maxSize) {
+            templates.put(shape, template);
+        }
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public void clear() {
+        templates.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+
+/*
+Table and column names of a GlobType computed once with the NamingMapping of a service (see AbstractSqlService).
+Column names are indexed by field index.
+ */
+public final class SqlTypeMetadata {
+    private final GlobType globType;
+    private final Field[] fields;
+    private final String tableName;
+    private final String escapedTableName;
+    private final String[] columnNames;
+    private final String[] escapedColumnNames;
+    private final String[] qualifiedColumnNames;
+
+    public SqlTypeMetadata(GlobType globType, NamingMapping namingMapping) {
+        this.globType = globType;
+        tableName = namingMapping.getTableName(globType, false);
+        escapedTableName = namingMapping.getTableName(globType, true);
+        fields = globType.getFields().clone();
+        columnNames = new String[fields.length];
+        escapedColumnNames = new String[fields.length];
+        qualifiedColumnNames = new String[fields.length];
+        for (Field field : fields) {
+            int index = field.getIndex();
+            columnNames[index] = namingMapping.getColumnName(field, false);
+            escapedColumnNames[index] = namingMapping.getColumnName(field, true);
+            qualifiedColumnNames[index] = escapedTableName + "." + escapedColumnNames[index];
+        }
+    }
+
+    public GlobType getGlobType() {
+        return globType;
+    }
+
+    public String getTableName(boolean escaped) {
+        return escaped ? escapedTableName : tableName;
+    }
+
+    // false if the field is not one of the fields of the type when the metadata was built.
+    public boolean contains(Field field) {
+        int index = field.getIndex();
+        return index < fields.length && fields[index] == field;
+    }
+
+    public String getColumnName(Field field, boolean escaped) {
+        return escaped ? escapedColumnNames[field.getIndex()] : columnNames[field.getIndex()];
+    }
+
+    // escapedTable.escapedColumn
+    public String getQualifiedColumnName(Field field) {
+        return qualifiedColumnNames[field.getIndex()];
+    }
+}
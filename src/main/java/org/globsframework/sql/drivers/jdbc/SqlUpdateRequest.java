@@ -6,7 +6,6 @@ import org.globsframework.core.model.Key;
 import org.globsframework.core.streams.accessors.Accessor;
 import org.globsframework.core.utils.NanoChrono;
 import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
-import org.globsframework.sql.SqlRequest;
 import org.globsframework.sql.SqlService;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.constraints.Constraints;
@@ -17,12 +16,11 @@ import org.globsframework.sql.utils.StringPrettyWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.*;
 
-public class SqlUpdateRequest implements SqlRequest {
+public class SqlUpdateRequest implements BatchSqlRequest {
     private final static Logger LOGGER = LoggerFactory.getLogger(SqlUpdateRequest.class);
     private GlobType globType;
     private Constraint constraint;
@@ -32,9 +30,11 @@ public class SqlUpdateRequest implements SqlRequest {
     private PreparedStatement preparedStatement;
     private SqlValueFieldVisitor sqlValueFieldVisitor;
     private String sqlRequest;
+    private JdbcConnection connection;
 
     public SqlUpdateRequest(GlobType globType, Constraint constraint, Map<Field, Accessor> values,
-                            Connection connection, SqlService sqlService, BlobUpdater blobUpdater) {
+                            JdbcConnection connection, SqlService sqlService, BlobUpdater blobUpdater) {
+        this.connection = connection;
         this.globType = globType;
         this.constraint = constraint;
         this.blobUpdater = blobUpdater;
@@ -53,13 +53,49 @@ public class SqlUpdateRequest implements SqlRequest {
         sqlValueFieldVisitor = new SqlValueFieldVisitor(preparedStatement, blobUpdater);
     }
 
-    public int run() {
+    private void bind() {
+        if (preparedStatement == null) {
+            throw new UnexpectedApplicationState("Request closed " + sqlRequest);
+        }
         int index = 0;
         for (Map.Entry<Field, Accessor> entry : values.entrySet()) {
             sqlValueFieldVisitor.setValue(entry.getValue().getObjectValue(), ++index);
             entry.getKey().safeAccept(sqlValueFieldVisitor);
         }
-        constraint.accept(new ValueConstraintVisitor(preparedStatement, index, blobUpdater));
+        constraint.accept(new ValueConstraintVisitor(preparedStatement, index, blobUpdater, connection.getInListMode()));
+    }
+
+    public void addBatch() {
+        bind();
+        try {
+            preparedStatement.addBatch();
+        } catch (SQLException e) {
+            String message = "For request : " + sqlRequest;
+            LOGGER.error(message, e);
+            throw new UnexpectedApplicationState(message, e);
+        }
+    }
+
+    public int[] executeBatch() {
+        if (preparedStatement == null) {
+            throw new UnexpectedApplicationState("Request closed " + sqlRequest);
+        }
+        try {
+            NanoChrono nanoChrono = NanoChrono.start();
+            final int[] counts = preparedStatement.executeBatch();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Batch update request " + sqlRequest + " of " + counts.length + " took " + nanoChrono.getElapsedTimeInMS() + " ms.");
+            }
+            return counts;
+        } catch (SQLException e) {
+            String message = "For request : " + sqlRequest;
+            LOGGER.error(message, e);
+            throw new UnexpectedApplicationState(message, e);
+        }
+    }
+
+    public int run() {
+        bind();
         try {
             NanoChrono nanoChrono = NanoChrono.start();
             final int count = preparedStatement.executeUpdate();
@@ -74,11 +110,11 @@ public class SqlUpdateRequest implements SqlRequest {
         }
     }
 
+    // the statement may be given to another request once released : it is released once.
     public void close() {
-        try {
-            preparedStatement.close();
-        } catch (SQLException e) {
-            throw new UnexpectedApplicationState("In close", e);
+        if (preparedStatement != null) {
+            connection.release(preparedStatement);
+            preparedStatement = null;
         }
     }
 
@@ -108,7 +144,7 @@ public class SqlUpdateRequest implements SqlRequest {
         prettyWriter.append(" WHERE ");
         Set<GlobType> globTypes = new HashSet<GlobType>();
         globTypes.add(globType);
-        constraint.accept(new WhereClauseConstraintVisitor(prettyWriter, sqlService, globTypes));
+        constraint.accept(new WhereClauseConstraintVisitor(prettyWriter, sqlService, globTypes).setInListMode(connection.getInListMode()));
         if (globTypes.size() > 1) {
             throw new UnexpectedApplicationState("Only the updated table is valide in query " + prettyWriter.toString());
         }
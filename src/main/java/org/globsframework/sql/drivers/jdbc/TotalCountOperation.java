@@ -0,0 +1,38 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.sql.accessors.SqlAccessor;
+import org.globsframework.sql.constraints.Constraint;
+
+import java.util.function.Supplier;
+
+/*
+SelectBuilder.totalCount : written by SqlSelectQuery as (SELECT COUNT(*) FROM <tables of the query> WHERE <constraint>).
+The constraint is the where clause of the query without the pageAfter seek predicate, so every page give the count of
+the full result. It is resolved once, when the query is prepared.
+ */
+public class TotalCountOperation implements SqlOperation {
+    private final SqlAccessor accessor;
+    private Supplier<Constraint> constraintSupplier;
+    private Constraint constraint;
+
+    public TotalCountOperation(SqlAccessor accessor, Supplier<Constraint> constraintSupplier) {
+        this.accessor = accessor;
+        this.constraintSupplier = constraintSupplier;
+    }
+
+    public SqlAccessor getAccessor() {
+        return accessor;
+    }
+
+    public Constraint getConstraint() {
+        if (constraintSupplier != null) {
+            constraint = constraintSupplier.get();
+            constraintSupplier = null;
+        }
+        return constraint;
+    }
+
+    public String toSqlOpe(ToSqlName toSqlName) {
+        return "COUNT(*)";
+    }
+}
@@ -0,0 +1,9 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.fields.Field;
+
+import java.util.List;
+
+// parameters : the field bound to each parameter of the sql, in order.
+public record UpsertRequest(String sql, List<Field> parameters) {
+}
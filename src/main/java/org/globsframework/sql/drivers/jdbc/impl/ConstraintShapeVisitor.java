@@ -0,0 +1,123 @@
+package org.globsframework.sql.drivers.jdbc.impl;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.constraints.ConstraintVisitor;
+import org.globsframework.sql.constraints.OperandVisitor;
+import org.globsframework.sql.constraints.impl.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// the structure of a constraint without its values : two constraints with the same shape give the same where clause.
+public class ConstraintShapeVisitor implements ConstraintVisitor, OperandVisitor {
+    private final List<Object> shape = new ArrayList<>();
+    private final int largeInListThreshold;
+
+    public ConstraintShapeVisitor(int largeInListThreshold) {
+        this.largeInListThreshold = largeInListThreshold;
+    }
+
+    // largeInListThreshold : see WhereClauseConstraintVisitor.setLargeInList
+    public static List<Object> shapeOf(Constraint constraint, int largeInListThreshold) {
+        if (constraint == null) {
+            return List.of();
+        }
+        return constraint.accept(new ConstraintShapeVisitor(largeInListThreshold)).shape;
+    }
+
+    public void visitEqual(EqualConstraint constraint) {
+        visitBinary(constraint, "=");
+    }
+
+    public void visitNotEqual(NotEqualConstraint constraint) {
+        visitBinary(constraint, "<>");
+    }
+
+    public void visitAnd(AndConstraint constraint) {
+        visitArray(constraint, "AND");
+    }
+
+    public void visitOr(OrConstraint constraint) {
+        visitArray(constraint, "OR");
+    }
+
+    public void visitLessThan(LessThanConstraint constraint) {
+        visitBinary(constraint, "<=");
+    }
+
+    public void visitBiggerThan(BiggerThanConstraint constraint) {
+        visitBinary(constraint, ">=");
+    }
+
+    public void visitStrictlyBiggerThan(StrictlyBiggerThanConstraint constraint) {
+        visitBinary(constraint, ">");
+    }
+
+    public void visitStrictlyLesserThan(StrictlyLesserThanConstraint constraint) {
+        visitBinary(constraint, "<");
+    }
+
+    public void visitIn(InConstraint constraint) {
+        shape.add("IN");
+        shape.add(constraint.getField());
+        shape.add(inListSize(constraint.getValues().size()));
+    }
+
+    public void visitIsOrNotNull(NullOrNotConstraint constraint) {
+        shape.add(constraint.checkNull() ? "IS NULL" : "IS NOT NULL");
+        shape.add(constraint.getField());
+    }
+
+    public void visitNotIn(NotInConstraint constraint) {
+        shape.add("NOT IN");
+        shape.add(constraint.getField());
+        shape.add(inListSize(constraint.getValues().size()));
+    }
+
+    private Object inListSize(int size) {
+        return size > largeInListThreshold ? "LARGE" : InListMode.paddedSize(size);
+    }
+
+    public void visitContains(Field field, String value, boolean contains, boolean startWith, boolean ignoreCase) {
+        shape.add("LIKE");
+        shape.add(field);
+        shape.add(contains);
+        shape.add(startWith);
+        shape.add(ignoreCase);
+    }
+
+    public void visitRegularExpression(Field field, String value, boolean caseInsensitive, boolean not) {
+        shape.add("REGEXP");
+        shape.add(field);
+        shape.add(caseInsensitive);
+        shape.add(not);
+    }
+
+    public void visitValueOperand(ValueOperand value) {
+        shape.add("?");
+    }
+
+    public void visitAccessorOperand(AccessorOperand accessorOperand) {
+        shape.add("?");
+    }
+
+    public void visitFieldOperand(Field field) {
+        shape.add(field);
+    }
+
+    private void visitBinary(BinaryOperandConstraint constraint, String operator) {
+        shape.add(operator);
+        constraint.getLeftOperand().visitOperand(this);
+        constraint.getRightOperand().visitOperand(this);
+    }
+
+    private void visitArray(ArrayConstraint constraint, String operator) {
+        Constraint[] constraints = constraint.getConstraints();
+        shape.add(operator);
+        shape.add(constraints.length);
+        for (Constraint child : constraints) {
+            child.accept(this);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.globsframework.sql.drivers.jdbc.impl;
+
+import org.globsframework.core.metamodel.annotations.IsDate;
+import org.globsframework.core.metamodel.annotations.IsDateTime;
+import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.sql.annotations.IsTimestamp;
+
+/*
+How the values of an IN / NOT IN are sent (see JdbcConnection.getInListMode) :
+the sql must not depend on the number of values to be reused by the statement and plan caches.
+ANY_ARRAY : field = ANY(?) with one array parameter (postgresql).
+UNNEST_ARRAY : field IN (UNNEST(?)) with one array parameter (hsqldb).
+PADDED : one parameter per value, the count is rounded to the next power of two by repeating the last value.
+Fields without array type (dates, booleans...) are always padded.
+ */
+public enum InListMode {
+    PADDED,
+    ANY_ARRAY,
+    UNNEST_ARRAY;
+
+    // type name for Connection.createArrayOf, null if the values are sent one by one.
+    public String getArrayType(Field field) {
+        if (this == PADDED || field.hasAnnotation(IsDate.KEY) || field.hasAnnotation(IsDateTime.KEY)
+                || field.hasAnnotation(IsTimestamp.KEY)) {
+            return null;
+        }
+        boolean postgresql = this == ANY_ARRAY;
+        if (field instanceof IntegerField) {
+            return postgresql ? "int4" : "INTEGER";
+        }
+        if (field instanceof LongField) {
+            return postgresql ? "int8" : "BIGINT";
+        }
+        if (field instanceof StringField) {
+            return postgresql ? "varchar" : "VARCHAR";
+        }
+        if (field instanceof DoubleField) {
+            return postgresql ? "float8" : "DOUBLE";
+        }
+        return null;
+    }
+
+    public static int paddedSize(int size) {
+        return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+    }
+}
@@ -7,22 +7,46 @@ import org.globsframework.sql.constraints.ConstraintVisitor;
 import org.globsframework.sql.constraints.OperandVisitor;
 import org.globsframework.sql.constraints.impl.*;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
+import org.globsframework.sql.exceptions.SqlException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
 
 public class ValueConstraintVisitor extends SqlValueFieldVisitor implements ConstraintVisitor, OperandVisitor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ValueConstraintVisitor.class);
+    private final PreparedStatement preparedStatement;
+    private final InListMode inListMode;
+    private final int largeInListThreshold;
     private int index = 0;
 
     public ValueConstraintVisitor(PreparedStatement preparedStatement, BlobUpdater blobUpdater) {
-        super(preparedStatement, blobUpdater);
+        this(preparedStatement, 0, blobUpdater, InListMode.PADDED);
     }
 
     public ValueConstraintVisitor(PreparedStatement preparedStatement, int index, BlobUpdater blobUpdater) {
+        this(preparedStatement, index, blobUpdater, InListMode.PADDED);
+    }
+
+    public ValueConstraintVisitor(PreparedStatement preparedStatement, int index, BlobUpdater blobUpdater, InListMode inListMode) {
+        this(preparedStatement, index, blobUpdater, inListMode, Integer.MAX_VALUE);
+    }
+
+    // largeInListThreshold : the one given to WhereClauseConstraintVisitor.setLargeInList.
+    public ValueConstraintVisitor(PreparedStatement preparedStatement, int index, BlobUpdater blobUpdater, InListMode inListMode,
+                                  int largeInListThreshold) {
         super(preparedStatement, blobUpdater);
+        this.preparedStatement = preparedStatement;
         this.index = index;
+        this.inListMode = inListMode;
+        this.largeInListThreshold = largeInListThreshold;
+    }
+
+    // index of the last bound parameter
+    public int getIndex() {
+        return index;
     }
 
     public void visitEqual(EqualConstraint constraint) {
@@ -71,21 +95,44 @@ public class ValueConstraintVisitor extends SqlValueFieldVisitor implements Cons
     }
 
     public void visitIn(InConstraint inConstraint) {
-        Field field = inConstraint.getField();
-        for (Object value : inConstraint.getValues()) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("at " + index + " value : " + value);
-            }
-            setValue(value, ++index);
-            field.safeAccept(this);
-        }
+        visitInList(inConstraint.getField(), inConstraint.getValues());
     }
 
     public void visitIsOrNotNull(NullOrNotConstraint constraint) {
     }
 
     public void visitNotIn(NotInConstraint constraint) {
+        visitInList(constraint.getField(), constraint.getValues());
+    }
 
+    // same parameters as WhereClauseConstraintVisitor.visitInList
+    private void visitInList(Field field, Collection<?> values) {
+        String arrayType = inListMode.getArrayType(field);
+        if (arrayType != null) {
+            try {
+                preparedStatement.setArray(++index, preparedStatement.getConnection().createArrayOf(arrayType, values.toArray()));
+            } catch (SQLException e) {
+                throw new SqlException("Fail to bind in list of " + field.getFullName(), e);
+            }
+            return;
+        }
+        if (values.size() > largeInListThreshold) {
+            // in a temporary table
+            return;
+        }
+        Object value = null;
+        for (Object inValue : values) {
+            value = inValue;
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("at " + index + " value : " + value);
+            }
+            setValue(value, ++index);
+            field.safeAccept(this);
+        }
+        for (int i = values.size(); i < InListMode.paddedSize(values.size()); i++) {
+            setValue(value, ++index);
+            field.safeAccept(this);
+        }
     }
 
     public void visitContains(Field field, String value, boolean contains, boolean startWith, boolean ignoreCase) {
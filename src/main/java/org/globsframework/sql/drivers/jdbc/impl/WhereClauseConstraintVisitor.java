@@ -9,12 +9,19 @@ import org.globsframework.sql.constraints.OperandVisitor;
 import org.globsframework.sql.constraints.impl.*;
 import org.globsframework.sql.utils.StringPrettyWriter;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiFunction;
 
 public class WhereClauseConstraintVisitor implements ConstraintVisitor, OperandVisitor {
     protected StringPrettyWriter prettyWriter;
     private SqlService sqlService;
     private Set<GlobType> globTypes;
+    private InListMode inListMode = InListMode.PADDED;
+    private int largeInListThreshold = Integer.MAX_VALUE;
+    private BiFunction<Field, Collection<?>, String> inListTables;
 
     public WhereClauseConstraintVisitor(StringPrettyWriter prettyWriter, SqlService sqlService,
                                         Set<GlobType> GlobeTypeSetToUpdate) {
@@ -23,6 +30,22 @@ public class WhereClauseConstraintVisitor implements ConstraintVisitor, OperandV
         this.globTypes = GlobeTypeSetToUpdate;
     }
 
+    // must be the mode of the ValueConstraintVisitor that bind the values.
+    public WhereClauseConstraintVisitor setInListMode(InListMode inListMode) {
+        this.inListMode = inListMode;
+        return this;
+    }
+
+    /*
+    IN lists bigger than threshold are a sub select : on unnest(?) with ANY_ARRAY, else on the table returned by
+    inListTables(field, values) (the values are not bound).
+    */
+    public WhereClauseConstraintVisitor setLargeInList(int threshold, BiFunction<Field, Collection<?>, String> inListTables) {
+        this.largeInListThreshold = threshold;
+        this.inListTables = inListTables;
+        return this;
+    }
+
     public void visitEqual(EqualConstraint constraint) {
         visitBinary(constraint, " = ");
     }
@@ -56,13 +79,7 @@ public class WhereClauseConstraintVisitor implements ConstraintVisitor, OperandV
     }
 
     public void visitIn(InConstraint inConstraint) {
-        visitFieldOperand(inConstraint.getField());
-        prettyWriter.append(" in (");
-        int length = inConstraint.getValues().size();
-        for (int i = 0; i < length; i++) {
-            prettyWriter.append(" ? ").appendIf(", ", i < length - 1);
-        }
-        prettyWriter.append(")");
+        visitInList(inConstraint.getField(), inConstraint.getValues(), false);
     }
 
     public void visitIsOrNotNull(NullOrNotConstraint constraint) {
@@ -75,15 +92,69 @@ public class WhereClauseConstraintVisitor implements ConstraintVisitor, OperandV
     }
 
     public void visitNotIn(NotInConstraint constraint) {
-        visitFieldOperand(constraint.getField());
-        prettyWriter.append(" NOT IN (");
-        int length = constraint.getValues().size();
+        visitInList(constraint.getField(), constraint.getValues(), true);
+    }
+
+    private void visitInList(Field field, Collection<?> values, boolean not) {
+        boolean large = values.size() > largeInListThreshold;
+        if (large && inListTables != null && inListMode.getArrayType(field) == null) {
+            visitInListTable(field, values, not);
+            return;
+        }
+        visitFieldOperand(field);
+        if (inListMode.getArrayType(field) != null) {
+            String arrayType = inListMode.getArrayType(field);
+            if (inListMode == InListMode.ANY_ARRAY && large) {
+                prettyWriter.append(not ? " NOT IN (SELECT unnest(" : " IN (SELECT unnest(");
+                appendArrayValue(field, values, arrayType);
+                prettyWriter.append("))");
+            } else if (inListMode == InListMode.ANY_ARRAY) {
+                prettyWriter.append(not ? " <> ALL(" : " = ANY(");
+                appendArrayValue(field, values, arrayType);
+                prettyWriter.append(")");
+            } else {
+                prettyWriter.append(not ? " NOT IN (UNNEST(" : " IN (UNNEST(");
+                appendArrayValue(field, values, arrayType);
+                prettyWriter.append("))");
+            }
+            return;
+        }
+        prettyWriter.append(not ? " NOT IN (" : " in (");
+        int length = InListMode.paddedSize(values.size());
+        // padded with the last value, as bound by ValueConstraintVisitor
+        Iterator<?> iterator = values.iterator();
+        Object value = null;
         for (int i = 0; i < length; i++) {
-            prettyWriter.append(" ? ").appendIf(", ", i < length - 1);
+            if (iterator.hasNext()) {
+                value = iterator.next();
+            }
+            appendValue(field, value);
+            prettyWriter.appendIf(", ", i < length - 1);
         }
         prettyWriter.append(")");
     }
 
+    /*
+    The table has a primary key on the values : a null value is not inserted, IN match the null rows with IS NULL
+    and NOT IN exclude them.
+     */
+    private void visitInListTable(Field field, Collection<?> values, boolean not) {
+        boolean withNull = values.stream().anyMatch(Objects::isNull);
+        String table = inListTables.apply(field, withNull ? values.stream().filter(Objects::nonNull).toList() : values);
+        if (withNull) {
+            prettyWriter.append("(");
+        }
+        visitFieldOperand(field);
+        prettyWriter.append(not ? " NOT IN (" : " IN (")
+                .append("SELECT ").append(sqlService.getColumnName(field, true))
+                .append(" FROM ").append(table).append(")");
+        if (withNull) {
+            prettyWriter.append(not ? " AND " : " OR ");
+            visitFieldOperand(field);
+            prettyWriter.append(not ? " IS NOT NULL)" : " IS NULL)");
+        }
+    }
+
     public void visitContains(Field field, String value, boolean contains, boolean startWith, boolean ignoreCase) {
         if (ignoreCase) {
             final String likeIgnoreCase = sqlService.getLikeIgnoreCase();
@@ -102,15 +173,21 @@ public class WhereClauseConstraintVisitor implements ConstraintVisitor, OperandV
         }
 
 //        prettyWriter.append(" LIKE '" + (startWith ? "" : "%") + value + "%'");
+        // the pattern bound by ValueConstraintVisitor
+        String pattern = contains ? "%" + value + "%" : startWith ? value + "%" : value;
         if (ignoreCase) {
             final String likeIgnoreCase = sqlService.getLikeIgnoreCase();
             if (likeIgnoreCase != null) {
-                prettyWriter.append(" ").append(likeIgnoreCase).append(" ? ");
+                prettyWriter.append(" ").append(likeIgnoreCase);
+                appendValue(field, pattern);
             } else {
-                prettyWriter.append(" LIKE lower( ? ) ");
+                prettyWriter.append(" LIKE lower(");
+                appendValue(field, pattern);
+                prettyWriter.append(") ");
             }
         } else {
-            prettyWriter.append(" LIKE ? ");
+            prettyWriter.append(" LIKE");
+            appendValue(field, pattern);
         }
     }
 
@@ -121,7 +198,7 @@ public class WhereClauseConstraintVisitor implements ConstraintVisitor, OperandV
     }
 
     public void visitValueOperand(ValueOperand value) {
-        prettyWriter.append(" ? ");
+        appendValue(value.getField(), value.getValue());
     }
 
     public void visitAccessorOperand(AccessorOperand accessorOperand) {
@@ -130,9 +207,17 @@ public class WhereClauseConstraintVisitor implements ConstraintVisitor, OperandV
 
     public void visitFieldOperand(Field field) {
         globTypes.add(field.getGlobType());
-        prettyWriter.append(sqlService.getTableName(field.getGlobType(), true))
-                .append(".")
-                .append(sqlService.getColumnName(field, true));
+        prettyWriter.append(sqlService.getQualifiedColumnName(field));
+    }
+
+    // a parameter by default : overridden to write the value in the sql.
+    protected void appendValue(Field field, Object value) {
+        prettyWriter.append(" ? ");
+    }
+
+    // the array parameter of an in list (see InListMode).
+    protected void appendArrayValue(Field field, Collection<?> values, String arrayType) {
+        prettyWriter.append("?");
     }
 
     private void visitBinary(BinaryOperandConstraint constraint, String operator) {
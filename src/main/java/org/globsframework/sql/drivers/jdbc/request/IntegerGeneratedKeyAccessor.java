@@ -10,9 +10,8 @@ import java.sql.SQLException;
 
 public class IntegerGeneratedKeyAccessor implements GeneratedKeyAccessor, IntegerAccessor {
     private final IntegerField field;
-    private ResultSet resultSet;
     protected Boolean hasGeneratedKey;
-    private int index;
+    private int value;
 
     public IntegerGeneratedKeyAccessor(IntegerField field) {
         this.field = field;
@@ -20,9 +19,9 @@ public class IntegerGeneratedKeyAccessor implements GeneratedKeyAccessor, Intege
 
     public void setResult(ResultSet resultSet, SqlService sqlService) {
         hasGeneratedKey = true;
-        this.resultSet = resultSet;
         try {
-            index = resultSet.findColumn(sqlService.getColumnName(field, true));
+            // read now : the result set is closed once the keys are read.
+            value = resultSet.getInt(resultSet.findColumn(sqlService.getColumnName(field, true)));
         } catch (SQLException e) {
             throw new SqlException(e);
         }
@@ -38,11 +37,7 @@ public class IntegerGeneratedKeyAccessor implements GeneratedKeyAccessor, Intege
 
     public int getValue(int valueIfNull) {
         if (hasGeneratedKey) {
-            try {
-                return resultSet.getInt(index);
-            } catch (SQLException e) {
-                throw new SqlException(e);
-            }
+            return value;
         } else {
             throw new SqlException("No generated key for request : ");
         }
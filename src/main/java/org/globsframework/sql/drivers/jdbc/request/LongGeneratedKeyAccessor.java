@@ -10,9 +10,8 @@ import java.sql.SQLException;
 
 public class LongGeneratedKeyAccessor implements GeneratedKeyAccessor, LongAccessor {
     private final LongField field;
-    private ResultSet resultSet;
     protected Boolean hasGeneratedKey;
-    private int index;
+    private long value;
 
     public LongGeneratedKeyAccessor(LongField field) {
         this.field = field;
@@ -20,9 +19,9 @@ public class LongGeneratedKeyAccessor implements GeneratedKeyAccessor, LongAcces
 
     public void setResult(ResultSet resultSet, SqlService sqlService) {
         hasGeneratedKey = true;
-        this.resultSet = resultSet;
         try {
-            index = resultSet.findColumn(sqlService.getColumnName(field, true));
+            // read now : the result set is closed once the keys are read.
+            value = resultSet.getLong(resultSet.findColumn(sqlService.getColumnName(field, true)));
         } catch (SQLException e) {
             throw new SqlException(e);
         }
@@ -38,11 +37,7 @@ public class LongGeneratedKeyAccessor implements GeneratedKeyAccessor, LongAcces
 
     public long getValue(long valueIfNull) {
         if (hasGeneratedKey) {
-            try {
-                return resultSet.getLong(index);
-            } catch (SQLException e) {
-                throw new SqlException(e);
-            }
+            return value;
         } else {
             throw new SqlException("No generated key for request : ");
         }
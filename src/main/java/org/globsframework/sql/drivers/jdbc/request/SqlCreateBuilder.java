@@ -12,10 +12,9 @@ import org.globsframework.sql.SqlRequest;
 import org.globsframework.sql.SqlService;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
 import org.globsframework.sql.drivers.jdbc.JdbcConnection;
+import org.globsframework.sql.drivers.jdbc.SqlBulkRequest;
 import org.globsframework.sql.drivers.jdbc.SqlCreateRequest;
-import org.globsframework.sql.exceptions.SqlException;
 
-import java.sql.Connection;
 import java.sql.ResultSet;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -25,18 +24,16 @@ import java.util.List;
 import java.util.Set;
 
 public class SqlCreateBuilder implements CreateBuilder {
-    private Connection connection;
-    private GlobType globType;
-    private SqlService sqlService;
-    private BlobUpdater blobUpdater;
-    private JdbcConnection jdbcConnection;
-    private List<Pair<Field, Accessor>> fields = new ArrayList<Pair<Field, Accessor>>();
+    protected GlobType globType;
+    protected SqlService sqlService;
+    protected BlobUpdater blobUpdater;
+    protected JdbcConnection jdbcConnection;
+    protected List<Pair<Field, Accessor>> fields = new ArrayList<Pair<Field, Accessor>>();
     private Set<Field> fieldSet = new HashSet<>();
     protected DelegateGeneratedKeyAccessor generatedKeyAccessor;
 
-    public SqlCreateBuilder(Connection connection, GlobType globType, SqlService sqlService,
+    public SqlCreateBuilder(GlobType globType, SqlService sqlService,
                             BlobUpdater blobUpdater, JdbcConnection jdbcConnection) {
-        this.connection = connection;
         this.globType = globType;
         this.sqlService = sqlService;
         this.blobUpdater = blobUpdater;
@@ -230,23 +227,19 @@ public class SqlCreateBuilder implements CreateBuilder {
     }
 
     public SqlRequest getRequest() {
-        return new SqlCreateRequest(fields, generatedKeyAccessor, connection, globType, sqlService, blobUpdater, jdbcConnection);
+        return createRequest();
     }
 
-    public BulkDbRequest getBulkRequest() {
-        SqlRequest request = getRequest();
-        return new BulkDbRequest() {
-            public void flush() {
-            }
+    protected SqlCreateRequest createRequest() {
+        return new SqlCreateRequest(fields, generatedKeyAccessor, globType, sqlService, blobUpdater, jdbcConnection);
+    }
 
-            public int run() throws SqlException {
-                return request.run();
-            }
+    public BulkDbRequest getBulkRequest() {
+        return getBulkRequest(BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
 
-            public void close() {
-                request.close();
-            }
-        };
+    public BulkDbRequest getBulkRequest(int batchSize) {
+        return new SqlBulkRequest(createRequest(), batchSize);
     }
 
     private static class DelegateGeneratedKeyAccessor implements GeneratedKeyAccessor {
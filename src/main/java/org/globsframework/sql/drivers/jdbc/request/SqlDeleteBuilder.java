@@ -6,11 +6,11 @@ import org.globsframework.sql.SqlRequest;
 import org.globsframework.sql.SqlService;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
+import org.globsframework.sql.drivers.jdbc.JdbcConnection;
 import org.globsframework.sql.drivers.jdbc.impl.ValueConstraintVisitor;
 import org.globsframework.sql.drivers.jdbc.impl.WhereClauseConstraintVisitor;
 import org.globsframework.sql.utils.StringPrettyWriter;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.HashSet;
@@ -21,9 +21,11 @@ public class SqlDeleteBuilder implements SqlRequest {
     private BlobUpdater blobUpdater;
     private String sqlStatement;
     private PreparedStatement preparedStatement;
+    private JdbcConnection connection;
 
-    public SqlDeleteBuilder(GlobType globType, Constraint constraint, Connection connection,
+    public SqlDeleteBuilder(GlobType globType, Constraint constraint, JdbcConnection connection,
                             SqlService sqlService, BlobUpdater blobUpdater) {
+        this.connection = connection;
         this.constraint = constraint;
         this.blobUpdater = blobUpdater;
         StringPrettyWriter prettyWriter = new StringPrettyWriter();
@@ -34,7 +36,7 @@ public class SqlDeleteBuilder implements SqlRequest {
         StringPrettyWriter whereWriter = null;
         if (constraint != null) {
             whereWriter = new StringPrettyWriter();
-            constraint.accept(new WhereClauseConstraintVisitor(whereWriter, sqlService, tables));
+            constraint.accept(new WhereClauseConstraintVisitor(whereWriter, sqlService, tables).setInListMode(connection.getInListMode()));
             if (tables.size() != 1) {
                 throw new UnexpectedApplicationState("Only one from clause allowed : jointures are not possible : " +
                         whereWriter.toString());
@@ -59,8 +61,11 @@ public class SqlDeleteBuilder implements SqlRequest {
     }
 
     public int run() {
+        if (preparedStatement == null) {
+            throw new UnexpectedApplicationState("Request closed " + sqlStatement);
+        }
         if (constraint != null) {
-            constraint.accept(new ValueConstraintVisitor(preparedStatement, blobUpdater));
+            constraint.accept(new ValueConstraintVisitor(preparedStatement, 0, blobUpdater, connection.getInListMode()));
         }
         try {
             return preparedStatement.executeUpdate();
@@ -69,11 +74,11 @@ public class SqlDeleteBuilder implements SqlRequest {
         }
     }
 
+    // the statement may be given to another request once released : it is released once.
     public void close() {
-        try {
-            preparedStatement.close();
-        } catch (SQLException e) {
-            throw new UnexpectedApplicationState("In close", e);
+        if (preparedStatement != null) {
+            connection.release(preparedStatement);
+            preparedStatement = null;
         }
     }
 }
@@ -8,9 +8,11 @@ import org.globsframework.core.metamodel.GlobTypeResolver;
 import org.globsframework.core.metamodel.annotations.IsDate;
 import org.globsframework.core.metamodel.annotations.IsDateTime;
 import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.core.model.FieldValues;
 import org.globsframework.core.model.Glob;
 import org.globsframework.core.streams.accessors.*;
 import org.globsframework.core.utils.Ref;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
 import org.globsframework.json.GSonUtils;
 import org.globsframework.sql.SelectBuilder;
 import org.globsframework.sql.SelectQuery;
@@ -18,16 +20,16 @@ import org.globsframework.sql.SqlService;
 import org.globsframework.sql.accessors.*;
 import org.globsframework.sql.annotations.IsTimestamp;
 import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.constraints.Constraints;
 import org.globsframework.sql.drivers.jdbc.*;
 
 import java.io.IOException;
 import java.io.StringReader;
-import java.sql.Connection;
 import java.util.*;
 
 public class SqlQueryBuilder implements SelectBuilder {
     protected final List<Order> orders = new ArrayList<>();
-    protected Connection connection;
+    protected JdbcConnection connection;
     private GlobType globType;
     protected Constraint constraint;
     protected SqlService sqlService;
@@ -36,12 +38,15 @@ public class SqlQueryBuilder implements SelectBuilder {
     protected Map<Field, SqlAccessor> fieldToAccessorHolder = new HashMap<Field, SqlAccessor>();
     protected int top = -1;
     protected int skip = -1;
+    protected int fetchSize = 0;
     protected Set<Field> distinct = new HashSet<>();
     protected List<SqlOperation> sqlOperations = new ArrayList<>();
     protected List<Field> groupBy = new ArrayList<>();
     protected GlobType fallBackType = null;
+    private boolean pagedAfter;
+    private Constraint constraintBeforePageAfter;
 
-    public SqlQueryBuilder(Connection connection, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater) {
+    public SqlQueryBuilder(JdbcConnection connection, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater) {
         this.connection = connection;
         this.globType = globType;
         this.constraint = constraint;
@@ -51,16 +56,25 @@ public class SqlQueryBuilder implements SelectBuilder {
 
     public SelectQuery getQuery() {
         try {
-            return new SqlSelectQuery(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose,
-                    orders, groupBy, top, skip, distinct, sqlOperations, fallBackType == null ? globType : fallBackType);
+            return withPartitionedScan(new SqlSelectQuery(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose,
+                    orders, groupBy, top, skip, fetchSize, distinct, sqlOperations, fallBackType == null ? globType : fallBackType));
         } finally {
             fieldToAccessorHolder.clear();
         }
     }
 
+    // a plain select can be executed on ranges in parallel (see SelectQuery.executeAsParallelGlobStream)
+    protected SqlSelectQuery withPartitionedScan(SqlSelectQuery query) {
+        if (sqlOperations.isEmpty() && groupBy.isEmpty() && distinct.isEmpty() && top == -1 && skip == -1) {
+            query.setPartitionedScan(new PartitionedScan(sqlService, globType, constraint,
+                    new ArrayList<>(fieldToAccessorHolder.keySet()), fetchSize));
+        }
+        return query;
+    }
+
     public SelectQuery getQuery(String sql) {
         try {
-            return new SqlSelectQuery(sqlService, connection, sql, fieldToAccessorHolder, fallBackType == null ? globType : fallBackType);
+            return new SqlSelectQuery(sqlService, connection, sql, fieldToAccessorHolder, fetchSize, fallBackType == null ? globType : fallBackType);
         } finally {
             fieldToAccessorHolder.clear();
         }
@@ -168,6 +182,15 @@ public class SqlQueryBuilder implements SelectBuilder {
         return accessor;
     }
 
+    public LongAccessor totalCount() {
+        if (fallBackType == null) {
+            fallBackType = globType;
+        }
+        LongSqlAccessor accessor = new LongSqlAccessor();
+        sqlOperations.add(new TotalCountOperation(accessor, () -> pagedAfter ? constraintBeforePageAfter : constraint));
+        return accessor;
+    }
+
     public IntegerAccessor min(IntegerField field) {
         return singleOp(field, "MIN");
     }
@@ -276,6 +299,45 @@ public class SqlQueryBuilder implements SelectBuilder {
         return this;
     }
 
+    public SelectBuilder fetchSize(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("fetch size must be positive, got " + n);
+        }
+        fetchSize = n;
+        return this;
+    }
+
+    // (a > ? ) OR (a = ? AND b > ?) OR ... for the fields of the order by.
+    public SelectBuilder pageAfter(FieldValues lastRow) {
+        if (orders.isEmpty()) {
+            throw new UnexpectedApplicationState("pageAfter need an order (orderAsc/orderDesc must be called before)");
+        }
+        for (Field keyField : globType.getKeyFields()) {
+            if (orders.stream().noneMatch(order -> order.field == keyField)) {
+                orders.add(new Order(keyField, true));
+            }
+        }
+        if (!pagedAfter) {
+            pagedAfter = true;
+            constraintBeforePageAfter = constraint;
+        }
+        List<Constraint> previousEquals = new ArrayList<>();
+        Constraint[] seeks = new Constraint[orders.size()];
+        int i = 0;
+        for (Order order : orders) {
+            Object value = lastRow.getValue(order.field);
+            if (value == null) {
+                throw new UnexpectedApplicationState("pageAfter do not support null value for " + order.field.getFullName());
+            }
+            List<Constraint> seek = new ArrayList<>(previousEquals);
+            seek.add(order.asc ? Constraints.strictlyGreater(order.field, value) : Constraints.strictlyLessUnchecked(order.field, value));
+            seeks[i++] = Constraints.and(seek.toArray(Constraint[]::new));
+            previousEquals.add(Constraints.equalsObject(order.field, value));
+        }
+        constraint = Constraints.and(constraint, Constraints.or(seeks));
+        return this;
+    }
+
     public SelectBuilder distinct(Collection<Field> fields) {
         this.distinct.addAll(fields);
         return this;
@@ -420,13 +482,15 @@ public class SqlQueryBuilder implements SelectBuilder {
             accessor.setIndex(index);
         }
 
+        private Glob glob;
+
         public Glob getGlob() {
-            String value = accessor.getString();
-            if (value != null) {
-                return GSonUtils.decode(new StringReader(value), typeResolver);
-            } else {
-                return null;
+            if (!isCached()) {
+                String value = accessor.getString();
+                glob = value != null ? GSonUtils.decode(new StringReader(value), typeResolver) : null;
+                setCached();
             }
+            return glob;
         }
 
         public Object getObjectValue() {
@@ -625,13 +689,15 @@ public class SqlQueryBuilder implements SelectBuilder {
             accessor.setIndex(index);
         }
 
+        private Glob[] globs;
+
         public Glob[] getGlobs() {
-            String value = accessor.getString();
-            if (value != null) {
-                return GSonUtils.decodeArray(new StringReader(value), typeResolver);
-            } else {
-                return null;
+            if (!isCached()) {
+                String value = accessor.getString();
+                globs = value != null ? GSonUtils.decodeArray(new StringReader(value), typeResolver) : null;
+                setCached();
             }
+            return globs;
         }
 
         public Object getObjectValue() {
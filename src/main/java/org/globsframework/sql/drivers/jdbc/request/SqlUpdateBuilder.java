@@ -11,10 +11,11 @@ import org.globsframework.sql.SqlService;
 import org.globsframework.sql.UpdateBuilder;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
+import org.globsframework.sql.drivers.jdbc.JdbcConnection;
+import org.globsframework.sql.drivers.jdbc.SqlBulkRequest;
 import org.globsframework.sql.drivers.jdbc.SqlUpdateRequest;
 import org.globsframework.sql.exceptions.SqlException;
 
-import java.sql.Connection;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
@@ -22,13 +23,13 @@ import java.util.Map;
 
 public class SqlUpdateBuilder implements UpdateBuilder {
     private Map<Field, Accessor> values = new HashMap<Field, Accessor>();
-    private Connection connection;
+    private JdbcConnection connection;
     private GlobType globType;
     private SqlService sqlService;
     private Constraint constraint;
     private BlobUpdater blobUpdater;
 
-    public SqlUpdateBuilder(Connection connection, GlobType globType, SqlService sqlService,
+    public SqlUpdateBuilder(JdbcConnection connection, GlobType globType, SqlService sqlService,
                             Constraint constraint, BlobUpdater blobUpdater) {
         this.blobUpdater = blobUpdater;
         this.connection = connection;
@@ -217,18 +218,31 @@ public class SqlUpdateBuilder implements UpdateBuilder {
     }
 
     public BulkDbRequest getBulkRequest() {
-        SqlRequest request = getRequest();
-        return new BulkDbRequest() {
-            public void flush() {
-            }
+        return getBulkRequest(BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
 
-            public int run() throws SqlException {
-                return request.run();
-            }
+    public BulkDbRequest getBulkRequest(int batchSize) {
+        try {
+            if (this.values.isEmpty()) {
+                return new BulkDbRequest() {
+                    public void flush() {
+                    }
+
+                    public int[] getLastUpdateCounts() {
+                        return new int[0];
+                    }
+
+                    public int run() throws SqlException {
+                        return 0;
+                    }
 
-            public void close() {
-                request.close();
+                    public void close() {
+                    }
+                };
             }
-        };
+            return new SqlBulkRequest(new SqlUpdateRequest(globType, constraint, values, connection, sqlService, blobUpdater), batchSize);
+        } finally {
+            values.clear();
+        }
     }
 }
@@ -0,0 +1,69 @@
+package org.globsframework.sql.drivers.jdbc.request;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.streams.accessors.Accessor;
+import org.globsframework.core.utils.collections.Pair;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.SqlService;
+import org.globsframework.sql.UpsertBuilder;
+import org.globsframework.sql.drivers.jdbc.BlobUpdater;
+import org.globsframework.sql.drivers.jdbc.JdbcConnection;
+import org.globsframework.sql.drivers.jdbc.SqlCreateRequest;
+import org.globsframework.sql.drivers.jdbc.UpsertRequest;
+
+import java.util.*;
+
+public class SqlUpsertBuilder extends SqlCreateBuilder implements UpsertBuilder {
+    private final List<Field> conflictKeys;
+    private final Map<Field, UpdatePolicy> policies = new HashMap<>();
+
+    public SqlUpsertBuilder(GlobType globType, SqlService sqlService, BlobUpdater blobUpdater,
+                            JdbcConnection jdbcConnection, Field... conflictKeys) {
+        super(globType, sqlService, blobUpdater, jdbcConnection);
+        this.conflictKeys = List.of(conflictKeys.length == 0 ? globType.getKeyFields() : conflictKeys);
+    }
+
+    public UpsertBuilder onConflict(Field field, UpdatePolicy policy) {
+        if (conflictKeys.contains(field)) {
+            throw new UnexpectedApplicationState("Conflict key " + field.getFullName() + " is never updated");
+        }
+        policies.put(field, policy);
+        return this;
+    }
+
+    public UpsertBuilder setObject(Field field, Accessor accessor) {
+        super.setObject(field, accessor);
+        return this;
+    }
+
+    public UpsertBuilder setObject(Field field, Object value) {
+        super.setObject(field, value);
+        return this;
+    }
+
+    protected SqlCreateRequest createRequest() {
+        Map<Field, Accessor> accessors = new HashMap<>();
+        for (Pair<Field, Accessor> pair : fields) {
+            accessors.put(pair.getFirst(), pair.getSecond());
+        }
+        for (Field conflictKey : conflictKeys) {
+            if (!accessors.containsKey(conflictKey)) {
+                throw new UnexpectedApplicationState("Conflict key " + conflictKey.getFullName() + " must be set");
+            }
+        }
+        Map<Field, UpdatePolicy> updates = new LinkedHashMap<>();
+        for (Pair<Field, Accessor> pair : fields) {
+            if (!conflictKeys.contains(pair.getFirst())) {
+                updates.put(pair.getFirst(), policies.getOrDefault(pair.getFirst(), UpdatePolicy.OVERWRITE));
+            }
+        }
+        UpsertRequest upsertRequest = jdbcConnection.getUpsertRequest(globType, conflictKeys, updates);
+        List<Pair<Field, Accessor>> parameters = new ArrayList<>();
+        for (Field field : upsertRequest.parameters()) {
+            parameters.add(new Pair<>(field, accessors.get(field)));
+        }
+        return new SqlCreateRequest(upsertRequest.sql(), parameters, generatedKeyAccessor, globType, sqlService,
+                blobUpdater, jdbcConnection);
+    }
+}
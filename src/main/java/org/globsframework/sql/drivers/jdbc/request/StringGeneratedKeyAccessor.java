@@ -10,9 +10,8 @@ import java.sql.SQLException;
 
 public class StringGeneratedKeyAccessor implements GeneratedKeyAccessor, StringAccessor {
     private final StringField field;
-    private ResultSet resultSet;
     protected Boolean hasGeneratedKey;
-    private int index;
+    private String value;
 
     public StringGeneratedKeyAccessor(StringField field) {
         this.field = field;
@@ -20,9 +19,9 @@ public class StringGeneratedKeyAccessor implements GeneratedKeyAccessor, StringA
 
     public void setResult(ResultSet resultSet, SqlService sqlService) {
         hasGeneratedKey = true;
-        this.resultSet = resultSet;
         try {
-            index = resultSet.findColumn(sqlService.getColumnName(field, true));
+            // read now : the result set is closed once the keys are read.
+            value = resultSet.getString(resultSet.findColumn(sqlService.getColumnName(field, true)));
         } catch (SQLException e) {
             throw new SqlException(e);
         }
@@ -35,11 +34,7 @@ public class StringGeneratedKeyAccessor implements GeneratedKeyAccessor, StringA
 
     public String getString() {
         if (hasGeneratedKey) {
-            try {
-                return resultSet.getString(index);
-            } catch (SQLException e) {
-                throw new SqlException(e);
-            }
+            return value;
         } else {
             throw new SqlException("No generated key.");
         }
@@ -1,22 +1,37 @@
 package org.globsframework.sql.drivers.mysql;
 
 import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.sql.BulkDbRequest;
 import org.globsframework.sql.SelectBuilder;
 import org.globsframework.sql.SqlService;
+import org.globsframework.sql.UpsertBuilder;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
 import org.globsframework.sql.drivers.jdbc.JdbcConnection;
 import org.globsframework.sql.drivers.jdbc.JdbcSqlService;
+import org.globsframework.sql.drivers.jdbc.SqlGeneratedKeysInsert;
+import org.globsframework.sql.drivers.jdbc.UpsertRequest;
 import org.globsframework.sql.drivers.jdbc.impl.SqlFieldCreationVisitor;
 import org.globsframework.sql.drivers.mysql.request.MysqlQueryBuilder;
 import org.globsframework.sql.utils.StringPrettyWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
 public class MysqlConnection extends JdbcConnection {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MysqlConnection.class);
+    private Boolean useCursorFetch;
+
     public MysqlConnection(boolean autoCommit, Connection connection, SqlService sqlService) {
         super(autoCommit, connection, sqlService, new BlobUpdater() {
             public void setBlob(PreparedStatement preparedStatement, int index, byte[] bytes) throws SQLException {
@@ -46,13 +61,88 @@ public class MysqlConnection extends JdbcConnection {
         return e.getErrorCode() == 1099 && "HY000".equals(e.getSQLState());
     }
 
+    /*
+    Without useCursorFetch=true in the url, the driver stream the result only with a fetch size of Integer.MIN_VALUE
+    (row by row) ; no other request can be executed on the connection until the stream is closed.
+     */
+    public void applyFetchSize(PreparedStatement preparedStatement, int fetchSize) throws SQLException {
+        if (fetchSize > 0 && !useCursorFetch(preparedStatement)) {
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            super.applyFetchSize(preparedStatement, fetchSize);
+        }
+    }
+
+    private boolean useCursorFetch(PreparedStatement preparedStatement) throws SQLException {
+        if (useCursorFetch == null) {
+            String url = preparedStatement.getConnection().getMetaData().getURL();
+            useCursorFetch = url != null && url.toLowerCase().contains("usecursorfetch=true");
+            LOGGER.debug("useCursorFetch is " + useCursorFetch);
+        }
+        return useCursorFetch;
+    }
+
+    // the driver return the generated keys of every row of a batch.
+    protected SqlGeneratedKeysInsert getGeneratedKeysInsert(GlobType globType, List<Field> fields, List<Field> generated) {
+        if (generated.size() != 1) {
+            return null;
+        }
+        String sql = getInsertRequest(globType, "", fields).toString();
+        return new SqlGeneratedKeysInsert(this, fields, generated, rowCount -> sql, true, BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
+
+    // a join on the rows of a UNION ALL (a VALUES table needs mysql 8.0.19).
+    protected String getRowsBulkUpdateRequest(GlobType globType, List<Field> keyFields, List<Field> setFields, int rowCount) {
+        List<Field> columns = new ArrayList<>(keyFields);
+        columns.addAll(setFields);
+        StringJoiner firstRow = new StringJoiner(", ", "SELECT ", "");
+        for (Field field : columns) {
+            firstRow.add("? AS " + sqlService.getColumnName(field, true));
+        }
+        StringPrettyWriter writer = new StringPrettyWriter();
+        writer.append("UPDATE ").append(sqlService.getTableName(globType, true)).append(" AS T JOIN (")
+                .append(firstRow.toString());
+        String row = " UNION ALL SELECT " + String.join(", ", Collections.nCopies(columns.size(), "?"));
+        for (int i = 1; i < rowCount; i++) {
+            writer.append(row);
+        }
+        writer.append(") AS V ON ").append(getKeysJoin(keyFields))
+                .append(" SET ").append(getValuesAssignment(setFields, "T."));
+        return writer.toString();
+    }
+
+    /*
+    ON DUPLICATE KEY apply on any unique key of the table, not only on the conflict keys.
+    VALUES(col) is used rather than a row alias, which is only known since mysql 8.0.19.
+     */
+    public UpsertRequest getUpsertRequest(GlobType globType, List<Field> conflictKeys, Map<Field, UpsertBuilder.UpdatePolicy> updates) {
+        List<Field> inserted = new ArrayList<>(conflictKeys);
+        inserted.addAll(updates.keySet());
+        StringPrettyWriter writer = getInsertRequest(globType, "", inserted);
+        writer.append(" ON DUPLICATE KEY UPDATE ");
+        String separator = "";
+        for (Map.Entry<Field, UpsertBuilder.UpdatePolicy> entry : updates.entrySet()) {
+            if (entry.getValue() != UpsertBuilder.UpdatePolicy.KEEP) {
+                String columnName = sqlService.getColumnName(entry.getKey(), true);
+                writer.append(separator).append(columnName).append(" = ")
+                        .append(getUpsertValue(entry.getValue(), columnName, "VALUES(" + columnName + ")"));
+                separator = ", ";
+            }
+        }
+        if (separator.isEmpty()) {
+            String columnName = sqlService.getColumnName(conflictKeys.get(0), true);
+            writer.append(columnName).append(" = ").append(columnName);
+        }
+        return new UpsertRequest(writer.toString(), inserted);
+    }
+
     public SelectBuilder getQueryBuilder(GlobType globType) {
         checkConnectionIsNotClosed();
-        return new MysqlQueryBuilder(getConnection(), globType, null, sqlService, blobUpdater);
+        return new MysqlQueryBuilder(this, globType, null, sqlService, blobUpdater);
     }
 
     public SelectBuilder getQueryBuilder(GlobType globType, Constraint constraint) {
         checkConnectionIsNotClosed();
-        return new MysqlQueryBuilder(getConnection(), globType, constraint, sqlService, blobUpdater);
+        return new MysqlQueryBuilder(this, globType, constraint, sqlService, blobUpdater);
     }
 }
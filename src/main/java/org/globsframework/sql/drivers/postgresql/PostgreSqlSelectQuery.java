@@ -2,29 +2,78 @@ package org.globsframework.sql.drivers.postgresql;
 
 import org.globsframework.core.metamodel.GlobType;
 import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
 import org.globsframework.sql.SqlService;
 import org.globsframework.sql.accessors.SqlAccessor;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
+import org.globsframework.sql.drivers.jdbc.JdbcConnection;
 import org.globsframework.sql.drivers.jdbc.SqlOperation;
 import org.globsframework.sql.drivers.jdbc.SqlSelectQuery;
 import org.globsframework.sql.drivers.jdbc.impl.WhereClauseConstraintVisitor;
 import org.globsframework.sql.drivers.jdbc.request.SqlQueryBuilder;
+import org.globsframework.sql.drivers.postgresql.impl.PgCopyGlobStream;
+import org.globsframework.sql.drivers.postgresql.impl.PgCopyRowReader;
+import org.globsframework.sql.drivers.postgresql.impl.PostgreLiteralWhereClauseConstraintVisitor;
 import org.globsframework.sql.drivers.postgresql.impl.PostgreWhereClauseConstraintVisitor;
+import org.globsframework.sql.exceptions.SqlException;
 import org.globsframework.sql.utils.StringPrettyWriter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyOut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public class PostgreSqlSelectQuery extends SqlSelectQuery {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgreSqlSelectQuery.class);
 
-    public PostgreSqlSelectQuery(Connection connection, Constraint constraint, Map<Field, SqlAccessor> fieldToAccessorHolder, SqlService sqlService, BlobUpdater blobUpdater, boolean autoClose, List<SqlQueryBuilder.Order> orders, List<Field> groupBy, int top, int skip, Set<Field> distinct, List<SqlOperation> sqlOperations, GlobType fallBackType) {
-        super(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose, orders, groupBy, top, skip, distinct, sqlOperations, fallBackType);
+    public PostgreSqlSelectQuery(JdbcConnection connection, Constraint constraint, Map<Field, SqlAccessor> fieldToAccessorHolder, SqlService sqlService, BlobUpdater blobUpdater, boolean autoClose, List<SqlQueryBuilder.Order> orders, List<Field> groupBy, int top, int skip, int fetchSize, Set<Field> distinct, List<SqlOperation> sqlOperations, GlobType fallBackType) {
+        super(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose, orders, groupBy, top, skip, fetchSize, distinct, sqlOperations, fallBackType);
+    }
+
+    /*
+    COPY do not accept parameters : the values, limit and offset are written in the copied select (see
+    PostgreLiteralWhereClauseConstraintVisitor). The selects with a column type not decoded by PgCopyRowReader fall
+    back to executeAsGlobStream.
+     */
+    public Stream<Glob> executeAsCopyStream() {
+        if (!isAccessorIndexKnown()) {
+            return executeAsGlobStream();
+        }
+        try {
+            PreparedStatement preparedStatement = bindParameters();
+            ResultSetMetaData metaData = preparedStatement.getMetaData();
+            String[] columnTypes = new String[metaData.getColumnCount() + 1];
+            for (int i = 1; i < columnTypes.length; i++) {
+                columnTypes[i] = metaData.getColumnTypeName(i);
+                if (!PgCopyRowReader.isSupported(columnTypes[i])) {
+                    LOGGER.debug("No copy for column type " + columnTypes[i] + " of " + this);
+                    return executeAsGlobStream();
+                }
+            }
+            CopyOut copyOut = connection.getConnection().unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut("COPY (" + getLiteralSql() + ") TO STDOUT (FORMAT binary)");
+            return toGlobStream(new PgCopyGlobStream(copyOut, columnTypes, getFieldToAccessorHolder(),
+                    getOperationAccessors(), this));
+        } catch (SQLException e) {
+            String message = "Fail to copy " + this;
+            LOGGER.error(message, e);
+            throw new SqlException(message, e);
+        }
     }
 
     protected WhereClauseConstraintVisitor getWhereConstraintVisitor(StringPrettyWriter where) {
         return new PostgreWhereClauseConstraintVisitor(where, sqlService, globTypes);
     }
+
+    protected WhereClauseConstraintVisitor getLiteralWhereConstraintVisitor(StringPrettyWriter where) {
+        return new PostgreLiteralWhereClauseConstraintVisitor(where, sqlService, globTypes);
+    }
 }
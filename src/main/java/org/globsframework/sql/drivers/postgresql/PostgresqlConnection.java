@@ -7,23 +7,48 @@ import org.globsframework.core.metamodel.annotations.IsDateTime;
 import org.globsframework.core.metamodel.annotations.MaxSize;
 import org.globsframework.core.metamodel.fields.*;
 import org.globsframework.core.model.Glob;
+import org.globsframework.core.utils.NanoChrono;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
 import org.globsframework.sql.SelectBuilder;
 import org.globsframework.sql.SqlService;
+import org.globsframework.sql.UpsertBuilder;
 import org.globsframework.sql.annotations.IsTimestamp;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
 import org.globsframework.sql.drivers.jdbc.JdbcConnection;
 import org.globsframework.sql.drivers.jdbc.JdbcSqlService;
+import org.globsframework.sql.drivers.jdbc.SqlGeneratedKeysInsert;
+import org.globsframework.sql.drivers.jdbc.UpsertRequest;
+import org.globsframework.sql.drivers.jdbc.impl.InListMode;
 import org.globsframework.sql.drivers.jdbc.impl.SqlFieldCreationVisitor;
+import org.globsframework.sql.drivers.postgresql.impl.PgBinaryCopyWriter;
 import org.globsframework.sql.drivers.postgresql.request.PostgreSqlQueryBuilder;
+import org.globsframework.sql.utils.InsertBulkLoader;
 import org.globsframework.sql.utils.StringPrettyWriter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 public class PostgresqlConnection extends JdbcConnection {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresqlConnection.class);
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private int streamingResultSets;
+
     public PostgresqlConnection(boolean autoCommit, Connection connection, SqlService sqlService) {
         super(autoCommit, connection, sqlService, new BlobUpdater() {
             public void setBlob(PreparedStatement preparedStatement, int index, byte[] bytes) throws SQLException {
@@ -105,14 +130,162 @@ public class PostgresqlConnection extends JdbcConnection {
         };
     }
 
+    public String exportSnapshot() {
+        checkConnectionIsNotClosed();
+        try {
+            if (getConnection().getAutoCommit()) {
+                return null;
+            }
+            try (Statement statement = getConnection().createStatement()) {
+                statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                try (ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+                    return resultSet.next() ? resultSet.getString(1) : null;
+                }
+            }
+        } catch (SQLException e) {
+            throw getTypedException("pg_export_snapshot", e);
+        }
+    }
+
+    public void importSnapshot(String snapshotId) {
+        checkConnectionIsNotClosed();
+        try (Statement statement = getConnection().createStatement()) {
+            statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+            statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId.replace("'", "''") + "'");
+        } catch (SQLException e) {
+            throw getTypedException("SET TRANSACTION SNAPSHOT", e);
+        }
+    }
+
+    /*
+    The driver use a cursor only outside autocommit (in autocommit the whole result is loaded whatever the fetch size) :
+    autocommit is switched off while streaming result sets are open and restored when the last one is closed. The
+    requests sent on the connection in the meantime are committed at that time.
+     */
+    public boolean beginStreaming() throws SQLException {
+        if (streamingResultSets == 0) {
+            if (!getConnection().getAutoCommit()) {
+                return false;
+            }
+            getConnection().setAutoCommit(false);
+        }
+        streamingResultSets++;
+        return true;
+    }
+
+    public void endStreaming() {
+        if (--streamingResultSets == 0) {
+            try {
+                getConnection().setAutoCommit(true);
+            } catch (SQLException e) {
+                LOGGER.error("Fail to restore autocommit", e);
+                throw getTypedException("restore autocommit", e);
+            }
+        }
+    }
+
+    // COPY FROM STDIN in binary format : the columns must have the types given by createTable.
+    public long bulkLoad(GlobType globType, Iterator<Glob> globs) {
+        checkConnectionIsNotClosed();
+        if (!globs.hasNext()) {
+            return 0;
+        }
+        Glob first = globs.next();
+        List<Field> fields = InsertBulkLoader.getLoadedFields(first);
+        StringPrettyWriter sql = new StringPrettyWriter();
+        sql.append("COPY ").append(sqlService.getTableName(globType, true)).append(" (");
+        for (Field field : fields) {
+            sql.append(sqlService.getColumnName(field, true)).append(", ");
+        }
+        sql.removeLast(2);
+        sql.append(") FROM STDIN (FORMAT binary)");
+        CopyIn copyIn = null;
+        try {
+            NanoChrono nanoChrono = NanoChrono.start();
+            copyIn = getConnection().unwrap(PGConnection.class).getCopyAPI().copyIn(sql.toString());
+            PGCopyOutputStream outputStream = new PGCopyOutputStream(copyIn, COPY_BUFFER_SIZE);
+            PgBinaryCopyWriter writer = new PgBinaryCopyWriter(outputStream);
+            writer.writeHeader();
+            writer.writeRow(first, fields);
+            while (globs.hasNext()) {
+                writer.writeRow(globs.next(), fields);
+            }
+            writer.writeTrailer();
+            long count = outputStream.endCopy();
+            LOGGER.info(sql + " of " + count + " rows took " + nanoChrono.getElapsedTimeInMS() + " ms.");
+            return count;
+        } catch (SQLException e) {
+            throw getTypedException(sql.toString(), e);
+        } catch (IOException e) {
+            throw new UnexpectedApplicationState("Fail to write " + sql, e);
+        } finally {
+            cancelIfActive(copyIn, sql.toString());
+        }
+    }
+
+    private static void cancelIfActive(CopyIn copyIn, String sql) {
+        if (copyIn != null && copyIn.isActive()) {
+            try {
+                copyIn.cancelCopy();
+            } catch (SQLException e) {
+                LOGGER.warn("Fail to cancel " + sql, e);
+            }
+        }
+    }
+
+    public InListMode getInListMode() {
+        return InListMode.ANY_ARRAY;
+    }
+
+    // INSERT ... VALUES (..), (..) RETURNING : the rows are matched by position (see SqlConnection.createAndGetKeys).
+    protected SqlGeneratedKeysInsert getGeneratedKeysInsert(GlobType globType, List<Field> fields, List<Field> generated) {
+        String returning = " RETURNING " + getColumnNames(generated);
+        return new SqlGeneratedKeysInsert(this, fields, generated, rowCount -> {
+            StringPrettyWriter writer = getInsertRequest(globType, "", fields);
+            String row = ", (" + String.join(", ", Collections.nCopies(fields.size(), "?")) + ")";
+            for (int i = 1; i < rowCount; i++) {
+                writer.append(row);
+            }
+            return writer.append(returning).toString();
+        }, false, Math.max(1, Math.min(MULTI_ROWS_INSERT_SIZE, MAX_PARAMETERS / Math.max(1, fields.size()))));
+    }
+
+    // the arrays given to unnest are zipped in rows.
+    protected String getArrayBulkUpdateRequest(GlobType globType, List<Field> keyFields, List<Field> setFields, String[] arrayTypes) {
+        return "UPDATE " + sqlService.getTableName(globType, true) + " AS T SET " + getValuesAssignment(setFields, "") +
+                " FROM unnest(" + String.join(", ", Collections.nCopies(arrayTypes.length, "?")) + ") AS V (" +
+                getColumnNames(keyFields) + ", " + getColumnNames(setFields) + ") WHERE " + getKeysJoin(keyFields);
+    }
+
+    // DO NOTHING if all the fields are kept.
+    public UpsertRequest getUpsertRequest(GlobType globType, List<Field> conflictKeys, Map<Field, UpsertBuilder.UpdatePolicy> updates) {
+        List<Field> inserted = new ArrayList<>(conflictKeys);
+        inserted.addAll(updates.keySet());
+        StringPrettyWriter writer = getInsertRequest(globType, " AS T", inserted);
+        writer.append(" ON CONFLICT (").append(getColumnNames(conflictKeys)).append(") DO ");
+        String separator = "UPDATE SET ";
+        for (Map.Entry<Field, UpsertBuilder.UpdatePolicy> entry : updates.entrySet()) {
+            if (entry.getValue() != UpsertBuilder.UpdatePolicy.KEEP) {
+                String columnName = sqlService.getColumnName(entry.getKey(), true);
+                writer.append(separator).append(columnName).append(" = ")
+                        .append(getUpsertValue(entry.getValue(), "T." + columnName, "EXCLUDED." + columnName));
+                separator = ", ";
+            }
+        }
+        if (separator.startsWith("UPDATE")) {
+            writer.append("NOTHING");
+        }
+        return new UpsertRequest(writer.toString(), inserted);
+    }
+
     public SelectBuilder getQueryBuilder(GlobType globType) {
         checkConnectionIsNotClosed();
-        return new PostgreSqlQueryBuilder(getConnection(), globType, null, sqlService, blobUpdater);
+        return new PostgreSqlQueryBuilder(this, globType, null, sqlService, blobUpdater);
     }
 
     public SelectBuilder getQueryBuilder(GlobType globType, Constraint constraint) {
         checkConnectionIsNotClosed();
-        return new PostgreSqlQueryBuilder(getConnection(), globType, constraint, sqlService, blobUpdater);
+        return new PostgreSqlQueryBuilder(this, globType, constraint, sqlService, blobUpdater);
     }
 
 }
@@ -0,0 +1,153 @@
+package org.globsframework.sql.drivers.postgresql.impl;
+
+import com.google.gson.Gson;
+import org.globsframework.core.metamodel.annotations.IsDate;
+import org.globsframework.core.metamodel.annotations.IsDateTime;
+import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.core.model.Glob;
+import org.globsframework.json.GSonUtils;
+import org.globsframework.sql.annotations.IsTimestamp;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+Write globs in the binary format of COPY ... FROM STDIN (FORMAT binary), for the column types created by
+PostgresqlConnection : dates are days and timestamps microseconds since 2000-01-01, json and arrays are
+text as with SqlValueFieldVisitor.
+ */
+public class PgBinaryCopyWriter extends FieldVisitor.AbstractWithErrorVisitor {
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    static final long POSTGRES_EPOCH_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+    static final long POSTGRES_EPOCH_MICROS = POSTGRES_EPOCH_DAY * 24L * 3600L * 1_000_000L;
+    private static final Gson gson = new Gson();
+    private final DataOutputStream output;
+    private Object value;
+
+    public PgBinaryCopyWriter(OutputStream outputStream) {
+        this.output = new DataOutputStream(outputStream);
+    }
+
+    public void writeHeader() throws IOException {
+        output.write(SIGNATURE);
+        output.writeInt(0);
+        output.writeInt(0);
+    }
+
+    public void writeRow(Glob glob, List<Field> fields) throws IOException {
+        output.writeShort(fields.size());
+        for (Field field : fields) {
+            value = glob.getValue(field);
+            if (value == null) {
+                output.writeInt(-1);
+            } else {
+                field.safeAccept(this);
+            }
+        }
+    }
+
+    public void writeTrailer() throws IOException {
+        output.writeShort(-1);
+        output.flush();
+    }
+
+    public void visitInteger(IntegerField field) throws Exception {
+        if (field.hasAnnotation(IsDate.KEY)) {
+            writeInt4((int) ((Integer) value - POSTGRES_EPOCH_DAY));
+        } else {
+            writeInt4((Integer) value);
+        }
+    }
+
+    public void visitLong(LongField field) throws Exception {
+        long longValue = ((Number) value).longValue();
+        if (field.hasAnnotation(IsDate.KEY)) {
+            writeInt4((int) (longValue - POSTGRES_EPOCH_DAY));
+        } else if (field.hasAnnotation(IsDateTime.KEY)) {
+            writeInt8(longValue * 1000L - POSTGRES_EPOCH_MICROS);
+        } else if (field.hasAnnotation(IsTimestamp.KEY)) {
+            // timestamp without time zone : the local time, as the jdbc driver does for a java.sql.Timestamp
+            LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(longValue), ZoneId.systemDefault());
+            writeInt8(localDateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + localDateTime.getNano() / 1000
+                    - POSTGRES_EPOCH_MICROS);
+        } else {
+            writeInt8(longValue);
+        }
+    }
+
+    public void visitDate(DateField field) throws Exception {
+        writeInt4((int) (((LocalDate) value).toEpochDay() - POSTGRES_EPOCH_DAY));
+    }
+
+    public void visitDateTime(DateTimeField field) throws Exception {
+        Instant instant = ((ZonedDateTime) value).toInstant();
+        writeInt8(instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1000 - POSTGRES_EPOCH_MICROS);
+    }
+
+    public void visitDouble(DoubleField field) throws Exception {
+        output.writeInt(8);
+        output.writeDouble((Double) value);
+    }
+
+    public void visitBoolean(BooleanField field) throws Exception {
+        output.writeInt(1);
+        output.writeByte((Boolean) value ? 1 : 0);
+    }
+
+    public void visitString(StringField field) throws Exception {
+        writeText((String) value);
+    }
+
+    public void visitStringArray(StringArrayField field) throws Exception {
+        writeText(gson.toJson(value));
+    }
+
+    public void visitLongArray(LongArrayField field) throws Exception {
+        writeText(Arrays.stream((long[]) value).mapToObj(Long::toString).collect(Collectors.joining(",")));
+    }
+
+    public void visitGlob(GlobField field) throws Exception {
+        writeText(value instanceof Glob ? GSonUtils.encode((Glob) value, true) : (String) value);
+    }
+
+    public void visitGlobArray(GlobArrayField field) throws Exception {
+        writeText(value instanceof Glob[] ? GSonUtils.encode((Glob[]) value, true) : (String) value);
+    }
+
+    public void visitUnionGlob(GlobUnionField field) throws Exception {
+        writeText(value instanceof Glob ? GSonUtils.encode((Glob) value, true) : (String) value);
+    }
+
+    public void visitUnionGlobArray(GlobArrayUnionField field) throws Exception {
+        writeText(value instanceof Glob[] ? GSonUtils.encode((Glob[]) value, true) : (String) value);
+    }
+
+    public void visitBlob(BlobField field) throws Exception {
+        writeBytes((byte[]) value);
+    }
+
+    private void writeInt4(int intValue) throws IOException {
+        output.writeInt(4);
+        output.writeInt(intValue);
+    }
+
+    private void writeInt8(long longValue) throws IOException {
+        output.writeInt(8);
+        output.writeLong(longValue);
+    }
+
+    private void writeText(String text) throws IOException {
+        writeBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
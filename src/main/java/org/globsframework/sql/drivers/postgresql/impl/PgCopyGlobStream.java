@@ -0,0 +1,163 @@
+package org.globsframework.sql.drivers.postgresql.impl;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.accessors.SqlAccessor;
+import org.globsframework.sql.drivers.jdbc.SqlGlobStream;
+import org.globsframework.sql.drivers.jdbc.SqlSelectQuery;
+import org.postgresql.copy.CopyOut;
+import org.postgresql.copy.PGCopyInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.ChronoField;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/*
+Rows of a COPY (...) TO STDOUT (FORMAT binary) decoded with the column types of the select (see PgCopyRowReader) :
+the values are given to the same SqlAccessor as a ResultSet would.
+ */
+public class PgCopyGlobStream extends SqlGlobStream {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PgCopyGlobStream.class);
+    private final CopyOut copyOut;
+    private final PgCopyRowReader reader;
+    private final Object[] row;
+    private final SqlSelectQuery query;
+    private boolean closed;
+    private boolean lastNull;
+    private int rowId;
+
+    // columnTypes : the postgresql type name of each column (index 0 is not used).
+    public PgCopyGlobStream(CopyOut copyOut, String[] columnTypes, Map<Field, SqlAccessor> fieldToAccessorHolder,
+                            List<SqlAccessor> additionalAccessor, SqlSelectQuery query) {
+        super(null, fieldToAccessorHolder, additionalAccessor, query);
+        this.copyOut = copyOut;
+        this.reader = new PgCopyRowReader(new PGCopyInputStream(copyOut), columnTypes);
+        this.row = new Object[columnTypes.length];
+        this.query = query;
+    }
+
+    public boolean next() {
+        rowId++;
+        try {
+            if (!reader.readRow(row)) {
+                close();
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            close();
+            String message = "Fail to read copy of " + query;
+            LOGGER.error(message, e);
+            throw new UnexpectedApplicationState(message, e);
+        }
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (copyOut.isActive()) {
+            try {
+                copyOut.cancelCopy();
+            } catch (SQLException e) {
+                LOGGER.warn("Fail to cancel copy of " + query, e);
+            }
+        }
+        query.resultSetClose();
+    }
+
+    private Object value(int index) {
+        Object value = row[index];
+        lastNull = value == null;
+        return value;
+    }
+
+    public Double getDouble(int index) {
+        Object value = value(index);
+        return value == null ? null : ((Number) value).doubleValue();
+    }
+
+    public double getDoubleValue(int index) {
+        Double value = getDouble(index);
+        return value == null ? 0 : value;
+    }
+
+    public Integer getInteger(int index) {
+        Object value = value(index);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Date date) {
+            return Math.toIntExact(LocalDateTime.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneId.systemDefault())
+                    .getLong(ChronoField.EPOCH_DAY));
+        }
+        return ((Number) value).intValue();
+    }
+
+    public int getIntValue(int index) {
+        Integer value = getInteger(index);
+        return value == null ? 0 : value;
+    }
+
+    public Long getLong(int index) {
+        Object value = value(index);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneOffset.UTC).getLong(ChronoField.EPOCH_DAY);
+        }
+        return ((Number) value).longValue();
+    }
+
+    public long getLongValue(int index) {
+        Long value = getLong(index);
+        return value == null ? 0 : value;
+    }
+
+    public Date getDate(int index) {
+        Object value = value(index);
+        if (value instanceof Timestamp timestamp) {
+            return new java.sql.Date(timestamp.getTime());
+        }
+        return (Date) value;
+    }
+
+    public boolean getBoolean(int index) {
+        Object value = value(index);
+        return value != null && (Boolean) value;
+    }
+
+    public String getString(int index) {
+        Object value = value(index);
+        return value == null ? null : value.toString();
+    }
+
+    public Timestamp getTimeStamp(int index) {
+        Object value = value(index);
+        if (value == null || value instanceof Timestamp) {
+            return (Timestamp) value;
+        }
+        return new Timestamp(((Date) value).getTime());
+    }
+
+    public byte[] getBytes(int index) {
+        return (byte[]) value(index);
+    }
+
+    public boolean isNull() {
+        return lastNull;
+    }
+
+    public int getCurrentRowId() {
+        return rowId;
+    }
+}
@@ -0,0 +1,103 @@
+package org.globsframework.sql.drivers.postgresql.impl;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+/*
+Decode the binary format of COPY ... TO STDOUT (FORMAT binary) (the one written by PgBinaryCopyWriter) : dates as
+java.sql.Date, timestamps as java.sql.Timestamp, json and text as String, bytea as byte[].
+ */
+public class PgCopyRowReader {
+    private static final Set<String> SUPPORTED_TYPES = Set.of("int2", "int4", "int8", "float4", "float8", "bool",
+            "text", "varchar", "bpchar", "name", "json", "jsonb", "date", "timestamp", "timestamptz", "bytea");
+    private static final int SIGNATURE_SIZE = 11;
+    private final DataInputStream input;
+    private final String[] columnTypes;
+    private boolean headerRead;
+
+    // columnTypes : the postgresql type name of each column (index 0 is not used).
+    public PgCopyRowReader(InputStream inputStream, String[] columnTypes) {
+        this.input = new DataInputStream(inputStream);
+        this.columnTypes = columnTypes;
+    }
+
+    public static boolean isSupported(String columnType) {
+        return SUPPORTED_TYPES.contains(columnType);
+    }
+
+    // fill row from index 1, false after the last row.
+    public boolean readRow(Object[] row) throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+        short count = input.readShort();
+        if (count == -1) {
+            return false;
+        }
+        for (int i = 1; i <= count; i++) {
+            row[i] = readValue(columnTypes[i]);
+        }
+        return true;
+    }
+
+    private void readHeader() throws IOException {
+        // signature and flags, then the header extension
+        input.skipBytes(SIGNATURE_SIZE + 4);
+        input.skipBytes(input.readInt());
+        headerRead = true;
+    }
+
+    private Object readValue(String columnType) throws IOException {
+        int length = input.readInt();
+        if (length == -1) {
+            return null;
+        }
+        switch (columnType) {
+            case "int2":
+                return (int) input.readShort();
+            case "int4":
+                return input.readInt();
+            case "int8":
+                return input.readLong();
+            case "float4":
+                return (double) input.readFloat();
+            case "float8":
+                return input.readDouble();
+            case "bool":
+                return input.readByte() != 0;
+            case "date":
+                return java.sql.Date.valueOf(LocalDate.ofEpochDay(input.readInt() + PgBinaryCopyWriter.POSTGRES_EPOCH_DAY));
+            case "timestamp":
+                return Timestamp.valueOf(LocalDateTime.ofInstant(readInstant(), ZoneOffset.UTC));
+            case "timestamptz":
+                return Timestamp.from(readInstant());
+            case "bytea":
+                return readBytes(length);
+            case "jsonb":
+                // version byte
+                input.readByte();
+                return new String(readBytes(length - 1), StandardCharsets.UTF_8);
+            default:
+                return new String(readBytes(length), StandardCharsets.UTF_8);
+        }
+    }
+
+    private Instant readInstant() throws IOException {
+        long micros = input.readLong() + PgBinaryCopyWriter.POSTGRES_EPOCH_MICROS;
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000L);
+    }
+
+    private byte[] readBytes(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,110 @@
+package org.globsframework.sql.drivers.postgresql.impl;
+
+import com.google.gson.Gson;
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.annotations.IsDate;
+import org.globsframework.core.metamodel.annotations.IsDateTime;
+import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.json.GSonUtils;
+import org.globsframework.sql.SqlService;
+import org.globsframework.sql.annotations.IsTimestamp;
+import org.globsframework.sql.constraints.impl.AccessorOperand;
+import org.globsframework.sql.utils.StringPrettyWriter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+Write the values in the sql instead of parameters, for the requests that do not accept them (COPY) : the values are
+converted as SqlValueFieldVisitor bind them. Numbers, booleans, escaped strings (E'...'), dates and timestamps with
+a cast (::date, ::timestamptz) and the in lists as ARRAY[...] of the array type.
+ */
+public class PostgreLiteralWhereClauseConstraintVisitor extends PostgreWhereClauseConstraintVisitor {
+    private static final Gson GSON = new Gson();
+
+    public PostgreLiteralWhereClauseConstraintVisitor(StringPrettyWriter prettyWriter, SqlService sqlService, Set<GlobType> GlobeTypeSetToUpdate) {
+        super(prettyWriter, sqlService, GlobeTypeSetToUpdate);
+    }
+
+    public void visitAccessorOperand(AccessorOperand accessorOperand) {
+        appendValue(accessorOperand.getField(), accessorOperand.getAccessor().getObjectValue());
+    }
+
+    protected void appendValue(Field field, Object value) {
+        prettyWriter.append(" ").append(toLiteral(field, value)).append(" ");
+    }
+
+    protected void appendArrayValue(Field field, Collection<?> values, String arrayType) {
+        prettyWriter.append("ARRAY[")
+                .append(values.stream().map(value -> toLiteral(field, value)).collect(Collectors.joining(", ")))
+                .append("]::").append(arrayType).append("[]");
+    }
+
+    public static String toLiteral(Field field, Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (field instanceof IntegerField || field instanceof LongField) {
+            if (field.hasAnnotation(IsDate.KEY)) {
+                return toDateLiteral(LocalDate.ofEpochDay(((Number) value).longValue()));
+            }
+            if (field instanceof LongField && (field.hasAnnotation(IsDateTime.KEY) || field.hasAnnotation(IsTimestamp.KEY))) {
+                return toTimestampLiteral(Instant.ofEpochMilli((Long) value));
+            }
+            return value.toString();
+        }
+        if (field instanceof DoubleField) {
+            // also NaN and Infinity
+            return "'" + value + "'::float8";
+        }
+        if (field instanceof BooleanField) {
+            return (Boolean) value ? "TRUE" : "FALSE";
+        }
+        if (field instanceof StringField) {
+            return toStringLiteral((String) value);
+        }
+        if (field instanceof DateField) {
+            return toDateLiteral((LocalDate) value);
+        }
+        if (field instanceof DateTimeField) {
+            return toTimestampLiteral(((ZonedDateTime) value).toInstant());
+        }
+        if (field instanceof StringArrayField) {
+            return toStringLiteral(GSON.toJson(value));
+        }
+        if (field instanceof LongArrayField) {
+            return toStringLiteral(Arrays.stream((long[]) value).mapToObj(Long::toString).collect(Collectors.joining(",")));
+        }
+        if (field instanceof GlobField || field instanceof GlobUnionField) {
+            return toStringLiteral(value instanceof Glob glob ? GSonUtils.encode(glob, true) : (String) value);
+        }
+        if (field instanceof GlobArrayField || field instanceof GlobArrayUnionField) {
+            return toStringLiteral(value instanceof Glob[] globs ? GSonUtils.encode(globs, true) : (String) value);
+        }
+        if (field instanceof BlobField) {
+            return toStringLiteral("\\x" + HexFormat.of().formatHex((byte[]) value)) + "::bytea";
+        }
+        throw new UnexpectedApplicationState("No literal for " + field.getFullName() + " : " + value);
+    }
+
+    // backslashes are escaped too : the literal do not depend on standard_conforming_strings.
+    static String toStringLiteral(String value) {
+        return "E'" + value.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+
+    private static String toDateLiteral(LocalDate date) {
+        return "'" + date + "'::date";
+    }
+
+    private static String toTimestampLiteral(Instant instant) {
+        return "'" + instant + "'::timestamptz";
+    }
+}
@@ -20,6 +20,6 @@ public class PostgreWhereClauseConstraintVisitor extends WhereClauseConstraintVi
         } else {
             prettyWriter.append(not ? " !~*" : " ~*");
         }
-        prettyWriter.append(" ? ");
+        appendValue(field, value);
     }
 }
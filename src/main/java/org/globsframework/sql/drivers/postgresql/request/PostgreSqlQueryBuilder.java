@@ -5,20 +5,19 @@ import org.globsframework.sql.SelectQuery;
 import org.globsframework.sql.SqlService;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.drivers.jdbc.BlobUpdater;
+import org.globsframework.sql.drivers.jdbc.JdbcConnection;
 import org.globsframework.sql.drivers.jdbc.request.SqlQueryBuilder;
 import org.globsframework.sql.drivers.postgresql.PostgreSqlSelectQuery;
 
-import java.sql.Connection;
-
 public class PostgreSqlQueryBuilder extends SqlQueryBuilder {
-    public PostgreSqlQueryBuilder(Connection connection, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater) {
+    public PostgreSqlQueryBuilder(JdbcConnection connection, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater) {
         super(connection, globType, constraint, sqlService, blobUpdater);
     }
 
     public SelectQuery getQuery() {
         try {
-            return new PostgreSqlSelectQuery(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose,
-                    orders, groupBy, top, skip, distinct, sqlOperations, fallBackType);
+            return withPartitionedScan(new PostgreSqlSelectQuery(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose,
+                    orders, groupBy, top, skip, fetchSize, distinct, sqlOperations, fallBackType));
         } finally {
             fieldToAccessorHolder.clear();
         }
@@ -0,0 +1,93 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.streams.accessors.IntegerAccessor;
+import org.globsframework.core.streams.accessors.LongAccessor;
+
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+// value of an aggregate (count, sum, min, max) combined from the result of each shard.
+abstract class CombinedAccessor {
+
+    abstract void reset();
+
+    // to be called while the stream of the shard is on its row.
+    abstract void accumulate(int shard);
+
+    static class LongCombinedAccessor extends CombinedAccessor implements LongAccessor {
+        private final List<LongAccessor> shardAccessors;
+        private final LongBinaryOperator operator;
+        private Long value;
+
+        LongCombinedAccessor(List<LongAccessor> shardAccessors, LongBinaryOperator operator) {
+            this.shardAccessors = shardAccessors;
+            this.operator = operator;
+        }
+
+        void reset() {
+            value = null;
+        }
+
+        void accumulate(int shard) {
+            Long shardValue = shardAccessors.get(shard).getLong();
+            if (shardValue != null) {
+                value = value == null ? shardValue : operator.applyAsLong(value, shardValue);
+            }
+        }
+
+        public Long getLong() {
+            return value;
+        }
+
+        public long getValue(long valueIfNull) {
+            return value == null ? valueIfNull : value;
+        }
+
+        public boolean wasNull() {
+            return value == null;
+        }
+
+        public Object getObjectValue() {
+            return value;
+        }
+    }
+
+    static class IntegerCombinedAccessor extends CombinedAccessor implements IntegerAccessor {
+        private final List<IntegerAccessor> shardAccessors;
+        private final IntBinaryOperator operator;
+        private Integer value;
+
+        IntegerCombinedAccessor(List<IntegerAccessor> shardAccessors, IntBinaryOperator operator) {
+            this.shardAccessors = shardAccessors;
+            this.operator = operator;
+        }
+
+        void reset() {
+            value = null;
+        }
+
+        void accumulate(int shard) {
+            Integer shardValue = shardAccessors.get(shard).getInteger();
+            if (shardValue != null) {
+                value = value == null ? shardValue : operator.applyAsInt(value, shardValue);
+            }
+        }
+
+        public Integer getInteger() {
+            return value;
+        }
+
+        public int getValue(int valueIfNull) {
+            return value == null ? valueIfNull : value;
+        }
+
+        public boolean wasNull() {
+            return value == null;
+        }
+
+        public Object getObjectValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.model.Key;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.*;
+import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.exceptions.DbConstraintViolation;
+import org.globsframework.sql.exceptions.RollbackFailed;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/*
+The real connection is opened on the first request : setReadOnly(true) before it send the connection to a replica.
+ */
+class RoutingSqlConnection implements SqlConnection {
+    private final RoutingSqlService routingSqlService;
+    private final boolean autoCommit;
+    private boolean readOnly;
+    private boolean written;
+    private SqlConnection delegate;
+    private RoutingSqlService.Replica replica;
+
+    RoutingSqlConnection(RoutingSqlService routingSqlService, boolean autoCommit) {
+        this.routingSqlService = routingSqlService;
+        this.autoCommit = autoCommit;
+    }
+
+    private SqlConnection db() {
+        if (delegate == null) {
+            if (readOnly) {
+                replica = routingSqlService.selectReplica();
+            }
+            if (replica != null) {
+                replica.outstanding.incrementAndGet();
+                try {
+                    delegate = autoCommit ? replica.sqlService.getAutoCommitDb() : replica.sqlService.getDb();
+                    delegate.setReadOnly(true);
+                } catch (RuntimeException e) {
+                    release();
+                    throw e;
+                }
+            } else {
+                delegate = routingSqlService.openPrimary(autoCommit);
+                if (readOnly) {
+                    delegate.setReadOnly(true);
+                }
+            }
+        }
+        return delegate;
+    }
+
+    private SqlConnection writeDb() {
+        SqlConnection db = db();
+        if (replica != null) {
+            throw new UnexpectedApplicationState("Write on a read only connection (routed to a replica)");
+        }
+        written = true;
+        return db;
+    }
+
+    private void release() {
+        if (replica != null) {
+            replica.outstanding.decrementAndGet();
+        }
+        delegate = null;
+        replica = null;
+    }
+
+    public void setReadOnly(boolean readOnly) {
+        if (delegate != null) {
+            if (replica != null && !readOnly) {
+                throw new UnexpectedApplicationState("Connection already routed to a replica");
+            }
+            delegate.setReadOnly(readOnly);
+        }
+        this.readOnly = readOnly;
+    }
+
+    public SelectBuilder getQueryBuilder(GlobType globType) {
+        return db().getQueryBuilder(globType);
+    }
+
+    public SelectBuilder getQueryBuilder(GlobType globType, Constraint constraint) {
+        return db().getQueryBuilder(globType, constraint);
+    }
+
+    public CreateBuilder getCreateBuilder(GlobType globType) {
+        return writeDb().getCreateBuilder(globType);
+    }
+
+    public UpdateBuilder getUpdateBuilder(GlobType globType, Constraint constraint) {
+        return writeDb().getUpdateBuilder(globType, constraint);
+    }
+
+    public UpsertBuilder getUpsertBuilder(GlobType globType, Field... conflictKeys) {
+        return writeDb().getUpsertBuilder(globType, conflictKeys);
+    }
+
+    public BulkUpdate getBulkUpdate(GlobType globType, Field... setFields) {
+        return writeDb().getBulkUpdate(globType, setFields);
+    }
+
+    public List<Key> createAndGetKeys(GlobType globType, List<? extends Glob> globs) {
+        return writeDb().createAndGetKeys(globType, globs);
+    }
+
+    public SqlRequest getDeleteRequest(GlobType globType) {
+        return writeDb().getDeleteRequest(globType);
+    }
+
+    public SqlRequest getDeleteRequest(GlobType globType, Constraint constraint) {
+        return writeDb().getDeleteRequest(globType, constraint);
+    }
+
+    public void commit() throws RollbackFailed, DbConstraintViolation {
+        if (delegate != null) {
+            delegate.commit();
+            notifyWritten();
+        }
+    }
+
+    public void commitAndClose() throws RollbackFailed, DbConstraintViolation {
+        if (delegate != null) {
+            try {
+                delegate.commitAndClose();
+                notifyWritten();
+            } finally {
+                release();
+            }
+        }
+    }
+
+    public void rollbackAndClose() {
+        if (delegate != null) {
+            try {
+                delegate.rollbackAndClose();
+                if (autoCommit) {
+                    notifyWritten();
+                }
+            } finally {
+                release();
+            }
+        }
+    }
+
+    private void notifyWritten() {
+        if (written) {
+            routingSqlService.primaryCommitted();
+        }
+    }
+
+    public void createTable(GlobType globType) {
+        writeDb().createTable(globType);
+    }
+
+    public void addColumn(Field... column) {
+        writeDb().addColumn(column);
+    }
+
+    public void emptyTable(GlobType globType) {
+        writeDb().emptyTable(globType);
+    }
+
+    public GlobTypeExtractor extractType(String tableName) {
+        return db().extractType(tableName);
+    }
+
+    public GlobType extractFromQuery(String query) {
+        return db().extractFromQuery(query);
+    }
+
+    public void populate(Collection<Glob> all) {
+        writeDb().populate(all);
+    }
+
+    public long bulkLoad(GlobType globType, Iterator<Glob> globs) {
+        return writeDb().bulkLoad(globType, globs);
+    }
+
+    public SqlService getJdbcSqlService() {
+        return routingSqlService;
+    }
+}
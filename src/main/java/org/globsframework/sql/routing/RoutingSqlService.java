@@ -0,0 +1,107 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.SqlService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Send writes and transactions to the primary and read only connections (getReadDb or setReadOnly(true) before
+the first request) to the replica with the least opened connections.
+After a commit on the primary, reads go to the primary during readYourWritesWindow (replication lag).
+ */
+public class RoutingSqlService implements SqlService {
+    private final SqlService primary;
+    private final List<Replica> replicas;
+    private final long readYourWritesWindowInNs;
+    private final AtomicLong lastPrimaryCommit = new AtomicLong();
+
+    static class Replica {
+        final SqlService sqlService;
+        final AtomicInteger outstanding = new AtomicInteger();
+
+        Replica(SqlService sqlService) {
+            this.sqlService = sqlService;
+        }
+    }
+
+    public RoutingSqlService(SqlService primary, List<SqlService> replicas) {
+        this(primary, replicas, Duration.ZERO);
+    }
+
+    public RoutingSqlService(SqlService primary, List<SqlService> replicas, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWritesWindowInNs = readYourWritesWindow.toNanos();
+        lastPrimaryCommit.set(System.nanoTime() - readYourWritesWindowInNs - 1);
+    }
+
+    public SqlConnection getDb() {
+        return new RoutingSqlConnection(this, false);
+    }
+
+    public SqlConnection getAutoCommitDb() {
+        return new RoutingSqlConnection(this, true);
+    }
+
+    public SqlConnection getReadDb() {
+        RoutingSqlConnection connection = new RoutingSqlConnection(this, true);
+        connection.setReadOnly(true);
+        return connection;
+    }
+
+    SqlConnection openPrimary(boolean autoCommit) {
+        return autoCommit ? primary.getAutoCommitDb() : primary.getDb();
+    }
+
+    // null if the read must go to the primary
+    Replica selectReplica() {
+        if (replicas.isEmpty() || System.nanoTime() - lastPrimaryCommit.get() <= readYourWritesWindowInNs) {
+            return null;
+        }
+        Replica selected = null;
+        for (Replica replica : replicas) {
+            if (selected == null || replica.outstanding.get() < selected.outstanding.get()) {
+                selected = replica;
+            }
+        }
+        return selected;
+    }
+
+    void primaryCommitted() {
+        lastPrimaryCommit.set(System.nanoTime());
+    }
+
+    public SqlService getPrimary() {
+        return primary;
+    }
+
+    public String getTableName(GlobType globType, boolean escaped) {
+        return primary.getTableName(globType, escaped);
+    }
+
+    public String getTableName(String name, boolean escaped) {
+        return primary.getTableName(name, escaped);
+    }
+
+    public String getColumnName(Field field, boolean escaped) {
+        return primary.getColumnName(field, escaped);
+    }
+
+    public String getQualifiedColumnName(Field field) {
+        return primary.getQualifiedColumnName(field);
+    }
+
+    public String getColumnName(String field, boolean escaped) {
+        return primary.getColumnName(field, escaped);
+    }
+
+    public String getLikeIgnoreCase() {
+        return primary.getLikeIgnoreCase();
+    }
+}
@@ -0,0 +1,64 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.constraints.Operand;
+import org.globsframework.sql.constraints.OperandVisitor;
+import org.globsframework.sql.constraints.impl.AccessorOperand;
+import org.globsframework.sql.constraints.impl.AndConstraint;
+import org.globsframework.sql.constraints.impl.EqualConstraint;
+import org.globsframework.sql.constraints.impl.ValueOperand;
+
+import java.util.function.Supplier;
+
+// find a 'shardKey = value' in the constraint (alone or in a and).
+class ShardKeyFinder {
+
+    // acceptAccessor : the value of an accessor operand is only known when the request is run.
+    static Supplier<Object> find(Constraint constraint, Field shardKey, boolean acceptAccessor) {
+        if (constraint == null || shardKey == null) {
+            return null;
+        }
+        if (constraint instanceof EqualConstraint equalConstraint) {
+            Supplier<Object> value = valueOf(equalConstraint.getLeftOperand(), equalConstraint.getRightOperand(), shardKey, acceptAccessor);
+            if (value == null) {
+                value = valueOf(equalConstraint.getRightOperand(), equalConstraint.getLeftOperand(), shardKey, acceptAccessor);
+            }
+            return value;
+        }
+        if (constraint instanceof AndConstraint andConstraint) {
+            for (Constraint child : andConstraint.getConstraints()) {
+                Supplier<Object> value = find(child, shardKey, acceptAccessor);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Supplier<Object> valueOf(Operand fieldOperand, Operand valueOperand, Field shardKey, boolean acceptAccessor) {
+        Field[] field = new Field[1];
+        fieldOperand.visitOperand(new OperandVisitor() {
+            public void visitValueOperand(ValueOperand value) {
+            }
+
+            public void visitAccessorOperand(AccessorOperand accessorOperand) {
+            }
+
+            public void visitFieldOperand(Field operandField) {
+                field[0] = operandField;
+            }
+        });
+        if (field[0] != shardKey) {
+            return null;
+        }
+        if (valueOperand instanceof ValueOperand value && value.getValue() != null) {
+            return value::getValue;
+        }
+        if (acceptAccessor && valueOperand instanceof AccessorOperand accessorOperand) {
+            return accessorOperand.getAccessor()::getObjectValue;
+        }
+        return null;
+    }
+}
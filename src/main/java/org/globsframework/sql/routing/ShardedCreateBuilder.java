@@ -0,0 +1,198 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.streams.accessors.*;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.BulkDbRequest;
+import org.globsframework.sql.CreateBuilder;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.SqlRequest;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+The values are replayed on the create builder of each shard (created on the first insert in this shard).
+The shard key must be set ; generated keys are refused as they would not be unique over the shards.
+ */
+class ShardedCreateBuilder implements CreateBuilder {
+    private final ShardedSqlConnection connection;
+    protected final GlobType globType;
+    private final Field shardKey;
+    private final List<Consumer<CreateBuilder>> setters = new ArrayList<>();
+    private Supplier<Object> shardKeyValue;
+
+    ShardedCreateBuilder(ShardedSqlConnection connection, GlobType globType, Field shardKey) {
+        this.connection = connection;
+        this.globType = globType;
+        this.shardKey = shardKey;
+    }
+
+    private CreateBuilder add(Field field, Object valueOrAccessor, Consumer<CreateBuilder> setter) {
+        if (field == shardKey) {
+            if (valueOrAccessor instanceof Accessor accessor) {
+                shardKeyValue = accessor::getObjectValue;
+            } else {
+                shardKeyValue = () -> valueOrAccessor;
+            }
+        }
+        setters.add(setter);
+        return this;
+    }
+
+    public CreateBuilder set(IntegerField field, Integer value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(BlobField field, byte[] value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(StringField field, String value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(StringArrayField field, String[] value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(LongField field, Long value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(LongArrayField field, long[] value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(DoubleField field, Double value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(BooleanField field, Boolean value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(DateTimeField field, ZonedDateTime value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(DateField field, LocalDate value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(GlobField field, Glob value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(GlobArrayField field, Glob[] values) {
+        return add(field, values, builder -> builder.set(field, values));
+    }
+
+    public CreateBuilder set(GlobUnionField field, Glob value) {
+        return add(field, value, builder -> builder.set(field, value));
+    }
+
+    public CreateBuilder set(GlobArrayUnionField field, Glob[] values) {
+        return add(field, values, builder -> builder.set(field, values));
+    }
+
+    public CreateBuilder set(IntegerField field, IntegerAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(LongField field, LongAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(StringField field, StringAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(StringArrayField field, StringArrayAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(DoubleField field, DoubleAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(BooleanField field, BooleanAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(BlobField field, BlobAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(GlobField field, GlobAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(GlobArrayField field, GlobsAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(GlobUnionField field, GlobAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(GlobArrayUnionField field, GlobsAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(DateTimeField field, DateTimeAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder set(DateField field, DateAccessor accessor) {
+        return add(field, accessor, builder -> builder.set(field, accessor));
+    }
+
+    public CreateBuilder setObject(Field field, Accessor accessor) {
+        return add(field, accessor, builder -> builder.setObject(field, accessor));
+    }
+
+    public CreateBuilder setObject(Field field, Object value) {
+        return add(field, value, builder -> builder.setObject(field, value));
+    }
+    public Accessor getKeyGeneratedAccessor(Field field) {
+        throw new UnexpectedApplicationState("Generated keys are not supported on a sharded service (" + field.getFullName() + ")");
+    }
+
+    public SqlRequest getRequest() {
+        return new ShardedRequest(connection, checkShardKey(), shard -> {
+            CreateBuilder createBuilder = newBuilder(connection.shard(shard));
+            setters.forEach(setter -> setter.accept(createBuilder));
+            return createBuilder.getRequest();
+        });
+    }
+
+    public BulkDbRequest getBulkRequest() {
+        return getBulkRequest(BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkDbRequest getBulkRequest(int batchSize) {
+        return new ShardedRequest(connection, checkShardKey(), shard -> {
+            CreateBuilder createBuilder = newBuilder(connection.shard(shard));
+            setters.forEach(setter -> setter.accept(createBuilder));
+            return createBuilder.getBulkRequest(batchSize);
+        });
+    }
+
+    protected CreateBuilder newBuilder(SqlConnection shardConnection) {
+        return shardConnection.getCreateBuilder(globType);
+    }
+
+    private Supplier<Object> checkShardKey() {
+        if (shardKeyValue == null) {
+            throw new UnexpectedApplicationState("Shard key " + shardKey.getFullName() + " must be set");
+        }
+        return shardKeyValue;
+    }
+}
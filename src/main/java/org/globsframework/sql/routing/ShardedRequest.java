@@ -0,0 +1,81 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.sql.BulkDbRequest;
+import org.globsframework.sql.SqlRequest;
+import org.globsframework.sql.exceptions.SqlException;
+
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/*
+The request of a shard is created on the first run on this shard.
+Without shard key value, the request is run on all shards and the updated row counts are added.
+ */
+class ShardedRequest implements BulkDbRequest {
+    private final ShardedSqlConnection connection;
+    private final Supplier<Object> shardKeyValue;
+    private final IntFunction<SqlRequest> requestFactory;
+    private final SqlRequest[] requests;
+    private int lastShard = -1;
+
+    ShardedRequest(ShardedSqlConnection connection, Supplier<Object> shardKeyValue, IntFunction<SqlRequest> requestFactory) {
+        this.connection = connection;
+        this.shardKeyValue = shardKeyValue;
+        this.requestFactory = requestFactory;
+        this.requests = new SqlRequest[connection.getShardCount()];
+    }
+
+    private SqlRequest request(int shard) {
+        SqlRequest request = requests[shard];
+        if (request == null) {
+            request = requestFactory.apply(shard);
+            requests[shard] = request;
+        }
+        return request;
+    }
+
+    public int run() throws SqlException {
+        if (shardKeyValue == null) {
+            int count = 0;
+            for (int i = 0; i < requests.length; i++) {
+                count += request(i).run();
+            }
+            return count;
+        }
+        lastShard = connection.getShardedSqlService().shardOf(shardKeyValue.get());
+        return request(lastShard).run();
+    }
+
+    public void flush() {
+        for (SqlRequest request : requests) {
+            if (request instanceof BulkDbRequest bulkDbRequest) {
+                bulkDbRequest.flush();
+            }
+        }
+    }
+
+    // the counts of the shard of the last run (if routed by shard key).
+    public int[] getLastUpdateCounts() {
+        if (lastShard != -1 && requests[lastShard] instanceof BulkDbRequest bulkDbRequest) {
+            return bulkDbRequest.getLastUpdateCounts();
+        }
+        return new int[0];
+    }
+
+    public void close() {
+        RuntimeException exception = null;
+        for (int i = 0; i < requests.length; i++) {
+            if (requests[i] != null) {
+                try {
+                    requests[i].close();
+                } catch (RuntimeException e) {
+                    exception = e;
+                }
+                requests[i] = null;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.core.model.FieldValues;
+import org.globsframework.core.streams.accessors.*;
+import org.globsframework.core.utils.Ref;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.SelectBuilder;
+import org.globsframework.sql.SelectQuery;
+import org.globsframework.sql.constraints.Constraint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/*
+Select on all shards : the rows are merged (in order if orderAsc/orderDesc), top and skip are applied on the
+merged rows and count, sum, min, max are combined. Accessors on rows (retrieve, select with Ref) and groupBy
+can not be merged and are refused : use executeAsGlobStream.
+The merge can only order number, boolean and date fields the way the databases do (not the string collation) : the
+other orders are refused. pageAfter add the key fields to the merge order as SqlQueryBuilder does.
+ */
+class ShardedSelectBuilder implements SelectBuilder {
+    private final GlobType globType;
+    private final List<SelectBuilder> builders = new ArrayList<>();
+    private final List<ShardedSelectQuery.Order> orders = new ArrayList<>();
+    private final List<CombinedAccessor> aggregates = new ArrayList<>();
+    private int top = -1;
+    private int skip = -1;
+    private final Comparator<String> stringComparator;
+
+    ShardedSelectBuilder(ShardedSqlConnection connection, GlobType globType, Constraint constraint) {
+        this.globType = globType;
+        this.stringComparator = connection.getShardedSqlService().getStringComparator();
+        for (int i = 0; i < connection.getShardCount(); i++) {
+            builders.add(constraint == null ? connection.shard(i).getQueryBuilder(globType) :
+                    connection.shard(i).getQueryBuilder(globType, constraint));
+        }
+    }
+
+    private void prepare() {
+        if (aggregates.isEmpty()) {
+            // the order fields are needed to merge the rows of each shard.
+            for (ShardedSelectQuery.Order order : orders) {
+                builders.forEach(builder -> builder.select(order.field()));
+            }
+        }
+        if (top != -1) {
+            int shardTop = top + Math.max(skip, 0);
+            builders.forEach(builder -> builder.top(shardTop));
+        }
+    }
+
+    public SelectQuery getQuery() {
+        prepare();
+        return new ShardedSelectQuery(builders.stream().map(SelectBuilder::getQuery).toList(), orders, stringComparator, aggregates, top, skip);
+    }
+
+    public SelectQuery getQuery(String sql) {
+        return new ShardedSelectQuery(builders.stream().map(builder -> builder.getQuery(sql)).toList(), List.of(), stringComparator, List.of(), -1, -1);
+    }
+
+    public SelectQuery getNotAutoCloseQuery() {
+        prepare();
+        return new ShardedSelectQuery(builders.stream().map(SelectBuilder::getNotAutoCloseQuery).toList(), orders, stringComparator, aggregates, top, skip);
+    }
+
+    public SelectBuilder select(Field field) {
+        builders.forEach(builder -> builder.select(field));
+        return this;
+    }
+
+    public SelectBuilder selectAll() {
+        builders.forEach(SelectBuilder::selectAll);
+        return this;
+    }
+
+    public SelectBuilder select(IntegerField field, Ref<IntegerAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(LongField field, Ref<LongAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(BooleanField field, Ref<BooleanAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(StringField field, Ref<StringAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(DoubleField field, Ref<DoubleAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(DateTimeField field, Ref<DateTimeAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(DateField field, Ref<DateAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(BlobField field, Ref<BlobAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(GlobField field, Ref<GlobAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(GlobArrayField field, Ref<GlobsAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+
+    public SelectBuilder select(LongArrayField field, Ref<LongArrayAccessor> accessor) {
+        throw unsupported("select with accessor");
+    }
+    public SelectBuilder groupBy(Field field) {
+        throw unsupported("groupBy");
+    }
+
+    public SelectBuilder orderAsc(Field field) {
+        addOrder(field, true);
+        builders.forEach(builder -> builder.orderAsc(field));
+        return this;
+    }
+
+    public SelectBuilder orderDesc(Field field) {
+        addOrder(field, false);
+        builders.forEach(builder -> builder.orderDesc(field));
+        return this;
+    }
+
+    private void addOrder(Field field, boolean asc) {
+        if (!(field instanceof IntegerField || field instanceof LongField || field instanceof DoubleField ||
+              field instanceof BooleanField || field instanceof DateField || field instanceof DateTimeField ||
+              field instanceof StringField)) {
+            throw unsupported("order on " + field.getFullName());
+        }
+        orders.add(new ShardedSelectQuery.Order(field, asc));
+    }
+
+    public SelectBuilder top(int n) {
+        top = n;
+        return this;
+    }
+
+    public SelectBuilder skip(int n) {
+        skip = n;
+        return this;
+    }
+
+    public SelectBuilder pageAfter(FieldValues lastRow) {
+        if (orders.isEmpty()) {
+            throw new UnexpectedApplicationState("pageAfter need an order (orderAsc/orderDesc must be called before)");
+        }
+        for (Field keyField : globType.getKeyFields()) {
+            if (orders.stream().noneMatch(order -> order.field() == keyField)) {
+                addOrder(keyField, true);
+            }
+        }
+        builders.forEach(builder -> builder.pageAfter(lastRow));
+        return this;
+    }
+
+    public SelectBuilder withKeys() {
+        builders.forEach(SelectBuilder::withKeys);
+        return this;
+    }
+
+    public SelectBuilder fetchSize(int n) {
+        builders.forEach(builder -> builder.fetchSize(n));
+        return this;
+    }
+
+    private <T> List<T> shardAccessors(Function<SelectBuilder, T> accessor) {
+        return builders.stream().map(accessor).toList();
+    }
+
+    private <T extends CombinedAccessor> T aggregate(T accessor) {
+        aggregates.add(accessor);
+        return accessor;
+    }
+
+    public IntegerAccessor max(IntegerField field) {
+        return aggregate(new CombinedAccessor.IntegerCombinedAccessor(shardAccessors(builder -> builder.max(field)), Math::max));
+    }
+
+    public LongAccessor max(LongField field) {
+        return aggregate(new CombinedAccessor.LongCombinedAccessor(shardAccessors(builder -> builder.max(field)), Math::max));
+    }
+
+    public LongAccessor count(Field field) {
+        return aggregate(new CombinedAccessor.LongCombinedAccessor(shardAccessors(builder -> builder.count(field)), Long::sum));
+    }
+
+    public LongAccessor totalCount() {
+        throw unsupported("totalCount");
+    }
+
+    public LongAccessor sum(IntegerField field) {
+        return aggregate(new CombinedAccessor.LongCombinedAccessor(shardAccessors(builder -> builder.sum(field)), Long::sum));
+    }
+
+    public LongAccessor sum(LongField field) {
+        return aggregate(new CombinedAccessor.LongCombinedAccessor(shardAccessors(builder -> builder.sum(field)), Long::sum));
+    }
+
+    public IntegerAccessor min(IntegerField field) {
+        return aggregate(new CombinedAccessor.IntegerCombinedAccessor(shardAccessors(builder -> builder.min(field)), Math::min));
+    }
+
+    public LongAccessor min(LongField field) {
+        return aggregate(new CombinedAccessor.LongCombinedAccessor(shardAccessors(builder -> builder.min(field)), Math::min));
+    }
+
+    public IntegerAccessor retrieve(IntegerField field) {
+        throw unsupported("retrieve");
+    }
+
+    public LongAccessor retrieve(LongField field) {
+        throw unsupported("retrieve");
+    }
+
+    public StringAccessor retrieve(StringField field) {
+        throw unsupported("retrieve");
+    }
+
+    public BooleanAccessor retrieve(BooleanField field) {
+        throw unsupported("retrieve");
+    }
+
+    public DoubleAccessor retrieve(DoubleField field) {
+        throw unsupported("retrieve");
+    }
+
+    public DateTimeAccessor retrieve(DateTimeField field) {
+        throw unsupported("retrieve");
+    }
+
+    public DateAccessor retrieve(DateField field) {
+        throw unsupported("retrieve");
+    }
+
+    public BlobAccessor retrieve(BlobField field) {
+        throw unsupported("retrieve");
+    }
+
+    public StringArrayAccessor retrieve(StringArrayField field) {
+        throw unsupported("retrieve");
+    }
+
+    public IntegerArrayAccessor retrieve(IntegerArrayField field) {
+        throw unsupported("retrieve");
+    }
+
+    public LongArrayAccessor retrieve(LongArrayField field) {
+        throw unsupported("retrieve");
+    }
+
+    public DoubleArrayAccessor retrieve(DoubleArrayField field) {
+        throw unsupported("retrieve");
+    }
+
+    public BooleanArrayAccessor retrieve(BooleanArrayField field) {
+        throw unsupported("retrieve");
+    }
+
+    public GlobAccessor retrieve(GlobField field) {
+        throw unsupported("retrieve");
+    }
+
+    public GlobAccessor retrieve(GlobUnionField field) {
+        throw unsupported("retrieve");
+    }
+
+    public GlobsAccessor retrieve(GlobArrayField field) {
+        throw unsupported("retrieve");
+    }
+
+    public GlobsAccessor retrieve(GlobArrayUnionField field) {
+        throw unsupported("retrieve");
+    }
+
+    public Accessor retrieveUnTyped(Field field) {
+        throw unsupported("retrieve");
+    }
+    private static UnexpectedApplicationState unsupported(String method) {
+        return new UnexpectedApplicationState(method + " is not supported on a query over all shards (no equality on the shard key)");
+    }
+}
@@ -0,0 +1,272 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.metamodel.fields.StringField;
+import org.globsframework.core.model.FieldValues;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.streams.GlobStream;
+import org.globsframework.core.streams.accessors.Accessor;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.SelectQuery;
+import org.globsframework.sql.utils.ThreadUtils;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+The shards are read in parallel (prefetched stream on each shard) ; with an order, the rows are merged
+with a k-way merge on the order fields. The databases do not sort null values the same way (first or last) :
+a null value in an order field fail the merge. Strings are compared with the stringComparator, that must sort as
+the collation of the shards.
+ */
+class ShardedSelectQuery implements SelectQuery {
+    private final List<SelectQuery> queries;
+    private final List<Order> orders;
+    private final Comparator<String> stringComparator;
+    private final List<CombinedAccessor> aggregates;
+    private final int top;
+    private final int skip;
+
+    record Order(Field field, boolean asc) {
+    }
+
+    ShardedSelectQuery(List<SelectQuery> queries, List<Order> orders, Comparator<String> stringComparator,
+                       List<CombinedAccessor> aggregates, int top, int skip) {
+        this.queries = queries;
+        this.orders = List.copyOf(orders);
+        this.stringComparator = stringComparator;
+        this.aggregates = List.copyOf(aggregates);
+        this.top = top;
+        this.skip = skip;
+    }
+
+    public Stream<?> executeAsStream() {
+        return executeAsGlobStream();
+    }
+
+    public Stream<Glob> executeAsGlobStream() {
+        List<Stream<Glob>> streams = new ArrayList<>(queries.size());
+        try {
+            for (SelectQuery query : queries) {
+                streams.add(query.executeAsPrefetchedGlobStream());
+            }
+        } catch (RuntimeException e) {
+            closeAll(streams);
+            throw e;
+        }
+        Stream<Glob> merged;
+        if (orders.isEmpty()) {
+            merged = streams.stream().flatMap(Function.identity());
+        } else {
+            merged = StreamSupport.stream(Spliterators.spliteratorUnknownSize(new MergeIterator(streams, comparator()),
+                    Spliterator.ORDERED | Spliterator.NONNULL), false);
+        }
+        if (skip > 0) {
+            merged = merged.skip(skip);
+        }
+        if (top >= 0) {
+            merged = merged.limit(top);
+        }
+        return merged.onClose(() -> closeAll(streams));
+    }
+
+    public Stream<FieldValues> executeAsFieldValuesStream() {
+        return executeAsGlobStream().map(FieldValues.class::cast);
+    }
+
+    public Stream<Glob> executeAsPrefetchedGlobStream(int batchSize, int maxPendingBatches) {
+        return executeAsGlobStream();
+    }
+
+    // only for count, sum, min and max : the returned stream has one row, the values are on the accessors of the builder.
+    public GlobStream execute() {
+        if (aggregates.isEmpty()) {
+            throw new UnexpectedApplicationState("Row accessors are not supported on a query over all shards, use executeAsGlobStream");
+        }
+        aggregates.forEach(CombinedAccessor::reset);
+        Executor executor = ThreadUtils.getDefaultExecutor();
+        List<CompletableFuture<GlobStream>> results = new ArrayList<>(queries.size());
+        for (SelectQuery query : queries) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                GlobStream globStream = query.execute();
+                return globStream.next() ? globStream : null;
+            }, executor));
+        }
+        RuntimeException exception = null;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                GlobStream globStream = results.get(i).join();
+                if (globStream != null) {
+                    if (exception == null) {
+                        for (CombinedAccessor aggregate : aggregates) {
+                            aggregate.accumulate(i);
+                        }
+                    }
+                    globStream.close();
+                }
+            } catch (CompletionException e) {
+                if (exception == null) {
+                    exception = e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+        return new GlobStream() {
+            private boolean first = true;
+
+            public boolean next() {
+                boolean hasNext = first;
+                first = false;
+                return hasNext;
+            }
+
+            public Collection<Field> getFields() {
+                return List.of();
+            }
+
+            public Accessor getAccessor(Field field) {
+                return null;
+            }
+
+            public void close() {
+            }
+        };
+    }
+
+    public Flow.Publisher<Glob> executeAsPublisher(Executor executor) {
+        throw new UnexpectedApplicationState("Publisher is not supported on a query over all shards");
+    }
+
+    public List<Glob> executeAsGlobs() {
+        List<Glob> result = new ArrayList<>();
+        try (Stream<Glob> globStream = executeAsGlobStream()) {
+            globStream.forEach(result::add);
+        }
+        return result;
+    }
+
+    // order, top and skip are not applied.
+    public Stream<Glob> executeAsParallelGlobStream(Field rangeField, int partitions) {
+        List<Stream<Glob>> streams = new ArrayList<>(queries.size());
+        try {
+            for (SelectQuery query : queries) {
+                streams.add(query.executeAsParallelGlobStream(rangeField, partitions));
+            }
+        } catch (RuntimeException e) {
+            closeAll(streams);
+            throw e;
+        }
+        return streams.parallelStream().flatMap(Function.identity()).onClose(() -> closeAll(streams));
+    }
+
+    public Stream<Glob> executeAsParallelGlobStream(int partitions) {
+        List<Stream<Glob>> streams = new ArrayList<>(queries.size());
+        try {
+            for (SelectQuery query : queries) {
+                streams.add(query.executeAsParallelGlobStream(partitions));
+            }
+        } catch (RuntimeException e) {
+            closeAll(streams);
+            throw e;
+        }
+        return streams.parallelStream().flatMap(Function.identity()).onClose(() -> closeAll(streams));
+    }
+
+    public void close() {
+        queries.forEach(SelectQuery::close);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparator<Glob> comparator() {
+        Comparator<Glob> comparator = null;
+        for (Order order : orders) {
+            Comparator<Glob> fieldComparator = order.field() instanceof StringField ?
+                    Comparator.comparing((Glob glob) -> (String) getMergeValue(glob, order.field()), stringComparator) :
+                    Comparator.comparing((Glob glob) -> (Comparable<Object>) getMergeValue(glob, order.field()));
+            if (!order.asc()) {
+                fieldComparator = fieldComparator.reversed();
+            }
+            comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
+        }
+        return comparator;
+    }
+
+    // date times are compared on their instant, as the databases do.
+    private static Object getMergeValue(Glob glob, Field field) {
+        Object value = glob.getValue(field);
+        if (value == null) {
+            throw new UnexpectedApplicationState("Can not merge the shards on " + field.getFullName() +
+                                                 " : null value (the databases do not sort null the same way)");
+        }
+        if (value instanceof ZonedDateTime dateTime) {
+            return dateTime.toInstant();
+        }
+        return value;
+    }
+
+    private static void closeAll(List<Stream<Glob>> streams) {
+        RuntimeException exception = null;
+        for (Stream<Glob> stream : streams) {
+            try {
+                stream.close();
+            } catch (RuntimeException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    public String toString() {
+        return "Sharded" + queries;
+    }
+
+    static class MergeIterator implements Iterator<Glob> {
+        private final List<Stream<Glob>> streams;
+        private final PriorityQueue<Head> heads;
+        private boolean started;
+
+        record Head(Glob current, Iterator<Glob> iterator) {
+        }
+
+        MergeIterator(List<Stream<Glob>> streams, Comparator<Glob> comparator) {
+            this.streams = streams;
+            this.heads = new PriorityQueue<>(Math.max(1, streams.size()), Comparator.comparing(Head::current, comparator));
+        }
+
+        public boolean hasNext() {
+            if (!started) {
+                started = true;
+                for (Stream<Glob> stream : streams) {
+                    push(stream.iterator());
+                }
+            }
+            return !heads.isEmpty();
+        }
+
+        public Glob next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Head head = heads.poll();
+            push(head.iterator());
+            return head.current();
+        }
+
+        private void push(Iterator<Glob> iterator) {
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.sql.*;
+import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.exceptions.DbConstraintViolation;
+import org.globsframework.sql.exceptions.RollbackFailed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+A connection on a shard is opened on its first request. commit and rollback are done on each opened shard
+connection : if a commit fail, the following shards are rolled back but the previous ones stay committed.
+ */
+class ShardedSqlConnection implements SqlConnection {
+    private final ShardedSqlService shardedSqlService;
+    private final boolean autoCommit;
+    private final SqlConnection[] connections;
+    private boolean readOnly;
+
+    ShardedSqlConnection(ShardedSqlService shardedSqlService, boolean autoCommit) {
+        this.shardedSqlService = shardedSqlService;
+        this.autoCommit = autoCommit;
+        this.connections = new SqlConnection[shardedSqlService.getShardCount()];
+    }
+
+    SqlConnection shard(int index) {
+        SqlConnection connection = connections[index];
+        if (connection == null) {
+            SqlService shard = shardedSqlService.getShard(index);
+            connection = autoCommit ? shard.getAutoCommitDb() : shard.getDb();
+            if (readOnly) {
+                connection.setReadOnly(true);
+            }
+            connections[index] = connection;
+        }
+        return connection;
+    }
+
+    int getShardCount() {
+        return connections.length;
+    }
+
+    ShardedSqlService getShardedSqlService() {
+        return shardedSqlService;
+    }
+
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        for (SqlConnection connection : connections) {
+            if (connection != null) {
+                connection.setReadOnly(readOnly);
+            }
+        }
+    }
+
+    public SelectBuilder getQueryBuilder(GlobType globType) {
+        return new ShardedSelectBuilder(this, globType, null);
+    }
+
+    public SelectBuilder getQueryBuilder(GlobType globType, Constraint constraint) {
+        Supplier<Object> shardKeyValue = ShardKeyFinder.find(constraint, shardedSqlService.findShardKey(globType), false);
+        if (shardKeyValue != null) {
+            return shard(shardedSqlService.shardOf(shardKeyValue.get())).getQueryBuilder(globType, constraint);
+        }
+        return new ShardedSelectBuilder(this, globType, constraint);
+    }
+
+    public CreateBuilder getCreateBuilder(GlobType globType) {
+        return new ShardedCreateBuilder(this, globType, shardedSqlService.getShardKey(globType));
+    }
+
+    public UpsertBuilder getUpsertBuilder(GlobType globType, Field... conflictKeys) {
+        return new ShardedUpsertBuilder(this, globType, shardedSqlService.getShardKey(globType), conflictKeys);
+    }
+
+    public UpdateBuilder getUpdateBuilder(GlobType globType, Constraint constraint) {
+        Supplier<Object> shardKeyValue = ShardKeyFinder.find(constraint, shardedSqlService.findShardKey(globType), true);
+        return new ShardedUpdateBuilder(this, globType, constraint, shardKeyValue);
+    }
+
+    public SqlRequest getDeleteRequest(GlobType globType) {
+        return new ShardedRequest(this, null, shard -> shard(shard).getDeleteRequest(globType));
+    }
+
+    public SqlRequest getDeleteRequest(GlobType globType, Constraint constraint) {
+        Supplier<Object> shardKeyValue = ShardKeyFinder.find(constraint, shardedSqlService.findShardKey(globType), true);
+        return new ShardedRequest(this, shardKeyValue, shard -> shard(shard).getDeleteRequest(globType, constraint));
+    }
+
+    public void commit() throws RollbackFailed, DbConstraintViolation {
+        for (SqlConnection connection : connections) {
+            if (connection != null) {
+                connection.commit();
+            }
+        }
+    }
+
+    public void commitAndClose() throws RollbackFailed, DbConstraintViolation {
+        try {
+            for (int i = 0; i < connections.length; i++) {
+                if (connections[i] != null) {
+                    SqlConnection connection = connections[i];
+                    connections[i] = null;
+                    connection.commitAndClose();
+                }
+            }
+        } catch (RuntimeException e) {
+            try {
+                rollbackAndClose();
+            } catch (RuntimeException rollbackException) {
+                e.addSuppressed(rollbackException);
+            }
+            throw e;
+        }
+    }
+
+    public void rollbackAndClose() {
+        RuntimeException exception = null;
+        for (int i = 0; i < connections.length; i++) {
+            if (connections[i] != null) {
+                try {
+                    connections[i].rollbackAndClose();
+                } catch (RuntimeException e) {
+                    exception = e;
+                }
+                connections[i] = null;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private List<SqlConnection> allShards() {
+        List<SqlConnection> shards = new ArrayList<>(connections.length);
+        for (int i = 0; i < connections.length; i++) {
+            shards.add(shard(i));
+        }
+        return shards;
+    }
+
+    public void createTable(GlobType globType) {
+        allShards().forEach(connection -> connection.createTable(globType));
+    }
+
+    public void addColumn(Field... column) {
+        allShards().forEach(connection -> connection.addColumn(column));
+    }
+
+    public void emptyTable(GlobType globType) {
+        allShards().forEach(connection -> connection.emptyTable(globType));
+    }
+
+    public GlobTypeExtractor extractType(String tableName) {
+        return shard(0).extractType(tableName);
+    }
+
+    public GlobType extractFromQuery(String query) {
+        return shard(0).extractFromQuery(query);
+    }
+
+    public void populate(Collection<Glob> all) {
+        List<List<Glob>> byShard = new ArrayList<>(connections.length);
+        for (int i = 0; i < connections.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (Glob glob : all) {
+            Field shardKey = shardedSqlService.getShardKey(glob.getType());
+            byShard.get(shardedSqlService.shardOf(glob.getValue(shardKey))).add(glob);
+        }
+        for (int i = 0; i < connections.length; i++) {
+            if (!byShard.get(i).isEmpty()) {
+                shard(i).populate(byShard.get(i));
+            }
+        }
+    }
+
+    public SqlService getJdbcSqlService() {
+        return shardedSqlService;
+    }
+}
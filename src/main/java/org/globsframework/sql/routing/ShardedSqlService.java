@@ -0,0 +1,142 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.SqlService;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Split the rows of each GlobType over N databases by the hash of a shard key field (the key field by default).
+Create, update and delete go to the shard of the shard key value (or to all shards if the constraint has no
+equality on it) ; select without equality on the shard key are executed on all shards and merged.
+String orders are merged with the string comparator (see setStringComparator) : binary order by default, the one
+of the C collation. With another database collation, the merged rows are not in the database order.
+There is no two phase commit : a commit is done shard after shard.
+ */
+public class ShardedSqlService implements SqlService {
+    private final List<SqlService> shards;
+    private final Map<GlobType, Field> shardKeys = new ConcurrentHashMap<>();
+    private Comparator<String> stringComparator = Comparator.naturalOrder();
+
+    public ShardedSqlService(List<SqlService> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is needed");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public ShardedSqlService setShardKey(Field field) {
+        shardKeys.put(field.getGlobType(), field);
+        return this;
+    }
+
+    // must sort as the collation of the ordered columns in the shards.
+    public ShardedSqlService setStringComparator(Comparator<String> stringComparator) {
+        this.stringComparator = stringComparator;
+        return this;
+    }
+
+    Comparator<String> getStringComparator() {
+        return stringComparator;
+    }
+
+    // null if the type has no shard key (no declared field and not a single key)
+    Field findShardKey(GlobType globType) {
+        Field field = shardKeys.get(globType);
+        if (field != null) {
+            return field;
+        }
+        Field[] keyFields = globType.getKeyFields();
+        return keyFields.length == 1 ? keyFields[0] : null;
+    }
+
+    Field getShardKey(GlobType globType) {
+        Field field = findShardKey(globType);
+        if (field == null) {
+            throw new UnexpectedApplicationState("No shard key for " + globType.getName() + " (see setShardKey)");
+        }
+        return field;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public SqlService getShard(int index) {
+        return shards.get(index);
+    }
+
+    public int shardOf(Object shardKeyValue) {
+        if (shardKeyValue == null) {
+            throw new UnexpectedApplicationState("Shard key value is null");
+        }
+        return Math.floorMod(hashOf(shardKeyValue), shards.size());
+    }
+
+    // depend only on the value (not on the java type, the zone or the jvm) : equal values go to the same shard.
+    static int hashOf(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            long longValue = ((Number) value).longValue();
+            return longValue == (int) longValue ? (int) longValue : Long.hashCode(longValue);
+        }
+        if (value instanceof ZonedDateTime dateTime) {
+            return hashOf(dateTime.toInstant());
+        }
+        if (value instanceof Instant instant) {
+            return 31 * Long.hashCode(instant.getEpochSecond()) + instant.getNano();
+        }
+        if (value instanceof LocalDate date) {
+            return Long.hashCode(date.toEpochDay());
+        }
+        if (value instanceof String || value instanceof Boolean || value instanceof Double) {
+            // hashCode specified by the jdk
+            return value.hashCode();
+        }
+        if (value instanceof byte[] bytes) {
+            return Arrays.hashCode(bytes);
+        }
+        throw new UnexpectedApplicationState("Unsupported shard key value " + value + " (" + value.getClass().getName() + ")");
+    }
+
+    public SqlConnection getDb() {
+        return new ShardedSqlConnection(this, false);
+    }
+
+    public SqlConnection getAutoCommitDb() {
+        return new ShardedSqlConnection(this, true);
+    }
+
+    public String getTableName(GlobType globType, boolean escaped) {
+        return shards.get(0).getTableName(globType, escaped);
+    }
+
+    public String getTableName(String name, boolean escaped) {
+        return shards.get(0).getTableName(name, escaped);
+    }
+
+    public String getColumnName(Field field, boolean escaped) {
+        return shards.get(0).getColumnName(field, escaped);
+    }
+
+    public String getQualifiedColumnName(Field field) {
+        return shards.get(0).getQualifiedColumnName(field);
+    }
+
+    public String getColumnName(String field, boolean escaped) {
+        return shards.get(0).getColumnName(field, escaped);
+    }
+
+    public String getLikeIgnoreCase() {
+        return shards.get(0).getLikeIgnoreCase();
+    }
+}
@@ -0,0 +1,159 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.*;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.streams.accessors.*;
+import org.globsframework.sql.BulkDbRequest;
+import org.globsframework.sql.SqlRequest;
+import org.globsframework.sql.UpdateBuilder;
+import org.globsframework.sql.constraints.Constraint;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// run on the shard of the shard key value of the constraint, or on all shards.
+class ShardedUpdateBuilder implements UpdateBuilder {
+    private final ShardedSqlConnection connection;
+    private final GlobType globType;
+    private final Constraint constraint;
+    private final Supplier<Object> shardKeyValue;
+    private final List<Consumer<UpdateBuilder>> updates = new ArrayList<>();
+
+    ShardedUpdateBuilder(ShardedSqlConnection connection, GlobType globType, Constraint constraint, Supplier<Object> shardKeyValue) {
+        this.connection = connection;
+        this.globType = globType;
+        this.constraint = constraint;
+        this.shardKeyValue = shardKeyValue;
+    }
+
+    private UpdateBuilder add(Consumer<UpdateBuilder> update) {
+        updates.add(update);
+        return this;
+    }
+
+    public UpdateBuilder updateUntyped(Field field, Object value) {
+        return add(builder -> builder.updateUntyped(field, value));
+    }
+
+    public UpdateBuilder updateUntyped(Field field, Accessor accessor) {
+        return add(builder -> builder.updateUntyped(field, accessor));
+    }
+
+    public UpdateBuilder update(IntegerField field, IntegerAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(IntegerField field, Integer value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(LongField field, LongAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(LongField field, Long value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(DoubleField field, DoubleAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(DoubleField field, Double value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(StringField field, StringAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(StringArrayField field, StringArrayAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(StringField field, String value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(DateTimeField field, ZonedDateTime value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(DateField field, LocalDate value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(DateTimeField field, DateTimeAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(DateField field, DateAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(StringArrayField field, String[] value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(BooleanField field, BooleanAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(BooleanField field, Boolean value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(BlobField field, byte[] value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(BlobField field, BlobAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(GlobField field, GlobAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(GlobField field, Glob value) {
+        return add(builder -> builder.update(field, value));
+    }
+
+    public UpdateBuilder update(GlobArrayField field, GlobsAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(GlobArrayField field, Glob[] values) {
+        return add(builder -> builder.update(field, values));
+    }
+
+    public UpdateBuilder update(LongArrayField field, LongArrayAccessor accessor) {
+        return add(builder -> builder.update(field, accessor));
+    }
+
+    public UpdateBuilder update(LongArrayField field, long[] values) {
+        return add(builder -> builder.update(field, values));
+    }
+    private UpdateBuilder shardBuilder(int shard) {
+        UpdateBuilder updateBuilder = connection.shard(shard).getUpdateBuilder(globType, constraint);
+        updates.forEach(update -> update.accept(updateBuilder));
+        return updateBuilder;
+    }
+
+    public SqlRequest getRequest() {
+        return new ShardedRequest(connection, shardKeyValue, shard -> shardBuilder(shard).getRequest());
+    }
+
+    public BulkDbRequest getBulkRequest() {
+        return getBulkRequest(BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkDbRequest getBulkRequest(int batchSize) {
+        return new ShardedRequest(connection, shardKeyValue, shard -> shardBuilder(shard).getBulkRequest(batchSize));
+    }
+}
@@ -0,0 +1,43 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.streams.accessors.Accessor;
+import org.globsframework.sql.CreateBuilder;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.UpsertBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// the row is upserted in the shard of its shard key.
+class ShardedUpsertBuilder extends ShardedCreateBuilder implements UpsertBuilder {
+    private final Field[] conflictKeys;
+    private final Map<Field, UpdatePolicy> policies = new LinkedHashMap<>();
+
+    ShardedUpsertBuilder(ShardedSqlConnection connection, GlobType globType, Field shardKey, Field[] conflictKeys) {
+        super(connection, globType, shardKey);
+        this.conflictKeys = conflictKeys;
+    }
+
+    public UpsertBuilder onConflict(Field field, UpdatePolicy policy) {
+        policies.put(field, policy);
+        return this;
+    }
+
+    public UpsertBuilder setObject(Field field, Accessor accessor) {
+        super.setObject(field, accessor);
+        return this;
+    }
+
+    public UpsertBuilder setObject(Field field, Object value) {
+        super.setObject(field, value);
+        return this;
+    }
+
+    protected CreateBuilder newBuilder(SqlConnection shardConnection) {
+        UpsertBuilder upsertBuilder = shardConnection.getUpsertBuilder(globType, conflictKeys);
+        policies.forEach(upsertBuilder::onConflict);
+        return upsertBuilder;
+    }
+}
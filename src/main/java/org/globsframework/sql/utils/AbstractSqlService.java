@@ -5,9 +5,19 @@ import org.globsframework.core.metamodel.fields.Field;
 import org.globsframework.core.utils.Strings;
 import org.globsframework.sql.SqlService;
 import org.globsframework.sql.drivers.jdbc.NamingMapping;
+import org.globsframework.sql.drivers.jdbc.SqlTemplateCache;
+import org.globsframework.sql.drivers.jdbc.SqlTypeMetadata;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractSqlService implements SqlService {
     private NamingMapping namingMapping;
+    private final SqlTemplateCache sqlTemplateCache = new SqlTemplateCache();
+    // no eviction : once full, the names of the other types (as the ones extracted from queries) are computed
+    // by the NamingMapping on each call.
+    private static final int MAX_CACHED_TYPES = 4096;
+    private final Map<GlobType, SqlTypeMetadata> typeMetadata = new ConcurrentHashMap<>();
 
     private static final String[] RESERVED_KEYWORDS = {
             "COUNT", "WHERE", "FROM", "SELECT", "ORDER"
@@ -36,8 +46,22 @@ public abstract class AbstractSqlService implements SqlService {
         return namingMapping;
     }
 
+    public SqlTemplateCache getSqlTemplateCache() {
+        return sqlTemplateCache;
+    }
+
+    // null if not cached and the cache is full
+    private SqlTypeMetadata findTypeMetadata(GlobType globType) {
+        SqlTypeMetadata metadata = typeMetadata.get(globType);
+        if (metadata == null && typeMetadata.size() < MAX_CACHED_TYPES) {
+            metadata = typeMetadata.computeIfAbsent(globType, type -> new SqlTypeMetadata(type, namingMapping));
+        }
+        return metadata;
+    }
+
     public String getTableName(GlobType globType, boolean escaped) {
-        return namingMapping.getTableName(globType, escaped);
+        SqlTypeMetadata metadata = findTypeMetadata(globType);
+        return metadata != null ? metadata.getTableName(escaped) : namingMapping.getTableName(globType, escaped);
     }
 
     public String getTableName(String name, boolean escaped) {
@@ -53,7 +77,19 @@ public abstract class AbstractSqlService implements SqlService {
     }
 
     public String getColumnName(Field field, boolean escaped) {
+        SqlTypeMetadata metadata = findTypeMetadata(field.getGlobType());
+        if (metadata != null && metadata.contains(field)) {
+            return metadata.getColumnName(field, escaped);
+        }
         return namingMapping.getColumnName(field, escaped);
     }
 
+    public String getQualifiedColumnName(Field field) {
+        SqlTypeMetadata metadata = findTypeMetadata(field.getGlobType());
+        if (metadata != null && metadata.contains(field)) {
+            return metadata.getQualifiedColumnName(field);
+        }
+        return getTableName(field.getGlobType(), true) + "." + namingMapping.getColumnName(field, true);
+    }
+
 }
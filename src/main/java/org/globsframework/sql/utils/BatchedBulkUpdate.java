@@ -0,0 +1,84 @@
+package org.globsframework.sql.utils;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.streams.accessors.Accessor;
+import org.globsframework.sql.BulkDbRequest;
+import org.globsframework.sql.BulkUpdate;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.UpdateBuilder;
+import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.constraints.Constraints;
+
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Default SqlConnection.getBulkUpdate : one batched update by key.
+public class BatchedBulkUpdate implements BulkUpdate {
+    private final SqlConnection sqlConnection;
+    private final GlobType globType;
+    private final Field[] setFields;
+    private final int batchSize;
+
+    public BatchedBulkUpdate(SqlConnection sqlConnection, GlobType globType, Field[] setFields, int batchSize) {
+        this.sqlConnection = sqlConnection;
+        this.globType = globType;
+        this.setFields = setFields;
+        this.batchSize = batchSize;
+    }
+
+    public int update(Stream<Glob> globs) {
+        Glob[] current = new Glob[1];
+        Constraint keyConstraint = null;
+        for (Field keyField : globType.getKeyFields()) {
+            keyConstraint = Constraints.and(keyConstraint, Constraints.equalsObject(keyField, new CurrentValue(current, keyField)));
+        }
+        UpdateBuilder updateBuilder = sqlConnection.getUpdateBuilder(globType, keyConstraint);
+        for (Field field : setFields) {
+            updateBuilder.updateUntyped(field, new CurrentValue(current, field));
+        }
+        int count = 0;
+        int runs = 0;
+        try (BulkDbRequest request = updateBuilder.getBulkRequest(batchSize)) {
+            for (Iterator<Glob> iterator = globs.iterator(); iterator.hasNext(); ) {
+                current[0] = iterator.next();
+                count += request.run();
+                runs++;
+            }
+            // the batch is sent every batchSize run
+            if (runs % batchSize != 0) {
+                request.flush();
+                count += sum(request.getLastUpdateCounts());
+            }
+        }
+        return count;
+    }
+
+    private static int sum(int[] updateCounts) {
+        int count = 0;
+        for (int updateCount : updateCounts) {
+            if (updateCount > 0) {
+                count += updateCount;
+            } else if (updateCount == Statement.SUCCESS_NO_INFO) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static class CurrentValue implements Accessor {
+        private final Glob[] current;
+        private final Field field;
+
+        CurrentValue(Glob[] current, Field field) {
+            this.current = current;
+            this.field = field;
+        }
+
+        public Object getObjectValue() {
+            return current[0].getValue(field);
+        }
+    }
+}
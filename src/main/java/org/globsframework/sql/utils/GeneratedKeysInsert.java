@@ -0,0 +1,88 @@
+package org.globsframework.sql.utils;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.annotations.AutoIncrement;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.model.Key;
+import org.globsframework.core.model.MutableGlob;
+import org.globsframework.core.streams.accessors.Accessor;
+import org.globsframework.sql.BulkDbRequest;
+import org.globsframework.sql.CreateBuilder;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.SqlRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+Default SqlConnection.createAndGetKeys : one insert per glob, the generated values are read after each insert.
+The inserted fields are given by the first glob (see InsertBulkLoader) : the other auto increment fields are generated.
+ */
+public class GeneratedKeysInsert {
+
+    public static List<Key> insert(SqlConnection sqlConnection, GlobType globType, List<? extends Glob> globs) {
+        if (globs.isEmpty()) {
+            return List.of();
+        }
+        List<Field> fields = InsertBulkLoader.getLoadedFields(globs.get(0));
+        List<Field> generated = getGeneratedFields(globType, fields);
+        List<Key> keys = new ArrayList<>(globs.size());
+        if (generated.isEmpty()) {
+            InsertBulkLoader.load(sqlConnection, globType, Collections.<Glob>unmodifiableList(globs).iterator(),
+                    BulkDbRequest.DEFAULT_BATCH_SIZE);
+            for (Glob glob : globs) {
+                keys.add(glob.getKey());
+            }
+            return keys;
+        }
+        Glob[] current = new Glob[1];
+        CreateBuilder createBuilder = sqlConnection.getCreateBuilder(globType);
+        for (Field field : fields) {
+            createBuilder.setObject(field, new Accessor() {
+                public Object getObjectValue() {
+                    return current[0].getValue(field);
+                }
+            });
+        }
+        Accessor[] generatedAccessors = new Accessor[generated.size()];
+        for (int i = 0; i < generatedAccessors.length; i++) {
+            generatedAccessors[i] = createBuilder.getKeyGeneratedAccessor(generated.get(i));
+        }
+        try (SqlRequest request = createBuilder.getRequest()) {
+            for (Glob glob : globs) {
+                current[0] = glob;
+                request.run();
+                Object[] values = new Object[generatedAccessors.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = generatedAccessors[i].getObjectValue();
+                }
+                keys.add(getKey(glob, generated, values));
+            }
+        }
+        return keys;
+    }
+
+    public static List<Field> getGeneratedFields(GlobType globType, List<Field> insertedFields) {
+        List<Field> generated = new ArrayList<>();
+        for (Field field : globType.getFields()) {
+            if (field.hasAnnotation(AutoIncrement.KEY) && !insertedFields.contains(field)) {
+                generated.add(field);
+            }
+        }
+        return generated;
+    }
+
+    // the key of the inserted glob : its key values completed with the generated values.
+    public static Key getKey(Glob glob, List<Field> generated, Object[] generatedValues) {
+        MutableGlob inserted = glob.getType().instantiate();
+        for (Field keyField : glob.getType().getKeyFields()) {
+            inserted.setValue(keyField, glob.getValue(keyField));
+        }
+        for (int i = 0; i < generatedValues.length; i++) {
+            inserted.setValue(generated.get(i), generatedValues[i]);
+        }
+        return inserted.getKey();
+    }
+}
@@ -0,0 +1,58 @@
+package org.globsframework.sql.utils;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.annotations.AutoIncrement;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.streams.accessors.Accessor;
+import org.globsframework.sql.BulkDbRequest;
+import org.globsframework.sql.CreateBuilder;
+import org.globsframework.sql.SqlConnection;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/*
+Default SqlConnection.bulkLoad : one batched insert.
+The inserted fields are given by the first glob (auto increment fields only if set), as for populate.
+ */
+public class InsertBulkLoader {
+
+    public static long load(SqlConnection sqlConnection, GlobType globType, Iterator<Glob> globs, int batchSize) {
+        if (!globs.hasNext()) {
+            return 0;
+        }
+        Glob[] current = new Glob[]{globs.next()};
+        CreateBuilder createBuilder = sqlConnection.getCreateBuilder(globType);
+        for (Field field : getLoadedFields(current[0])) {
+            createBuilder.setObject(field, new Accessor() {
+                public Object getObjectValue() {
+                    return current[0].getValue(field);
+                }
+            });
+        }
+        long count = 0;
+        try (BulkDbRequest request = createBuilder.getBulkRequest(batchSize)) {
+            while (true) {
+                request.run();
+                count++;
+                if (!globs.hasNext()) {
+                    break;
+                }
+                current[0] = globs.next();
+            }
+        }
+        return count;
+    }
+
+    public static List<Field> getLoadedFields(Glob first) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : first.getType().getFields()) {
+            if (!field.hasAnnotation(AutoIncrement.KEY) || first.isSet(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+}
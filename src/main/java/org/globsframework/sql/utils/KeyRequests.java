@@ -0,0 +1,112 @@
+package org.globsframework.sql.utils;
+
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.model.Key;
+import org.globsframework.sql.SelectBuilder;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.SqlRequest;
+import org.globsframework.sql.constraints.Constraint;
+import org.globsframework.sql.constraints.Constraints;
+import org.globsframework.sql.drivers.jdbc.impl.InListMode;
+
+import java.util.*;
+import java.util.function.Function;
+
+/*
+Requests on a collection of keys (see SqlConnection.getByKeys, existsKeys and deleteByKeys), sent by chunks :
+- one key field : key IN (...) with SINGLE_KEY_CHUNK_SIZE keys (one array parameter, padded or temporary
+  table depending on the connection) ;
+- composite keys : (a = ? AND b = ?) OR ... with COMPOSITE_KEY_CHUNK_SIZE keys, the last chunk padded (see
+  InListMode.paddedSize).
+ */
+public class KeyRequests {
+    public static final int SINGLE_KEY_CHUNK_SIZE = 1024;
+    public static final int COMPOSITE_KEY_CHUNK_SIZE = 128;
+
+    // the globs found, in the order of the keys.
+    public static Map<Key, Glob> getByKeys(SqlConnection sqlConnection, GlobType globType, Collection<Key> keys) {
+        Map<Key, Glob> found = select(sqlConnection, globType, keys, SelectBuilder::selectAll);
+        Map<Key, Glob> result = new LinkedHashMap<>(found.size());
+        for (Key key : keys) {
+            Glob glob = found.get(key);
+            if (glob != null) {
+                result.put(key, glob);
+            }
+        }
+        return result;
+    }
+
+    // the keys found in db.
+    public static Set<Key> existsKeys(SqlConnection sqlConnection, GlobType globType, Collection<Key> keys) {
+        Map<Key, Glob> found = select(sqlConnection, globType, keys, SelectBuilder::withKeys);
+        Set<Key> result = new LinkedHashSet<>(found.size());
+        for (Key key : keys) {
+            if (found.containsKey(key)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    // the count of deleted rows.
+    public static int deleteByKeys(SqlConnection sqlConnection, GlobType globType, Collection<Key> keys) {
+        int count = 0;
+        for (Constraint constraint : getConstraints(globType, keys)) {
+            try (SqlRequest request = sqlConnection.getDeleteRequest(globType, constraint)) {
+                count += request.run();
+            }
+        }
+        return count;
+    }
+
+    private static Map<Key, Glob> select(SqlConnection sqlConnection, GlobType globType, Collection<Key> keys,
+                                         Function<SelectBuilder, SelectBuilder> fields) {
+        Map<Key, Glob> found = new HashMap<>(keys.size());
+        for (Constraint constraint : getConstraints(globType, keys)) {
+            for (Glob glob : fields.apply(sqlConnection.getQueryBuilder(globType, constraint)).getQuery().executeAsGlobs()) {
+                found.put(glob.getKey(), glob);
+            }
+        }
+        return found;
+    }
+
+    // one constraint per chunk of keys.
+    public static List<Constraint> getConstraints(GlobType globType, Collection<Key> keys) {
+        Field[] keyFields = globType.getKeyFields();
+        List<Constraint> constraints = new ArrayList<>();
+        if (keyFields.length == 1) {
+            Field keyField = keyFields[0];
+            Set<Object> values = new LinkedHashSet<>();
+            for (Key key : keys) {
+                values.add(key.getValue(keyField));
+                if (values.size() == SINGLE_KEY_CHUNK_SIZE) {
+                    constraints.add(Constraints.in(keyField, values));
+                    values = new LinkedHashSet<>();
+                }
+            }
+            if (!values.isEmpty()) {
+                constraints.add(Constraints.in(keyField, values));
+            }
+            return constraints;
+        }
+        List<Constraint> chunk = new ArrayList<>();
+        for (Key key : keys) {
+            chunk.add(Constraints.fieldsEqual(key.asFieldValues()));
+            if (chunk.size() == COMPOSITE_KEY_CHUNK_SIZE) {
+                constraints.add(Constraints.or(chunk.toArray(Constraint[]::new)));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            // padded with the last key, as the IN lists : the chunks of close sizes share the same sql.
+            Constraint last = chunk.get(chunk.size() - 1);
+            for (int i = chunk.size(); i < InListMode.paddedSize(chunk.size()); i++) {
+                chunk.add(last);
+            }
+            constraints.add(Constraints.or(chunk.toArray(Constraint[]::new)));
+        }
+        return constraints;
+    }
+}
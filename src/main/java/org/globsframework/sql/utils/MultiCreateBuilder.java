@@ -13,6 +13,7 @@ import org.globsframework.sql.exceptions.SqlException;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -182,7 +183,11 @@ public class MultiCreateBuilder implements CreateBuilder {
     }
 
     public BulkDbRequest getBulkRequest() {
-        return new MultiBulkDbRequest(createBuilders);
+        return getBulkRequest(BulkDbRequest.DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkDbRequest getBulkRequest(int batchSize) {
+        return new MultiBulkDbRequest(createBuilders, batchSize);
     }
 
     static private class MultiSqlRequest implements SqlRequest {
@@ -213,10 +218,10 @@ public class MultiCreateBuilder implements CreateBuilder {
     static private class MultiBulkDbRequest implements BulkDbRequest {
         private Collection<BulkDbRequest> sqlRequests;
 
-        public MultiBulkDbRequest(Map<GlobType, CreateBuilder> createBuilders) {
+        public MultiBulkDbRequest(Map<GlobType, CreateBuilder> createBuilders, int batchSize) {
             sqlRequests = new ArrayList<BulkDbRequest>(createBuilders.size());
             for (CreateBuilder builder : createBuilders.values()) {
-                sqlRequests.add(builder.getBulkRequest());
+                sqlRequests.add(builder.getBulkRequest(batchSize));
             }
         }
 
@@ -239,5 +244,9 @@ public class MultiCreateBuilder implements CreateBuilder {
                 request.flush();
             }
         }
+
+        public int[] getLastUpdateCounts() {
+            return sqlRequests.stream().flatMapToInt(request -> Arrays.stream(request.getLastUpdateCounts())).toArray();
+        }
     }
 }
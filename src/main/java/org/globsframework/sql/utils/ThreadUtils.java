@@ -3,8 +3,40 @@ package org.globsframework.sql.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 public class ThreadUtils {
     static final Logger LOGGER = LoggerFactory.getLogger(ThreadUtils.class);
+    private static volatile Executor defaultExecutor = createDefaultExecutor();
+
+    // used for background reads (prefetch, publisher) and the *Async methods
+    public static Executor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    public static void setDefaultExecutor(Executor executor) {
+        defaultExecutor = executor;
+    }
+
+    // virtual threads if the runtime has them (java 21+), else daemon threads.
+    private static Executor createDefaultExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.debug("No virtual thread, use a cached thread pool");
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "globs-db");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
 
     public interface IsComplete {
         boolean complete();
@@ -35,8 +67,11 @@ public class ThreadUtils {
         return new DefaultLimiter(maxConnection);
     }
 
+    // a lock instead of synchronized : a waiting virtual thread do not pin its carrier thread.
     private static class DefaultLimiter implements Limiter {
         private final int maxConnection;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
         int count = 0;
 
         public DefaultLimiter(int maxConnection) {
@@ -44,44 +79,49 @@ public class ThreadUtils {
         }
 
         public void notifyDown() {
-            synchronized (this) {
+            lock.lock();
+            try {
                 count -= 1;
-                if (count < maxConnection / 2) {
-                    this.notifyAll();
+                if (count < maxConnection / 2 || count == 0) {
+                    changed.signalAll();
                 }
+            } finally {
+                lock.unlock();
             }
         }
 
         public void limitParallelConnection() {
-            synchronized (this) {
+            lock.lock();
+            try {
                 count += 1;
                 while (count > maxConnection) {
-                    try {
-                        long l = System.currentTimeMillis();
-                        wait(60000);
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("Wait " + (System.currentTimeMillis() - l) + " ms");
-                        }
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException("While waiting for db", e);
-                    }
+                    waitChange();
                 }
+            } finally {
+                lock.unlock();
             }
         }
 
         public void waitAllDone() {
-            synchronized (this) {
+            lock.lock();
+            try {
                 while (count != 0) {
-                    try {
-                        long l = System.currentTimeMillis();
-                        wait(60000);
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("Wait " + (System.currentTimeMillis() - l) + " ms");
-                        }
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException("While waiting for db", e);
-                    }
+                    waitChange();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void waitChange() {
+            try {
+                long l = System.currentTimeMillis();
+                changed.await(60, TimeUnit.SECONDS);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Wait " + (System.currentTimeMillis() - l) + " ms");
                 }
+            } catch (InterruptedException e) {
+                throw new RuntimeException("While waiting for db", e);
             }
         }
     }
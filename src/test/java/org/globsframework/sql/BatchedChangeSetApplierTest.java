@@ -0,0 +1,137 @@
+package org.globsframework.sql;
+
+import org.globsframework.core.metamodel.GlobModel;
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.GlobTypeLoaderFactory;
+import org.globsframework.core.metamodel.annotations.KeyField_;
+import org.globsframework.core.metamodel.fields.IntegerField;
+import org.globsframework.core.metamodel.fields.StringField;
+import org.globsframework.core.model.*;
+import org.globsframework.core.model.repository.DefaultGlobRepository;
+import org.globsframework.core.xml.XmlGlobStreamReader;
+import org.globsframework.sql.annotations.DbRef_;
+import org.globsframework.sql.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.sql.drivers.jdbc.JdbcConnection;
+import org.globsframework.sql.model.DummyObject;
+import org.junit.Test;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class BatchedChangeSetApplierTest extends DbServicesTestCase {
+
+    @Test
+    public void testCreateUpdateDelete() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+                "<dummyObject id='1' name='a' value='1.1' present='true'/>" +
+                        "<dummyObject id='2' name='b' value='1.1' present='true'/>", directory.get(GlobModel.class)));
+        DefaultGlobRepository repository = new DefaultGlobRepository();
+        repository.add(sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsGlobs());
+        BatchedChangeSetApplier applier = new BatchedChangeSetApplier(sqlConnection);
+        repository.addChangeListener(new ChangeSetListener() {
+            public void globsChanged(ChangeSet changeSet, GlobRepository repository) {
+                applier.apply(changeSet);
+            }
+
+            public void globsReset(GlobRepository repository, Set<GlobType> changedTypes) {
+            }
+        });
+        repository.startChangeSet();
+        repository.create(DummyObject.TYPE, FieldValue.value(DummyObject.ID, 3), FieldValue.value(DummyObject.NAME, "c"));
+        repository.create(DummyObject.TYPE, FieldValue.value(DummyObject.ID, 4), FieldValue.value(DummyObject.NAME, "d"));
+        repository.update(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.NAME, "a2");
+        repository.delete(KeyBuilder.newKey(DummyObject.TYPE, 2));
+        repository.completeChangeSet();
+
+        List<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .orderAsc(DummyObject.ID)
+                .getQuery().executeAsGlobs();
+        assertEquals(3, globs.size());
+        assertEquals("a2", globs.get(0).get(DummyObject.NAME));
+        assertEquals(1.1, globs.get(0).get(DummyObject.VALUE), 0.01);
+        assertEquals(3, globs.get(1).get(DummyObject.ID).intValue());
+        assertEquals("d", globs.get(2).get(DummyObject.NAME));
+    }
+
+    @Test
+    public void testCreationsAreOrderedByReference() throws Exception {
+        sqlConnection.createTable(Owner.TYPE, TreeNode.TYPE);
+        String owner = sqlService.getTableName(Owner.TYPE, true);
+        String node = sqlService.getTableName(TreeNode.TYPE, true);
+        try (Statement statement = ((JdbcConnection) sqlConnection).getConnection().createStatement()) {
+            statement.executeUpdate("ALTER TABLE " + node + " ADD FOREIGN KEY (" + sqlService.getColumnName(TreeNode.PARENT, true) +
+                                    ") REFERENCES " + node + " (" + sqlService.getColumnName(TreeNode.ID, true) + ")");
+            statement.executeUpdate("ALTER TABLE " + node + " ADD FOREIGN KEY (" + sqlService.getColumnName(TreeNode.OWNER, true) +
+                                    ") REFERENCES " + owner + " (" + sqlService.getColumnName(Owner.ID, true) + ")");
+        }
+        try {
+            DefaultGlobRepository repository = new DefaultGlobRepository();
+            BatchedChangeSetApplier applier = new BatchedChangeSetApplier(sqlConnection);
+            repository.addChangeListener(new ChangeSetListener() {
+                public void globsChanged(ChangeSet changeSet, GlobRepository repository) {
+                    applier.apply(changeSet);
+                }
+
+                public void globsReset(GlobRepository repository, Set<GlobType> changedTypes) {
+                }
+            });
+            repository.startChangeSet();
+            // children before their parent, a row without parent and a row referencing itself
+            repository.create(TreeNode.TYPE, FieldValue.value(TreeNode.ID, 3), FieldValue.value(TreeNode.PARENT, 2),
+                    FieldValue.value(TreeNode.OWNER, 1), FieldValue.value(TreeNode.NAME, "leaf"));
+            repository.create(TreeNode.TYPE, FieldValue.value(TreeNode.ID, 2), FieldValue.value(TreeNode.PARENT, 1),
+                    FieldValue.value(TreeNode.OWNER, 1));
+            repository.create(TreeNode.TYPE, FieldValue.value(TreeNode.ID, 1), FieldValue.value(TreeNode.OWNER, 1));
+            repository.create(TreeNode.TYPE, FieldValue.value(TreeNode.ID, 4), FieldValue.value(TreeNode.PARENT, 4));
+            repository.create(Owner.TYPE, FieldValue.value(Owner.ID, 1));
+            repository.completeChangeSet();
+
+            List<Glob> nodes = sqlConnection.getQueryBuilder(TreeNode.TYPE)
+                    .selectAll()
+                    .orderAsc(TreeNode.ID)
+                    .getQuery().executeAsGlobs();
+            assertEquals(List.of(1, 2, 3, 4), nodes.stream().map(glob -> glob.get(TreeNode.ID)).toList());
+            assertEquals(2, nodes.get(2).get(TreeNode.PARENT).intValue());
+            assertEquals("leaf", nodes.get(2).get(TreeNode.NAME));
+        } finally {
+            try (Statement statement = ((JdbcConnection) sqlConnection).getConnection().createStatement()) {
+                statement.executeUpdate("DROP TABLE " + node + " CASCADE");
+                statement.executeUpdate("DROP TABLE " + owner + " CASCADE");
+            }
+        }
+    }
+
+    public static class Owner {
+        public static GlobType TYPE;
+
+        @KeyField_
+        public static IntegerField ID;
+
+        static {
+            GlobTypeLoaderFactory.create(Owner.class, true).load();
+        }
+    }
+
+    public static class TreeNode {
+        public static GlobType TYPE;
+
+        @KeyField_
+        public static IntegerField ID;
+
+        @DbRef_(to = "treeNode")
+        public static IntegerField PARENT;
+
+        @DbRef_(to = "owner.id")
+        public static IntegerField OWNER;
+
+        public static StringField NAME;
+
+        static {
+            GlobTypeLoaderFactory.create(TreeNode.class, true).load();
+        }
+    }
+}
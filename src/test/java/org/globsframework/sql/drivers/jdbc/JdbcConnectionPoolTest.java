@@ -0,0 +1,107 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.constraints.Constraints;
+import org.globsframework.sql.model.DummyObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class JdbcConnectionPoolTest {
+    private JdbcSqlService sqlService;
+
+    @After
+    public void tearDown() {
+        if (sqlService != null) {
+            sqlService.close();
+        }
+    }
+
+    @Test
+    public void physicalConnectionIsReused() throws Exception {
+        sqlService = new JdbcSqlService("jdbc:hsqldb:.", "sa", "", JdbcConnectionPool.Config.of(0, 2));
+        JdbcConnectionPool pool = sqlService.getConnectionPool();
+        for (int i = 0; i < 10; i++) {
+            SqlConnection db = sqlService.getDb();
+            db.createTable(DummyObject.TYPE);
+            db.commitAndClose();
+        }
+        Assert.assertEquals(1, pool.getOpenedCount());
+        Assert.assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void pendingTransactionIsRolledBackOnRelease() throws Exception {
+        sqlService = new JdbcSqlService("jdbc:hsqldb:.", "sa", "", JdbcConnectionPool.Config.of(0, 1));
+        SqlConnection db = sqlService.getDb();
+        db.createTable(DummyObject.TYPE);
+        db.getDeleteRequest(DummyObject.TYPE).run();
+        db.commit();
+        db.getCreateBuilder(DummyObject.TYPE).set(DummyObject.ID, 1).set(DummyObject.NAME, "pending").getRequest().run();
+        ((JdbcConnection) db).getConnection().close();
+
+        SqlConnection db2 = sqlService.getDb();
+        Assert.assertEquals(0, db2.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 1))
+                .selectAll().getQuery().executeAsGlobs().size());
+        db2.commitAndClose();
+    }
+
+    @Test
+    public void parallelScanKeepTheConnectionOfTheCaller() throws Exception {
+        sqlService = new JdbcSqlService("jdbc:hsqldb:mem:parallelScan", "sa", "", JdbcConnectionPool.Config.of(1, 2));
+        SqlConnection db = sqlService.getDb();
+        db.createTable(DummyObject.TYPE);
+        db.emptyTable(DummyObject.TYPE);
+        for (int i = 1; i <= 1000; i++) {
+            db.getCreateBuilder(DummyObject.TYPE).set(DummyObject.ID, i).set(DummyObject.NAME, "name " + i).getRequest().run();
+        }
+        db.commit();
+        try (Stream<Glob> globs = db.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsParallelGlobStream(4)) {
+            Assert.assertEquals(500500, globs.parallel().mapToInt(glob -> glob.get(DummyObject.ID)).sum());
+        }
+        Assert.assertEquals(2, sqlService.getConnectionPool().getOpenedCount());
+        db.commitAndClose();
+
+        JdbcSqlService singleConnection = new JdbcSqlService("jdbc:hsqldb:mem:parallelScan", "sa", "", JdbcConnectionPool.Config.of(1, 1));
+        SqlConnection single = singleConnection.getDb();
+        try {
+            single.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsParallelGlobStream(4);
+            Assert.fail();
+        } catch (UnexpectedApplicationState e) {
+        } finally {
+            single.commitAndClose();
+            singleConnection.close();
+        }
+    }
+
+    @Test
+    public void waitUntilTimeoutWhenExhausted() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        JdbcSqlService service = new JdbcSqlService("jdbc:hsqldb:.", "sa", "");
+        JdbcConnectionPool pool = new JdbcConnectionPool(() -> {
+            created.incrementAndGet();
+            return service.getConnection();
+        }, new JdbcConnectionPool.Config(0, 1, 60_000, 100, 1));
+        Connection first = pool.getConnection();
+        try {
+            pool.getConnection();
+            Assert.fail();
+        } catch (SQLException e) {
+        }
+        first.close();
+        Assert.assertTrue(first.isClosed());
+        Connection second = pool.getConnection();
+        Assert.assertFalse(second.isClosed());
+        second.close();
+        Assert.assertEquals(1, created.get());
+        pool.close();
+        Assert.assertEquals(0, pool.getOpenedCount());
+    }
+}
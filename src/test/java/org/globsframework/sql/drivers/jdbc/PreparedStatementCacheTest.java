@@ -0,0 +1,75 @@
+package org.globsframework.sql.drivers.jdbc;
+
+import org.globsframework.core.metamodel.GlobModel;
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.core.xml.XmlGlobStreamReader;
+import org.globsframework.sql.SelectQuery;
+import org.globsframework.sql.constraints.Constraints;
+import org.globsframework.sql.model.DummyObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+
+public class PreparedStatementCacheTest extends DbServicesTestCase {
+
+    @Test
+    public void statementIsReusedAfterRelease() throws Exception {
+        JdbcConnection db = (JdbcConnection) sqlConnection;
+        String sql = "select * from " + sqlService.getTableName(DummyObject.TYPE, true);
+        PreparedStatement first = db.prepareStatement(sql);
+        PreparedStatement concurrent = db.prepareStatement(sql);
+        Assert.assertNotSame(first, concurrent);
+        db.release(first);
+        db.release(concurrent);
+        PreparedStatement second = db.prepareStatement(sql);
+        Assert.assertTrue(second == first || second == concurrent);
+        Assert.assertNotSame(second, db.prepareStatement(sql, true));
+        db.release(second);
+    }
+
+    @Test
+    public void cachedQueryIsRebound() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+                "<dummyObject id='1' name='hello'/>" +
+                "<dummyObject id='2' name='world'/>", directory.get(GlobModel.class)));
+        for (int i = 1; i <= 2; i++) {
+            try (SelectQuery query = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, i))
+                    .selectAll().getQuery()) {
+                Glob glob = query.executeUnique();
+                Assert.assertEquals(i == 1 ? "hello" : "world", glob.get(DummyObject.NAME));
+            }
+        }
+    }
+
+    @Test
+    public void closedRequestIsReleasedOnce() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+                "<dummyObject id='1' name='hello'/>" +
+                "<dummyObject id='2' name='world'/>", directory.get(GlobModel.class)));
+        SqlUpdateRequest first = updateName(1, "a");
+        first.close();
+        SqlUpdateRequest second = updateName(2, "b");
+        first.close();
+        // with a second release, third would share the statement of second (and its batch)
+        SqlUpdateRequest third = updateName(1, "c");
+        second.addBatch();
+        third.addBatch();
+        Assert.assertEquals(1, second.executeBatch().length);
+        Assert.assertEquals(1, third.executeBatch().length);
+        second.close();
+        third.close();
+        try {
+            first.run();
+            Assert.fail("closed");
+        } catch (UnexpectedApplicationState e) {
+        }
+    }
+
+    private SqlUpdateRequest updateName(int id, String name) {
+        return (SqlUpdateRequest) sqlConnection.getUpdateBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, id))
+                .update(DummyObject.NAME, name)
+                .getRequest();
+    }
+}
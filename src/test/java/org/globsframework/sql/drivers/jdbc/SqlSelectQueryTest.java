@@ -24,6 +24,7 @@ import org.globsframework.sql.SqlRequest;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.constraints.Constraints;
 import org.globsframework.sql.drivers.jdbc.request.SqlQueryBuilder;
+import org.globsframework.sql.drivers.postgresql.request.PostgreSqlQueryBuilder;
 import org.globsframework.sql.exceptions.SqlException;
 import org.globsframework.sql.model.DummyObject;
 import org.globsframework.sql.model.DummyObject2;
@@ -33,8 +34,23 @@ import org.junit.Test;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.lang.ref.WeakReference;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static org.globsframework.sql.constraints.Constraints.and;
@@ -229,6 +245,102 @@ public class SqlSelectQueryTest extends DbServicesTestCase {
         assertEquals(4, list.size());
     }
 
+    @Test
+    public void testInListSqlDoesNotDependOnSize() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>" +
+                                "<dummyObject id='3' name='c'/>" +
+                                "<dummyObject id='4' name='d'/>", directory.get(GlobModel.class)));
+        SelectQuery twoValues = sqlConnection.getQueryBuilder(DummyObject.TYPE,
+                Constraints.in(DummyObject.ID, Utils.set(1, 2))).withKeys().getQuery();
+        SelectQuery threeValues = sqlConnection.getQueryBuilder(DummyObject.TYPE,
+                Constraints.in(DummyObject.ID, Utils.set(1, 2, 3))).withKeys().getQuery();
+        assertEquals(twoValues.toString(), threeValues.toString());
+        assertEquals(2, twoValues.executeAsGlobs().size());
+        assertEquals(3, threeValues.executeAsGlobs().size());
+        List<Glob> notIn = sqlConnection.getQueryBuilder(DummyObject.TYPE,
+                Constraints.notIn(DummyObject.ID, Utils.set(1, 2, 3))).withKeys().getQuery().executeAsGlobs();
+        assertEquals(1, notIn.size());
+        assertEquals(4, notIn.get(0).get(DummyObject.ID).intValue());
+    }
+
+    @Test
+    public void testLargeInListUseTemporaryTable() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a' present='true'/>" +
+                                "<dummyObject id='2' name='b' present='true'/>" +
+                                "<dummyObject id='3' name='c' present='false'/>", directory.get(GlobModel.class)));
+        ((JdbcConnection) sqlConnection).setLargeInListThreshold(0);
+        SelectQuery in = sqlConnection.getQueryBuilder(DummyObject.TYPE,
+                Constraints.in(DummyObject.PRESENT, Utils.set(true))).withKeys().getNotAutoCloseQuery();
+        assertTrue(in.toString(), in.toString().contains("GLOBS_IN_"));
+        assertEquals(2, in.executeAsGlobs().size());
+        assertEquals(2, in.executeAsGlobs().size());
+        in.close();
+        List<Glob> notIn = sqlConnection.getQueryBuilder(DummyObject.TYPE,
+                Constraints.notIn(DummyObject.PRESENT, Utils.set(true))).withKeys().getQuery().executeAsGlobs();
+        assertEquals(1, notIn.size());
+        assertEquals(3, notIn.get(0).get(DummyObject.ID).intValue());
+        List<Glob> ids = sqlConnection.getQueryBuilder(DummyObject.TYPE,
+                Constraints.in(DummyObject.ID, Utils.set(1, 3))).withKeys().getQuery().executeAsGlobs();
+        assertEquals(2, ids.size());
+    }
+
+    @Test
+    public void testLargeInListWithNull() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>" +
+                                "<dummyObject id='3'/>", directory.get(GlobModel.class)));
+        ((JdbcConnection) sqlConnection).setLargeInListThreshold(0);
+        Set<String> names = new HashSet<>(Arrays.asList("a", null));
+        List<Integer> in = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.in(DummyObject.NAME, names))
+                .withKeys().orderAsc(DummyObject.ID).getQuery().executeAsGlobs()
+                .stream().map(glob -> glob.get(DummyObject.ID)).toList();
+        assertEquals(List.of(1, 3), in);
+        List<Integer> notIn = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.notIn(DummyObject.NAME, names))
+                .withKeys().getQuery().executeAsGlobs()
+                .stream().map(glob -> glob.get(DummyObject.ID)).toList();
+        assertEquals(List.of(2), notIn);
+    }
+
+    @Test
+    public void testInListTableIsDroppedIfTheQueryCanNotBePrepared() throws Exception {
+        ((JdbcConnection) sqlConnection).setLargeInListThreshold(0);
+        GlobType noTable = GlobTypeBuilderFactory.create("NO_TABLE").addIntegerField("ID").get();
+        try {
+            sqlConnection.getQueryBuilder(noTable, Constraints.in(noTable.getField("ID"), Utils.set(1, 2)))
+                    .selectAll().getQuery();
+            fail("no table");
+        } catch (SqlException e) {
+            Matcher matcher = Pattern.compile("SESSION\\.GLOBS_IN_\\d+").matcher(e.getMessage());
+            assertTrue(e.getMessage(), matcher.find());
+            try (Statement statement = ((JdbcConnection) sqlConnection).getConnection().createStatement()) {
+                statement.executeQuery("SELECT COUNT(*) FROM " + matcher.group());
+                fail("temporary table not dropped");
+            } catch (SQLException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testCopyStreamWithoutCopySupport() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a' present='true'/>" +
+                                "<dummyObject id='2' name='b' present='false'/>", directory.get(GlobModel.class)));
+        try (Stream<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE,
+                Constraints.equal(DummyObject.PRESENT, true)).selectAll().getQuery().executeAsCopyStream()) {
+            List<Glob> list = globs.toList();
+            assertEquals(1, list.size());
+            assertEquals("a", list.get(0).get(DummyObject.NAME));
+        }
+    }
+
     @Test
     public void OrderAndLimit() {
         populate(sqlConnection,
@@ -259,6 +371,330 @@ public class SqlSelectQueryTest extends DbServicesTestCase {
         assertEquals(4, skipList.get(0).get(DummyObject.ID).intValue());
     }
 
+    @Test
+    public void testStreaming() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='hello'/>" +
+                                "<dummyObject id='2' name='world'/>" +
+                                "<dummyObject id='3' name='world'/>", directory.get(GlobModel.class)));
+        try (Stream<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .orderAsc(DummyObject.ID)
+                .fetchSize(2)
+                .getQuery().executeAsGlobStream()) {
+            assertEquals(6, globs.mapToInt(glob -> glob.get(DummyObject.ID)).sum());
+        }
+        assertEquals(3, sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .streaming()
+                .getQuery().executeAsGlobs().size());
+
+        SqlSelectQuery query = (SqlSelectQuery) sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .fetchSize(2)
+                .getNotAutoCloseQuery();
+        PreparedStatement statement = query.getPreparedStatement();
+        GlobStream globStream = query.execute();
+        assertEquals(2, statement.getFetchSize());
+        while (globStream.next()) {
+        }
+        query.close();
+        // the statement is back in the cache with the default fetch size
+        assertEquals(0, statement.getFetchSize());
+    }
+
+    @Test
+    public void testPageAfter() {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>" +
+                                "<dummyObject id='3' name='b'/>" +
+                                "<dummyObject id='4' name='b'/>" +
+                                "<dummyObject id='5' name='c'/>", directory.get(GlobModel.class)));
+        List<Glob> firstPage = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .orderDesc(DummyObject.NAME)
+                .orderAsc(DummyObject.ID)
+                .top(2)
+                .getQuery().executeAsGlobs();
+        assertEquals(2, firstPage.size());
+        assertEquals(5, firstPage.get(0).get(DummyObject.ID).intValue());
+        assertEquals(2, firstPage.get(1).get(DummyObject.ID).intValue());
+
+        List<Glob> secondPage = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .orderDesc(DummyObject.NAME)
+                .pageAfter(firstPage.get(1))
+                .top(2)
+                .getQuery().executeAsGlobs();
+        assertEquals(2, secondPage.size());
+        assertEquals(3, secondPage.get(0).get(DummyObject.ID).intValue());
+        assertEquals(4, secondPage.get(1).get(DummyObject.ID).intValue());
+    }
+
+    @Test
+    public void testTotalCount() {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>" +
+                                "<dummyObject id='3' name='b'/>" +
+                                "<dummyObject id='4' name='b'/>" +
+                                "<dummyObject id='5' name='c'/>", directory.get(GlobModel.class)));
+        SelectBuilder firstPageBuilder = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.NAME, "b"))
+                .select(DummyObject.ID)
+                .orderAsc(DummyObject.ID)
+                .top(2);
+        LongAccessor totalCount = firstPageBuilder.totalCount();
+        IntegerAccessor id = firstPageBuilder.retrieve(DummyObject.ID);
+        GlobStream firstPage = firstPageBuilder.getQuery().execute();
+        assertTrue(firstPage.next());
+        assertEquals(2, id.getValue(0));
+        assertEquals(3, totalCount.getValue(0));
+        assertTrue(firstPage.next());
+        assertEquals(3, totalCount.getValue(0));
+        assertFalse(firstPage.next());
+
+        // the count do not depend on the page
+        SelectBuilder secondPageBuilder = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.NAME, "b"))
+                .select(DummyObject.ID)
+                .orderAsc(DummyObject.ID)
+                .pageAfter(DummyObject.TYPE.instantiate().set(DummyObject.ID, 3))
+                .top(2);
+        totalCount = secondPageBuilder.totalCount();
+        id = secondPageBuilder.retrieve(DummyObject.ID);
+        GlobStream secondPage = secondPageBuilder.getQuery().execute();
+        assertTrue(secondPage.next());
+        assertEquals(4, id.getValue(0));
+        assertEquals(3, totalCount.getValue(0));
+        assertFalse(secondPage.next());
+
+        SelectBuilder allBuilder = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .select(DummyObject.ID)
+                .top(1);
+        totalCount = allBuilder.totalCount();
+        GlobStream all = allBuilder.getQuery().execute();
+        assertTrue(all.next());
+        assertEquals(5, totalCount.getValue(0));
+    }
+
+    @Test
+    public void testParallelScan() {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>" +
+                                "<dummyObject id='3' name='b'/>" +
+                                "<dummyObject id='7' name='b'/>" +
+                                "<dummyObject id='10' name='c'/>", directory.get(GlobModel.class)));
+        sqlConnection.commit();
+        try (Stream<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.NAME, "b"))
+                .selectAll()
+                .getQuery().executeAsParallelGlobStream(3)) {
+            assertEquals(12, globs.mapToInt(glob -> glob.get(DummyObject.ID)).sum());
+        }
+    }
+
+    @Test
+    public void testParallelScanKeepNullValues() {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a' count='1'/>" +
+                                "<dummyObject id='2' name='b' count='5'/>" +
+                                "<dummyObject id='3' name='b'/>" +
+                                "<dummyObject id='4' name='b' count='9'/>", directory.get(GlobModel.class)));
+        sqlConnection.commit();
+        try (Stream<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .getQuery().executeAsParallelGlobStream(DummyObject.COUNT, 2)) {
+            assertEquals(10, globs.mapToInt(glob -> glob.get(DummyObject.ID)).sum());
+        }
+    }
+
+    @Test
+    public void testPartitionRangesOnWideLongRange() {
+        List<PartitionedScan.Range> ranges = PartitionedScan.computeRanges(Long.MIN_VALUE, Long.MAX_VALUE, 4);
+        assertEquals(4, ranges.size());
+        assertEquals(Long.MIN_VALUE, ranges.get(0).from());
+        assertEquals(Long.MAX_VALUE, ranges.get(3).to());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).to() + 1, ranges.get(i).from());
+        }
+        assertEquals(List.of(new PartitionedScan.Range(3, 3)), PartitionedScan.computeRanges(3, 3, 4));
+    }
+
+    @Test
+    public void testPrefetch() {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>" +
+                                "<dummyObject id='3' name='b'/>" +
+                                "<dummyObject id='4' name='b'/>" +
+                                "<dummyObject id='5' name='c'/>", directory.get(GlobModel.class)));
+        try (Stream<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .getQuery().executeAsPrefetchedGlobStream(2, 1)) {
+            assertEquals(15, globs.mapToInt(glob -> glob.get(DummyObject.ID)).sum());
+        }
+        try (Stream<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .orderAsc(DummyObject.ID)
+                .getQuery().executeAsPrefetchedGlobStream(1, 1)) {
+            assertEquals(1, globs.findFirst().get().get(DummyObject.ID).intValue());
+        }
+        assertEquals(5, sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .getQuery().executeAsGlobs().size());
+    }
+
+    @Test
+    public void testCopySqlWriteTheValues() {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>", directory.get(GlobModel.class)));
+        Constraint constraint = and(Constraints.equal(DummyObject.NAME, "it's a \\ test"),
+                Constraints.in(DummyObject.ID, Set.of(1, 2)),
+                Constraints.equal(DummyObject.DATE, (int) LocalDate.of(2024, 2, 29).toEpochDay()),
+                Constraints.greaterUnchecked(DummyObject.CREATED_AT, Instant.parse("2024-01-01T12:00:00Z").toEpochMilli()),
+                Constraints.lessUncheck(DummyObject.VALUE, 1.5));
+        SqlSelectQuery query = (SqlSelectQuery) new PostgreSqlQueryBuilder((JdbcConnection) sqlConnection, DummyObject.TYPE,
+                constraint, sqlService, null)
+                .selectAll()
+                .orderAsc(DummyObject.ID)
+                .top(10)
+                .skip(5)
+                .getNotAutoCloseQuery();
+        String sql = query.getLiteralSql();
+        assertFalse(sql, sql.contains("?"));
+        assertTrue(sql, sql.contains("E'it''s a \\\\ test'"));
+        assertTrue(sql, sql.contains("ARRAY["));
+        assertTrue(sql, sql.contains("'2024-02-29'::date"));
+        assertTrue(sql, sql.contains("'2024-01-01T12:00:00Z'::timestamptz"));
+        assertTrue(sql, sql.contains("'1.5'::float8"));
+        assertTrue(sql, sql.endsWith(" LIMIT 10 OFFSET 5"));
+        // the bound query still read its columns at the same index
+        assertTrue(query.executeAsGlobs().isEmpty());
+        query.close();
+    }
+
+    @Test
+    public void testDroppedPrefetchIsCollected() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>" +
+                                "<dummyObject id='3' name='b'/>" +
+                                "<dummyObject id='4' name='b'/>", directory.get(GlobModel.class)));
+        SqlSelectQuery query = (SqlSelectQuery) sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .getQuery();
+        PrefetchGlobIterator iterator = new PrefetchGlobIterator(query.execute(), DummyObject.TYPE, 1, 1);
+        assertTrue(iterator.hasNext());
+        // the reader is blocked until the iterator is collected
+        WeakReference<PrefetchGlobIterator> reference = new WeakReference<>(iterator);
+        iterator = null;
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testPublisher() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>" +
+                                "<dummyObject id='3' name='b'/>" +
+                                "<dummyObject id='4' name='b'/>" +
+                                "<dummyObject id='5' name='c'/>", directory.get(GlobModel.class)));
+        List<Glob> received = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .orderAsc(DummyObject.ID)
+                .getQuery().executeAsPublisher()
+                .subscribe(new Flow.Subscriber<>() {
+                    private Flow.Subscription subscription;
+
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(2);
+                    }
+
+                    public void onNext(Glob item) {
+                        received.add(item);
+                        if (received.size() % 2 == 0) {
+                            subscription.request(2);
+                        }
+                    }
+
+                    public void onError(Throwable throwable) {
+                        completed.countDown();
+                    }
+
+                    public void onComplete() {
+                        completed.countDown();
+                    }
+                });
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        assertEquals(5, received.size());
+        assertEquals(5, received.get(4).get(DummyObject.ID).intValue());
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='b'/>", directory.get(GlobModel.class)));
+        List<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll()
+                .getQuery().executeAsGlobsAsync()
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(2, globs.size());
+        int updated = sqlConnection.getUpdateBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 1))
+                .update(DummyObject.NAME, "c")
+                .getRequest().runAsync()
+                .thenCompose(count -> sqlConnection.commitAsync().thenApply(v -> count))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(1, updated);
+    }
+
+    @Test
+    public void testSqlTemplateIsSharedBetweenPages() throws Exception {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='a'/>" +
+                                "<dummyObject id='2' name='a'/>" +
+                                "<dummyObject id='3' name='a'/>" +
+                                "<dummyObject id='4' name='b'/>", directory.get(GlobModel.class)));
+        SelectQuery firstPage = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.NAME, "a"))
+                .withKeys().orderAsc(DummyObject.ID).top(2).skip(0).getQuery();
+        int cachedTemplates = sqlService.getSqlTemplateCache().size();
+        SelectQuery secondPage = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.NAME, "a"))
+                .withKeys().orderAsc(DummyObject.ID).top(2).skip(2).getQuery();
+        assertEquals(cachedTemplates, sqlService.getSqlTemplateCache().size());
+        assertEquals(firstPage.toString(), secondPage.toString());
+        assertEquals(List.of(1, 2), firstPage.executeAsGlobs().stream().map(glob -> glob.get(DummyObject.ID)).toList());
+        assertEquals(List.of(3), secondPage.executeAsGlobs().stream().map(glob -> glob.get(DummyObject.ID)).toList());
+    }
+
+    @Test
+    public void testCachedNamesAreTheNamingMappingOnes() {
+        NamingMapping namingMapping = sqlService.getNamingMapping();
+        assertEquals(namingMapping.getTableName(DummyObject.TYPE, true), sqlService.getTableName(DummyObject.TYPE, true));
+        assertEquals(namingMapping.getColumnName(DummyObject.NAME, true), sqlService.getColumnName(DummyObject.NAME, true));
+        assertEquals(namingMapping.getTableName(DummyObject.TYPE, true) + "." + namingMapping.getColumnName(DummyObject.NAME, true),
+                sqlService.getQualifiedColumnName(DummyObject.NAME));
+        // computed once
+        assertSame(sqlService.getQualifiedColumnName(DummyObject.ID), sqlService.getQualifiedColumnName(DummyObject.ID));
+    }
+
     @Test
     public void testNotEqual() throws Exception {
         populate(sqlConnection,
@@ -618,6 +1054,44 @@ public class SqlSelectQueryTest extends DbServicesTestCase {
         assertEquals("world", fieldValues.get(DummyObject2.LABEL));
     }
 
+    @Test
+    public void testMaterializedGlobs() {
+        populate(sqlConnection,
+                XmlGlobStreamReader.parse(
+                        "<dummyObject id='1' name='hello' value='1.1' count='4' present='true'/>" +
+                                "<dummyObject id='2' name='world' present='false'/>", directory.get(GlobModel.class)));
+
+        List<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .select(DummyObject.ID)
+                .select(DummyObject.COUNT)
+                .select(DummyObject.VALUE)
+                .select(DummyObject.PRESENT)
+                .orderAsc(DummyObject.ID)
+                .getQuery().executeAsGlobs();
+        assertEquals(2, globs.size());
+        assertEquals(4, globs.get(0).get(DummyObject.COUNT).intValue());
+        assertEquals(1.1, globs.get(0).get(DummyObject.VALUE), 0.);
+        assertEquals(Boolean.TRUE, globs.get(0).get(DummyObject.PRESENT));
+        assertNull(globs.get(1).get(DummyObject.COUNT));
+        assertNull(globs.get(1).get(DummyObject.VALUE));
+        assertTrue(globs.get(1).isSet(DummyObject.COUNT));
+        assertFalse(globs.get(1).isSet(DummyObject.NAME));
+
+        // fields of a single type are returned as globs of that type
+        try (Stream<FieldValues> fieldValuesStream = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .select(DummyObject.ID)
+                .select(DummyObject.COUNT)
+                .orderAsc(DummyObject.ID)
+                .getQuery().executeAsFieldValuesStream()) {
+            List<FieldValues> values = fieldValuesStream.toList();
+            assertEquals(2, values.size());
+            assertTrue(values.get(0) instanceof Glob);
+            assertEquals(DummyObject.TYPE, ((Glob) values.get(0)).getType());
+            assertEquals(4, values.get(0).get(DummyObject.COUNT).intValue());
+            assertNull(values.get(1).get(DummyObject.COUNT));
+        }
+    }
+
     public static class ValueType {
         public static GlobType TYPE;
 
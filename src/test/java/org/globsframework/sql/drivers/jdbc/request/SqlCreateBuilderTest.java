@@ -6,21 +6,27 @@ import org.globsframework.core.metamodel.fields.LongField;
 import org.globsframework.core.metamodel.fields.StringField;
 import org.globsframework.core.metamodel.type.DataType;
 import org.globsframework.core.model.Glob;
+import org.globsframework.core.model.Key;
 import org.globsframework.core.model.KeyBuilder;
 import org.globsframework.core.streams.accessors.IntegerAccessor;
 import org.globsframework.core.streams.accessors.utils.*;
+import org.globsframework.sql.BulkDbRequest;
 import org.globsframework.sql.CreateBuilder;
+import org.globsframework.sql.SqlRequest;
+import org.globsframework.sql.UpsertBuilder;
 import org.globsframework.sql.drivers.jdbc.DbServicesTestCase;
 import org.globsframework.sql.model.DummyObject;
 import org.globsframework.sql.model.DummyObjectWithGlob;
 import org.junit.Assert;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 public class SqlCreateBuilderTest extends DbServicesTestCase {
 
@@ -58,19 +64,48 @@ public class SqlCreateBuilderTest extends DbServicesTestCase {
         Assert.assertArrayEquals(new String[]{"hello", "world"}, glob.get(DummyObject.ALIAS));
     }
 
-    @Ignore
+    @Test
+    public void testBulkCreate() throws Exception {
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        ValueStringAccessor name = new ValueStringAccessor();
+        BulkDbRequest request = sqlConnection.getCreateBuilder(DummyObject.TYPE)
+                .set(DummyObject.ID, id)
+                .set(DummyObject.NAME, name)
+                .getBulkRequest(2);
+        for (int i = 1; i <= 5; i++) {
+            id.setValue(i);
+            name.setValue("name " + i);
+            Assert.assertEquals(i % 2 == 0 ? 2 : 0, request.run());
+        }
+        Assert.assertEquals(2, request.getLastUpdateCounts().length);
+        Assert.assertEquals(4, sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsGlobs().size());
+        request.close();
+        Assert.assertEquals(1, request.getLastUpdateCounts().length);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 5), DummyObject.NAME, "name 5", sqlConnection);
+    }
+
     @Test
     public void checkAutoIncrementIsRetrieved() {
         sqlConnection.createTable(DummyObject.TYPE);
         CreateBuilder createBuilder = sqlConnection.getCreateBuilder(DummyObject.TYPE);
         IntegerAccessor keyGeneratedAccessor = createBuilder.getKeyGeneratedAccessor(DummyObject.ID);
-        createBuilder
-                .set(DummyObject.NAME, "val1")
-                .getRequest()
-                .run();
-
+        ValueStringAccessor name = new ValueStringAccessor();
+        SqlRequest request = createBuilder
+                .set(DummyObject.NAME, name)
+                .getRequest();
+        name.setValue("val1");
+        request.run();
         Integer valId1 = keyGeneratedAccessor.getInteger();
+        name.setValue("val2");
+        request.run();
+        Integer valId2 = keyGeneratedAccessor.getInteger();
+        request.close();
+
         Assert.assertNotNull(valId1);
+        Assert.assertNotNull(valId2);
+        Assert.assertNotEquals(valId1, valId2);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, valId1), DummyObject.NAME, "val1", sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, valId2), DummyObject.NAME, "val2", sqlConnection);
     }
 
     public void setUp() throws Exception {
@@ -126,4 +161,61 @@ public class SqlCreateBuilderTest extends DbServicesTestCase {
         Assert.assertEquals(3, glob.get(DummyObjectWithGlob.arrayField)[0].get(DummyObjectWithGlob.ID).intValue());
         Assert.assertEquals(4, glob.get(DummyObjectWithGlob.arrayField)[1].get(DummyObjectWithGlob.ID).intValue());
     }
+
+    @Test
+    public void testBulkLoad() throws Exception {
+        long count = sqlConnection.bulkLoad(DummyObject.TYPE, IntStream.range(0, 2500)
+                .mapToObj(i -> DummyObject.TYPE.instantiate()
+                        .set(DummyObject.ID, i)
+                        .set(DummyObject.NAME, "name " + i)));
+        Assert.assertEquals(2500, count);
+        List<Glob> globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                .selectAll().orderAsc(DummyObject.ID).getQuery().executeAsGlobs();
+        Assert.assertEquals(2500, globs.size());
+        Assert.assertEquals("name 2499", globs.get(2499).get(DummyObject.NAME));
+    }
+
+    @Test
+    public void testUpsert() throws Exception {
+        sqlConnection.getCreateBuilder(DummyObject.TYPE)
+                .set(DummyObject.ID, 1)
+                .set(DummyObject.NAME, "name 1")
+                .set(DummyObject.VALUE, 1.0)
+                .set(DummyObject.PRESENT, true)
+                .getRequest().run();
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        ValueStringAccessor name = new ValueStringAccessor();
+        BulkDbRequest request = sqlConnection.getUpsertBuilder(DummyObject.TYPE)
+                .onConflict(DummyObject.VALUE, UpsertBuilder.UpdatePolicy.INCREMENT)
+                .onConflict(DummyObject.PRESENT, UpsertBuilder.UpdatePolicy.KEEP)
+                .set(DummyObject.ID, id)
+                .set(DummyObject.NAME, name)
+                .set(DummyObject.VALUE, 2.0)
+                .set(DummyObject.PRESENT, false)
+                .getBulkRequest(2);
+        for (int i = 1; i <= 3; i++) {
+            id.setValue(i);
+            name.setValue("new name " + i);
+            request.run();
+        }
+        request.close();
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.NAME, "new name 1", sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.VALUE, 3.0, sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.PRESENT, true, sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 3), DummyObject.VALUE, 2.0, sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 3), DummyObject.PRESENT, false, sqlConnection);
+    }
+
+    @Test
+    public void testCreateAndGetKeys() throws Exception {
+        sqlConnection.createTable(DummyObject.TYPE);
+        List<Key> keys = sqlConnection.createAndGetKeys(DummyObject.TYPE, List.of(
+                DummyObject.TYPE.instantiate().set(DummyObject.NAME, "first"),
+                DummyObject.TYPE.instantiate().set(DummyObject.NAME, "second")));
+        Assert.assertEquals(2, keys.size());
+        Assert.assertNotEquals(keys.get(0), keys.get(1));
+        Map<Key, Glob> globs = sqlConnection.getByKeys(DummyObject.TYPE, keys);
+        Assert.assertEquals("first", globs.get(keys.get(0)).get(DummyObject.NAME));
+        Assert.assertEquals("second", globs.get(keys.get(1)).get(DummyObject.NAME));
+    }
 }
@@ -1,17 +1,29 @@
 package org.globsframework.sql.drivers.jdbc.request;
 
 import org.globsframework.core.metamodel.GlobModel;
+import org.globsframework.core.metamodel.GlobType;
+import org.globsframework.core.metamodel.GlobTypeLoaderFactory;
+import org.globsframework.core.metamodel.annotations.KeyField_;
+import org.globsframework.core.metamodel.fields.IntegerField;
+import org.globsframework.core.metamodel.fields.StringField;
 import org.globsframework.core.model.Glob;
+import org.globsframework.core.model.Key;
+import org.globsframework.core.model.KeyBuilder;
 import org.globsframework.core.streams.GlobStream;
 import org.globsframework.core.xml.XmlGlobStreamReader;
 import org.globsframework.sql.constraints.Constraint;
 import org.globsframework.sql.constraints.Constraints;
+import org.globsframework.sql.constraints.impl.OrConstraint;
 import org.globsframework.sql.drivers.jdbc.DbServicesTestCase;
 import org.globsframework.sql.model.DummyObject;
 import org.globsframework.sql.model.DummyObject2;
+import org.globsframework.sql.utils.KeyRequests;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 
@@ -43,4 +55,72 @@ public class SqlDeleteBuilderTest extends DbServicesTestCase {
         assertEquals(2, globs.get(0).get(DummyObject.ID).intValue());
         assertEquals(1, sqlConnection.getQueryBuilder(DummyObject2.TYPE).withKeys().getQuery().executeAsGlobs().size());
     }
+
+    @Test
+    public void testByKeys() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+                "<dummyObject id='1' name='hello' value='1.1' present='true'/>" +
+                        "<dummyObject id='2' name='world' value='1.1' present='true'/>" +
+                        "<dummyObject id='3' name='other' value='1.1' present='true'/>", directory.get(GlobModel.class)));
+        Key key1 = KeyBuilder.newKey(DummyObject.TYPE, 1);
+        Key key3 = KeyBuilder.newKey(DummyObject.TYPE, 3);
+        Key unknown = KeyBuilder.newKey(DummyObject.TYPE, 4);
+        Map<Key, Glob> globs = sqlConnection.getByKeys(DummyObject.TYPE, List.of(key3, unknown, key1));
+        assertEquals(List.of(key3, key1), new ArrayList<>(globs.keySet()));
+        assertEquals("hello", globs.get(key1).get(DummyObject.NAME));
+        assertEquals(List.of(key3, key1), new ArrayList<>(sqlConnection.existsKeys(DummyObject.TYPE, List.of(key3, unknown, key1))));
+        assertEquals(2, sqlConnection.deleteByKeys(DummyObject.TYPE, List.of(key1, key3, unknown)));
+        List<Glob> remaining = sqlConnection.getQueryBuilder(DummyObject.TYPE).withKeys().getQuery().executeAsGlobs();
+        assertEquals(1, remaining.size());
+        assertEquals(2, remaining.get(0).get(DummyObject.ID).intValue());
+    }
+
+    @Test
+    public void testByCompositeKeys() throws Exception {
+        sqlConnection.createTable(CompositeKeyObject.TYPE);
+        sqlConnection.emptyTable(CompositeKeyObject.TYPE);
+        List<Glob> globs = new ArrayList<>();
+        for (int i = 0; i < 133; i++) {
+            globs.add(CompositeKeyObject.TYPE.instantiate()
+                    .set(CompositeKeyObject.ID1, i / 10)
+                    .set(CompositeKeyObject.ID2, i % 10)
+                    .set(CompositeKeyObject.NAME, "name " + i));
+        }
+        sqlConnection.populate(globs);
+        List<Key> keys = new ArrayList<>(globs.stream().map(Glob::getKey).toList());
+        Collections.reverse(keys);
+        Key unknown = CompositeKeyObject.TYPE.instantiate()
+                .set(CompositeKeyObject.ID1, 100).set(CompositeKeyObject.ID2, 0).getKey();
+        keys.add(1, unknown);
+
+        List<Constraint> constraints = KeyRequests.getConstraints(CompositeKeyObject.TYPE, keys);
+        assertEquals(2, constraints.size());
+        assertEquals(KeyRequests.COMPOSITE_KEY_CHUNK_SIZE, ((OrConstraint) constraints.get(0)).getConstraints().length);
+        assertEquals(8, ((OrConstraint) constraints.get(1)).getConstraints().length);
+
+        Map<Key, Glob> found = sqlConnection.getByKeys(CompositeKeyObject.TYPE, keys);
+        List<Key> expected = new ArrayList<>(keys);
+        expected.remove(unknown);
+        assertEquals(expected, new ArrayList<>(found.keySet()));
+        assertEquals("name 57", found.get(globs.get(57).getKey()).get(CompositeKeyObject.NAME));
+        assertEquals(expected, new ArrayList<>(sqlConnection.existsKeys(CompositeKeyObject.TYPE, keys)));
+        assertEquals(133, sqlConnection.deleteByKeys(CompositeKeyObject.TYPE, keys));
+        assertEquals(0, sqlConnection.getQueryBuilder(CompositeKeyObject.TYPE).withKeys().getQuery().executeAsGlobs().size());
+    }
+
+    public static class CompositeKeyObject {
+        public static GlobType TYPE;
+
+        @KeyField_
+        public static IntegerField ID1;
+
+        @KeyField_
+        public static IntegerField ID2;
+
+        public static StringField NAME;
+
+        static {
+            GlobTypeLoaderFactory.create(CompositeKeyObject.class, true).load();
+        }
+    }
 }
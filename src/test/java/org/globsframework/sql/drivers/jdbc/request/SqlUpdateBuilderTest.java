@@ -13,6 +13,8 @@ import org.globsframework.sql.UpdateBuilder;
 import org.globsframework.sql.constraints.Constraints;
 import org.globsframework.sql.constraints.impl.KeyConstraint;
 import org.globsframework.sql.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.sql.drivers.jdbc.JdbcConnection;
+import org.globsframework.sql.drivers.jdbc.SqlBulkUpdate;
 import org.globsframework.sql.model.DummyObject;
 import org.globsframework.sql.model.DummyWithDateTime;
 import org.junit.Assert;
@@ -20,7 +22,11 @@ import org.junit.Test;
 
 import java.time.*;
 import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class SqlUpdateBuilderTest extends DbServicesTestCase {
 
@@ -125,4 +131,48 @@ public class SqlUpdateBuilderTest extends DbServicesTestCase {
                 .run();
         checkDb(key1, DummyObject.NAME, "world", sqlConnection);
     }
+
+    @Test
+    public void testBulkUpdate() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+                "<dummyObject id='1' name='a' value='1.1' present='true'/>" +
+                        "<dummyObject id='2' name='b' value='1.1' present='true'/>" +
+                        "<dummyObject id='3' name='c' value='1.1' present='true'/>", directory.get(GlobModel.class)));
+        int count = sqlConnection.getBulkUpdate(DummyObject.TYPE, DummyObject.NAME, DummyObject.VALUE)
+                .update(Stream.<Glob>of(
+                        DummyObject.TYPE.instantiate().set(DummyObject.ID, 1).set(DummyObject.NAME, "a2").set(DummyObject.VALUE, 2.0),
+                        DummyObject.TYPE.instantiate().set(DummyObject.ID, 3).set(DummyObject.NAME, "c2").set(DummyObject.VALUE, 3.0),
+                        DummyObject.TYPE.instantiate().set(DummyObject.ID, 4).set(DummyObject.NAME, "d").set(DummyObject.VALUE, 4.0)));
+        Assert.assertEquals(2, count);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.NAME, "a2", sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.VALUE, 2.0, sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 2), DummyObject.NAME, "b", sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 3), DummyObject.NAME, "c2", sqlConnection);
+        Assert.assertEquals(3, sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsGlobs().size());
+    }
+
+    @Test
+    public void testRowsBulkUpdatePadTheLastChunk() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+                "<dummyObject id='1' name='a'/>" +
+                        "<dummyObject id='2' name='b'/>" +
+                        "<dummyObject id='3' name='c'/>", directory.get(GlobModel.class)));
+        String table = sqlService.getTableName(DummyObject.TYPE, true);
+        String id = sqlService.getColumnName(DummyObject.ID, true);
+        String name = sqlService.getColumnName(DummyObject.NAME, true);
+        List<Integer> rowCounts = new ArrayList<>();
+        SqlBulkUpdate bulkUpdate = new SqlBulkUpdate((JdbcConnection) sqlConnection, List.of(DummyObject.ID, DummyObject.NAME), null,
+                rowCount -> {
+                    rowCounts.add(rowCount);
+                    return "UPDATE " + table + " SET " + name + " = 'updated' WHERE " +
+                           String.join(" OR ", Collections.nCopies(rowCount, "(" + id + " = ? AND " + name + " = ?)"));
+                }, 8);
+        int count = bulkUpdate.update(Stream.<Glob>of(
+                DummyObject.TYPE.instantiate().set(DummyObject.ID, 1).set(DummyObject.NAME, "a"),
+                DummyObject.TYPE.instantiate().set(DummyObject.ID, 2).set(DummyObject.NAME, "b"),
+                DummyObject.TYPE.instantiate().set(DummyObject.ID, 3).set(DummyObject.NAME, "c")));
+        Assert.assertEquals(3, count);
+        Assert.assertEquals(List.of(4), rowCounts);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 3), DummyObject.NAME, "updated", sqlConnection);
+    }
 }
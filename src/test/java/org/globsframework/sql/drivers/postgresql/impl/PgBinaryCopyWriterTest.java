@@ -0,0 +1,62 @@
+package org.globsframework.sql.drivers.postgresql.impl;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.sql.model.DummyObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PgBinaryCopyWriterTest {
+
+    @Test
+    public void testWriteRows() throws Exception {
+        List<Field> fields = List.of(DummyObject.ID, DummyObject.NAME, DummyObject.VALUE, DummyObject.PRESENT,
+                DummyObject.COUNT, DummyObject.DATE, DummyObject.CREATED_AT);
+        Glob glob = DummyObject.TYPE.instantiate()
+                .set(DummyObject.ID, 3)
+                .set(DummyObject.NAME, "é")
+                .set(DummyObject.VALUE, 1.5)
+                .set(DummyObject.PRESENT, true)
+                .set(DummyObject.DATE, (int) LocalDate.of(2000, 1, 3).toEpochDay())
+                .set(DummyObject.CREATED_AT, PgBinaryCopyWriter.POSTGRES_EPOCH_MICROS / 1000 + 1500);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PgBinaryCopyWriter writer = new PgBinaryCopyWriter(bytes);
+        writer.writeHeader();
+        writer.writeRow(glob, fields);
+        writer.writeTrailer();
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        byte[] signature = new byte[11];
+        input.readFully(signature);
+        assertArrayEquals(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+        assertEquals(0, input.readInt()); // flags
+        assertEquals(0, input.readInt()); // header extension
+        assertEquals(7, input.readShort());
+        assertEquals(4, input.readInt());
+        assertEquals(3, input.readInt());
+        assertEquals(2, input.readInt());
+        byte[] name = new byte[2];
+        input.readFully(name);
+        assertEquals("é", new String(name, StandardCharsets.UTF_8));
+        assertEquals(8, input.readInt());
+        assertEquals(1.5, input.readDouble(), 0);
+        assertEquals(1, input.readInt());
+        assertEquals(1, input.readByte());
+        assertEquals(-1, input.readInt());
+        assertEquals(4, input.readInt());
+        assertEquals(2, input.readInt()); // days since 2000-01-01
+        assertEquals(8, input.readInt());
+        assertEquals(1_500_000, input.readLong()); // microseconds since 2000-01-01
+        assertEquals(-1, input.readShort());
+        assertEquals(-1, input.read());
+    }
+}
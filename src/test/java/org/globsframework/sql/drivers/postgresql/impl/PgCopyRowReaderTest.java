@@ -0,0 +1,100 @@
+package org.globsframework.sql.drivers.postgresql.impl;
+
+import org.globsframework.core.metamodel.fields.Field;
+import org.globsframework.core.model.Glob;
+import org.globsframework.sql.model.DummyObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PgCopyRowReaderTest {
+
+    @Test
+    public void testReadWrittenRows() throws Exception {
+        List<Field> fields = List.of(DummyObject.ID, DummyObject.NAME, DummyObject.VALUE, DummyObject.PRESENT,
+                DummyObject.COUNT, DummyObject.DATE, DummyObject.CREATED_AT);
+        Glob first = DummyObject.TYPE.instantiate()
+                .set(DummyObject.ID, 1)
+                .set(DummyObject.NAME, "é")
+                .set(DummyObject.VALUE, 1.5)
+                .set(DummyObject.PRESENT, true)
+                .set(DummyObject.DATE, (int) LocalDate.of(2024, 2, 29).toEpochDay())
+                .set(DummyObject.CREATED_AT, Instant.parse("1999-12-31T23:59:59.123Z").toEpochMilli());
+        Glob second = DummyObject.TYPE.instantiate()
+                .set(DummyObject.ID, 2)
+                .set(DummyObject.COUNT, 7);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PgBinaryCopyWriter writer = new PgBinaryCopyWriter(bytes);
+        writer.writeHeader();
+        writer.writeRow(first, fields);
+        writer.writeRow(second, fields);
+        writer.writeTrailer();
+
+        PgCopyRowReader reader = new PgCopyRowReader(new ByteArrayInputStream(bytes.toByteArray()),
+                new String[]{null, "int4", "varchar", "float8", "bool", "int4", "date", "timestamptz"});
+        Object[] row = new Object[8];
+        assertTrue(reader.readRow(row));
+        assertEquals(1, row[1]);
+        assertEquals("é", row[2]);
+        assertEquals(1.5, row[3]);
+        assertEquals(true, row[4]);
+        assertNull(row[5]);
+        assertEquals(Date.valueOf(LocalDate.of(2024, 2, 29)), row[6]);
+        assertEquals(Timestamp.from(Instant.parse("1999-12-31T23:59:59.123Z")), row[7]);
+        assertTrue(reader.readRow(row));
+        assertEquals(2, row[1]);
+        assertNull(row[2]);
+        assertEquals(7, row[5]);
+        assertFalse(reader.readRow(row));
+    }
+
+    // as sent by the server : header extension, int2, int8, float4, jsonb (version byte), timestamp and bytea.
+    @Test
+    public void testReadServerTypes() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.write(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+        output.writeInt(0);
+        output.writeInt(2);
+        output.writeShort(0);
+        output.writeShort(6);
+        output.writeInt(2);
+        output.writeShort(-3);
+        output.writeInt(8);
+        output.writeLong(Long.MAX_VALUE);
+        output.writeInt(4);
+        output.writeFloat(0.5f);
+        byte[] json = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+        output.writeInt(json.length + 1);
+        output.writeByte(1);
+        output.write(json);
+        output.writeInt(8);
+        output.writeLong(-1_000_000L);
+        output.writeInt(3);
+        output.write(new byte[]{1, 2, 3});
+        output.writeShort(-1);
+
+        PgCopyRowReader reader = new PgCopyRowReader(new ByteArrayInputStream(bytes.toByteArray()),
+                new String[]{null, "int2", "int8", "float4", "jsonb", "timestamp", "bytea"});
+        Object[] row = new Object[7];
+        assertTrue(reader.readRow(row));
+        assertEquals(-3, row[1]);
+        assertEquals(Long.MAX_VALUE, row[2]);
+        assertEquals(0.5, row[3]);
+        assertEquals("{\"a\":1}", row[4]);
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(1999, 12, 31, 23, 59, 59)), row[5]);
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) row[6]);
+        assertFalse(reader.readRow(row));
+    }
+}
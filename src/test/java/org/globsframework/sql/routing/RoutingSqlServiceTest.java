@@ -0,0 +1,90 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.utils.exceptions.UnexpectedApplicationState;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.SqlService;
+import org.globsframework.sql.drivers.jdbc.JdbcSqlService;
+import org.globsframework.sql.model.DummyObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+public class RoutingSqlServiceTest {
+    private JdbcSqlService primary;
+    private JdbcSqlService replica;
+
+    @Before
+    public void setUp() {
+        primary = new JdbcSqlService("jdbc:hsqldb:mem:routingPrimary", "sa", "");
+        replica = new JdbcSqlService("jdbc:hsqldb:mem:routingReplica", "sa", "");
+        init(primary, "primary");
+        init(replica, "replica");
+    }
+
+    @After
+    public void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    public void readsGoToReplicaAndWritesToPrimary() {
+        RoutingSqlService routingSqlService = new RoutingSqlService(primary, List.of(replica));
+        SqlConnection db = routingSqlService.getDb();
+        db.getCreateBuilder(DummyObject.TYPE)
+                .set(DummyObject.ID, 2)
+                .set(DummyObject.NAME, "written")
+                .getRequest().run();
+        db.commitAndClose();
+        Assert.assertEquals(List.of("primary", "written"), names(primary.getDb()));
+
+        SqlConnection readDb = routingSqlService.getReadDb();
+        Assert.assertEquals(List.of("replica"), names(readDb));
+        try {
+            readDb.getCreateBuilder(DummyObject.TYPE);
+            Assert.fail("write on replica");
+        } catch (UnexpectedApplicationState e) {
+        }
+        readDb.rollbackAndClose();
+    }
+
+    @Test
+    public void readsGoToPrimaryInTheReadYourWritesWindow() {
+        RoutingSqlService routingSqlService = new RoutingSqlService(primary, List.of(replica), Duration.ofHours(1));
+        Assert.assertEquals(List.of("replica"), names(routingSqlService.getReadDb()));
+
+        SqlConnection db = routingSqlService.getDb();
+        db.getCreateBuilder(DummyObject.TYPE)
+                .set(DummyObject.ID, 2)
+                .set(DummyObject.NAME, "written")
+                .getRequest().run();
+        db.commitAndClose();
+
+        Assert.assertEquals(List.of("primary", "written"), names(routingSqlService.getReadDb()));
+    }
+
+    private static void init(SqlService sqlService, String name) {
+        SqlConnection db = sqlService.getDb();
+        db.createTable(DummyObject.TYPE);
+        db.emptyTable(DummyObject.TYPE);
+        db.getCreateBuilder(DummyObject.TYPE)
+                .set(DummyObject.ID, 1)
+                .set(DummyObject.NAME, name)
+                .getRequest().run();
+        db.commitAndClose();
+    }
+
+    // close the connection.
+    private static List<String> names(SqlConnection db) {
+        try {
+            return db.getQueryBuilder(DummyObject.TYPE).selectAll().orderAsc(DummyObject.ID).getQuery().executeAsGlobs()
+                    .stream().map(glob -> glob.get(DummyObject.NAME)).toList();
+        } finally {
+            db.rollbackAndClose();
+        }
+    }
+}
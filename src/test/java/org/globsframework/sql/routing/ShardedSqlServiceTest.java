@@ -0,0 +1,136 @@
+package org.globsframework.sql.routing;
+
+import org.globsframework.core.model.Glob;
+import org.globsframework.core.streams.GlobStream;
+import org.globsframework.core.streams.accessors.IntegerAccessor;
+import org.globsframework.core.streams.accessors.LongAccessor;
+import org.globsframework.sql.SelectBuilder;
+import org.globsframework.sql.SelectQuery;
+import org.globsframework.sql.SqlConnection;
+import org.globsframework.sql.constraints.Constraints;
+import org.globsframework.sql.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.sql.drivers.jdbc.JdbcSqlService;
+import org.globsframework.sql.model.DummyObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+public class ShardedSqlServiceTest extends DbServicesTestCase {
+
+    @Test
+    public void rowsAreSplitOverShardsAndMerged() {
+        JdbcSqlService shard1 = new JdbcSqlService("jdbc:hsqldb:mem:shard1", "sa", "");
+        ShardedSqlService shardedSqlService = new ShardedSqlService(List.of(sqlService, shard1));
+        SqlConnection db = shardedSqlService.getDb();
+        db.createTable(DummyObject.TYPE);
+        db.emptyTable(DummyObject.TYPE);
+        for (int i = 0; i < 10; i++) {
+            db.getCreateBuilder(DummyObject.TYPE)
+                    .set(DummyObject.ID, i)
+                    .set(DummyObject.NAME, "name " + i)
+                    .set(DummyObject.COUNT, i)
+                    .getRequest().run();
+        }
+        db.commit();
+
+        SqlConnection shard1Db = shard1.getDb();
+        Assert.assertEquals(5, shard1Db.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsGlobs().size());
+        shard1Db.commitAndClose();
+
+        Assert.assertEquals("name 3", db.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 3))
+                .selectAll().getQuery().executeUnique().get(DummyObject.NAME));
+
+        List<Glob> page = db.getQueryBuilder(DummyObject.TYPE)
+                .selectAll().orderDesc(DummyObject.ID).skip(1).top(3)
+                .getQuery().executeAsGlobs();
+        Assert.assertEquals(List.of(8, 7, 6), page.stream().map(glob -> glob.get(DummyObject.ID)).toList());
+
+        Assert.assertEquals(1, db.getDeleteRequest(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 3)).run());
+
+        SelectBuilder queryBuilder = db.getQueryBuilder(DummyObject.TYPE);
+        LongAccessor count = queryBuilder.count(DummyObject.ID);
+        LongAccessor sum = queryBuilder.sum(DummyObject.COUNT);
+        IntegerAccessor max = queryBuilder.max(DummyObject.COUNT);
+        try (SelectQuery query = queryBuilder.getQuery()) {
+            GlobStream globStream = query.execute();
+            Assert.assertTrue(globStream.next());
+            Assert.assertEquals(9L, count.getValue(0));
+            Assert.assertEquals(42L, sum.getValue(0));
+            Assert.assertEquals(9, max.getValue(0));
+        }
+        db.emptyTable(DummyObject.TYPE);
+        db.commitAndClose();
+    }
+
+    @Test
+    public void pageAfterMergeOnTheKeyToo() {
+        JdbcSqlService shard1 = new JdbcSqlService("jdbc:hsqldb:mem:shard1", "sa", "");
+        SqlConnection db = new ShardedSqlService(List.of(sqlService, shard1)).getDb();
+        db.createTable(DummyObject.TYPE);
+        db.emptyTable(DummyObject.TYPE);
+        for (int i = 0; i < 10; i++) {
+            db.getCreateBuilder(DummyObject.TYPE)
+                    .set(DummyObject.ID, i)
+                    .set(DummyObject.NAME, "name " + i)
+                    .set(DummyObject.COUNT, i % 3)
+                    .getRequest().run();
+        }
+        db.commit();
+
+        // COUNT desc, ID asc : 2, 5, 8, 1, 4, 7, 0, 3, 6, 9
+        List<Glob> firstPage = db.getQueryBuilder(DummyObject.TYPE)
+                .selectAll().orderDesc(DummyObject.COUNT).orderAsc(DummyObject.ID).top(4)
+                .getQuery().executeAsGlobs();
+        Assert.assertEquals(List.of(2, 5, 8, 1), firstPage.stream().map(glob -> glob.get(DummyObject.ID)).toList());
+
+        List<Glob> secondPage = db.getQueryBuilder(DummyObject.TYPE)
+                .selectAll().orderDesc(DummyObject.COUNT).pageAfter(firstPage.get(3)).top(4)
+                .getQuery().executeAsGlobs();
+        Assert.assertEquals(List.of(4, 7, 0, 3), secondPage.stream().map(glob -> glob.get(DummyObject.ID)).toList());
+
+        db.emptyTable(DummyObject.TYPE);
+        db.commitAndClose();
+    }
+
+    @Test
+    public void stringOrderIsMergedWithTheStringComparator() {
+        JdbcSqlService shard1 = new JdbcSqlService("jdbc:hsqldb:mem:shard1", "sa", "");
+        ShardedSqlService shardedSqlService = new ShardedSqlService(List.of(sqlService, shard1));
+        SqlConnection db = shardedSqlService.getDb();
+        db.createTable(DummyObject.TYPE);
+        db.emptyTable(DummyObject.TYPE);
+        List<String> names = List.of("b", "B", "a", "A", "_a", "ab");
+        for (int i = 0; i < names.size(); i++) {
+            db.getCreateBuilder(DummyObject.TYPE)
+                    .set(DummyObject.ID, i)
+                    .set(DummyObject.NAME, names.get(i))
+                    .getRequest().run();
+        }
+        db.commit();
+
+        // binary order, as the default collation of hsqldb
+        List<Glob> sorted = db.getQueryBuilder(DummyObject.TYPE)
+                .selectAll().orderAsc(DummyObject.NAME)
+                .getQuery().executeAsGlobs();
+        Assert.assertEquals(List.of("A", "B", "_a", "a", "ab", "b"), sorted.stream().map(glob -> glob.get(DummyObject.NAME)).toList());
+
+        List<Glob> lastNames = db.getQueryBuilder(DummyObject.TYPE)
+                .selectAll().orderDesc(DummyObject.NAME).top(3)
+                .getQuery().executeAsGlobs();
+        Assert.assertEquals(List.of("b", "ab", "a"), lastNames.stream().map(glob -> glob.get(DummyObject.NAME)).toList());
+        db.emptyTable(DummyObject.TYPE);
+        db.commitAndClose();
+    }
+
+    @Test
+    public void shardDependOnlyOnTheValue() {
+        Assert.assertEquals(ShardedSqlService.hashOf(5), ShardedSqlService.hashOf(5L));
+        Assert.assertEquals(ShardedSqlService.hashOf(ZonedDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC)),
+                ShardedSqlService.hashOf(ZonedDateTime.of(2024, 1, 1, 13, 0, 0, 0, ZoneId.of("Europe/Paris"))));
+        Assert.assertEquals(ShardedSqlService.hashOf(new byte[]{1, 2}), ShardedSqlService.hashOf(new byte[]{1, 2}));
+    }
+}